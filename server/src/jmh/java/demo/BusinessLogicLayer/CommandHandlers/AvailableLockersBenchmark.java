@@ -0,0 +1,35 @@
+package demo.BusinessLogicLayer.CommandHandlers;
+
+import demo.LockerFixtures;
+import demo.PresentationLayer.Boundaries.ObjectBoundary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Map;
+
+// The in-memory half of getAvailableLockers: joining the nearby blocks with their available lockers
+@State(Scope.Benchmark)
+public class AvailableLockersBenchmark {
+
+    // Number of lockers, in blocks of LockerFixtures.LOCKERS_PER_BLOCK
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private List<ObjectBoundary> lockerBlocks;
+    private Map<String, List<ObjectBoundary>> lockersByBlock;
+
+    @Setup
+    public void setUp() {
+        this.lockerBlocks = LockerFixtures.lockerBlocks(this.size);
+        this.lockersByBlock = LockerFixtures.availableLockersByBlock(this.size);
+    }
+
+    @Benchmark
+    public List<ObjectBoundary> withAvailableLockers() {
+        return GetAvailableLockersCommandHandler.withAvailableLockers(this.lockerBlocks, this.lockersByBlock);
+    }
+}
@@ -0,0 +1,70 @@
+package demo.BusinessLogicLayer.Converters;
+
+import demo.DataAccessLayer.Entities.CommandEntity;
+import demo.DataAccessLayer.Entities.ObjectEntity;
+import demo.LockerFixtures;
+import demo.PresentationLayer.Boundaries.CommandBoundary;
+import demo.PresentationLayer.Boundaries.ObjectBoundary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+
+/**
+ * Converts a whole result set per operation, the way a page or an export of that size is converted.
+ * Lockers and commands are both entity-to-boundary (reads) and boundary-to-entity (writes).
+ */
+@State(Scope.Benchmark)
+public class ConvertersBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private final ObjectConverter objectConverter = new ObjectConverter();
+    private final CommandConverter commandConverter = new CommandConverter();
+
+    private List<ObjectEntity> lockerEntities;
+    private List<ObjectBoundary> lockerBoundaries;
+    private List<CommandBoundary> commandBoundaries;
+    private List<CommandEntity> commandEntities;
+
+    @Setup
+    public void setUp() {
+        this.lockerEntities = LockerFixtures.lockerEntities(this.size);
+        this.lockerBoundaries = LockerFixtures.lockerBoundaries(this.size);
+        this.commandBoundaries = LockerFixtures.changeLockerStatusCommands(this.size);
+        this.commandEntities = this.commandBoundaries.stream().map(this.commandConverter::toEntity).toList();
+    }
+
+    @Benchmark
+    public void objectToBoundary(Blackhole blackhole) {
+        for (ObjectEntity entity : this.lockerEntities) {
+            blackhole.consume(this.objectConverter.toBoundary(entity));
+        }
+    }
+
+    @Benchmark
+    public void objectToEntity(Blackhole blackhole) {
+        for (ObjectBoundary boundary : this.lockerBoundaries) {
+            blackhole.consume(this.objectConverter.toEntity(boundary));
+        }
+    }
+
+    @Benchmark
+    public void commandToBoundary(Blackhole blackhole) {
+        for (CommandEntity entity : this.commandEntities) {
+            blackhole.consume(this.commandConverter.toBoundary(entity));
+        }
+    }
+
+    @Benchmark
+    public void commandToEntity(Blackhole blackhole) {
+        for (CommandBoundary boundary : this.commandBoundaries) {
+            blackhole.consume(this.commandConverter.toEntity(boundary));
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package demo.BusinessLogicLayer.Services;
+
+import demo.LockerFixtures;
+import demo.PresentationLayer.Boundaries.CommandBoundary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+// Validation of every command of a burst, as invokeCommand runs it before a command is journaled
+@State(Scope.Benchmark)
+public class CommandValidationBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private List<CommandBoundary> commands;
+
+    @Setup
+    public void setUp() {
+        this.commands = LockerFixtures.changeLockerStatusCommands(this.size);
+    }
+
+    @Benchmark
+    public int validateCommands() {
+        for (CommandBoundary command : this.commands) {
+            CommandServiceImpl.validateCommand(command);
+        }
+        return this.commands.size();
+    }
+}
@@ -0,0 +1,118 @@
+package demo.BusinessLogicLayer.Services;
+
+import demo.BusinessLogicLayer.Converters.ObjectConverter;
+import demo.DataAccessLayer.Entities.ObjectEntity;
+import demo.LockerFixtures;
+import demo.PresentationLayer.Boundaries.ObjectBoundary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * The nearby-block lookup of getAvailableLockers: the LockerBlockIndex against the linear scan it replaced, which
+ * computed calculateDistance for every available lockerBlock, kept the ones within the radius that had an
+ * available locker, sorted them by distance and cut the page. Each operation is one 20-block page for a query
+ * point taken in turn from 1024 random points over the same area as the blocks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class LockerBlockIndexBenchmark {
+
+    static final int PAGE_SIZE = 20;
+    static final int QUERY_POINTS = 1024;
+
+    @Param({"10000", "1000000"})
+    public int blocks;
+
+    @Param({"5"})
+    public double radiusKm;
+
+    private List<ObjectBoundary> lockerBlocks;
+    private LockerBlockIndex index;
+    private double[] queryLatitudes;
+    private double[] queryLongitudes;
+    private int query;
+
+    @Setup
+    public void setUp() {
+        List<ObjectEntity> entities = LockerFixtures.spreadLockerBlockEntities(this.blocks);
+        ObjectConverter converter = new ObjectConverter();
+        this.lockerBlocks = entities.stream().map(converter::toBoundary).toList();
+
+        this.index = new LockerBlockIndex(true, 0.01);
+        this.index.rebuild(entities);
+
+        Random random = new Random(5);
+        this.queryLatitudes = new double[QUERY_POINTS];
+        this.queryLongitudes = new double[QUERY_POINTS];
+        for (int i = 0; i < QUERY_POINTS; i++) {
+            this.queryLatitudes[i] = 29.5 + random.nextDouble() * 3.8;
+            this.queryLongitudes[i] = 34.2 + random.nextDouble() * 1.7;
+        }
+    }
+
+    @Benchmark
+    public LockerBlockIndex.Neighbours indexRadius() {
+        int point = nextQuery();
+        return this.index.nearest(this.queryLatitudes[point], this.queryLongitudes[point], this.radiusKm, PAGE_SIZE, true);
+    }
+
+    // k-NN with a loose bound: the ring search stops at the 20th block, not at the radius
+    @Benchmark
+    public LockerBlockIndex.Neighbours indexNearest() {
+        int point = nextQuery();
+        return this.index.nearest(this.queryLatitudes[point], this.queryLongitudes[point], 100, PAGE_SIZE, true);
+    }
+
+    @Benchmark
+    public List<ObjectBoundary> linearScan() {
+        int point = nextQuery();
+        double latitude = this.queryLatitudes[point];
+        double longitude = this.queryLongitudes[point];
+
+        List<ObjectBoundary> nearbyLockerBlocks = this.lockerBlocks.stream()
+                .filter(lockerBlock -> {
+                    Map<String, Object> details = lockerBlock.getObjectDetails();
+                    double lockerLat = Double.parseDouble(details.get("latitude").toString());
+                    double lockerLon = Double.parseDouble(details.get("longitude").toString());
+                    double distance = calculateDistance(latitude, longitude, lockerLat, lockerLon);
+                    details.put("distanceKm", distance);
+                    return distance <= this.radiusKm && ((Integer) details.get("availableCount")) > 0;
+                })
+                .sorted((a, b) -> ((Double) a.getObjectDetails().get("distanceKm"))
+                        .compareTo((Double) b.getObjectDetails().get("distanceKm")))
+                .collect(Collectors.toList());
+        return nearbyLockerBlocks.subList(0, Math.min(PAGE_SIZE, nearbyLockerBlocks.size()));
+    }
+
+    private int nextQuery() {
+        this.query = (this.query + 1) % QUERY_POINTS;
+        return this.query;
+    }
+
+    // The haversine helper of the linear scan
+    private static double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
+        final double R = 6371; // Radius of the Earth in km
+        double latDistance = Math.toRadians(lat2 - lat1);
+        double lonDistance = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+        return R * c;
+    }
+}
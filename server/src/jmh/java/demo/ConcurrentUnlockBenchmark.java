@@ -0,0 +1,175 @@
+package demo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import demo.BusinessLogicLayer.Services.ObjectService;
+import demo.BusinessLogicLayer.Services.UserService;
+import demo.DataAccessLayer.Entities.ObjectEntity;
+import demo.DataAccessLayer.Entities.UserEntity;
+import demo.DataAccessLayer.IDs.UserID;
+import demo.Enums.UserRole;
+import demo.PresentationLayer.Boundaries.CommandBoundary;
+import demo.PresentationLayer.Boundaries.NewUserBoundary;
+import demo.PresentationLayer.Boundaries.ObjectBoundary;
+import demo.PresentationLayer.Boundaries.UserNameBoundary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saturation of changeLockerStatus over HTTP with Tomcat on its platform thread pool (virtualThreads=false)
+ * or on virtual threads (virtualThreads=true).
+ * Each of the 1024 benchmark threads is one client toggling its own locker, so the clients only compete for
+ * the server: unlockThroughput is the saturation throughput, the p0.99 of unlockLatency its tail latency.
+ * The server runs against the MongoDB of compose.yaml and Unity is a local stub answering 200 right away;
+ * run it alone with ./gradlew jmh -PjmhIncludes=ConcurrentUnlockBenchmark
+ */
+@State(Scope.Benchmark)
+public class ConcurrentUnlockBenchmark {
+
+    static final int CLIENTS = 1024;
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    // Spring profiles of the server under test
+    @Param({"default"})
+    public String profile;
+
+    private HttpServer unityStub;
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private ObjectMapper objectMapper;
+    private URI commandsUri;
+    private String appName;
+    private UserID operator;
+    private UserID endUser;
+
+    @Setup(Level.Trial)
+    public void startServer() throws Exception {
+        this.unityStub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.unityStub.createContext("/", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        this.unityStub.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        this.unityStub.start();
+
+        this.context = SpringApplication.run(Application.class,
+                "--spring.profiles.active=" + this.profile,
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + this.virtualThreads,
+                "--unity.simulator.url=http://localhost:" + this.unityStub.getAddress().getPort(),
+                "--logging.level.root=warn");
+        this.appName = this.context.getEnvironment().getProperty("spring.application.name");
+        this.commandsUri = URI.create("http://localhost:" + this.context.getEnvironment().getProperty("local.server.port")
+                + "/ambient-intelligence/commands");
+        this.objectMapper = this.context.getBean(ObjectMapper.class);
+        this.httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        UserService userService = this.context.getBean(UserService.class);
+        long run = System.nanoTime();
+        this.operator = userService.createUser(new NewUserBoundary("load.operator." + run + "@example.com",
+                UserRole.OPERATOR, new UserNameBoundary("Load", "Operator"), "avatar.png")).getUserId();
+        this.endUser = userService.createUser(new NewUserBoundary("load.user." + run + "@example.com",
+                UserRole.END_USER, new UserNameBoundary("Load", "User"), "avatar.png")).getUserId();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopServer() {
+        MongoTemplate mongoTemplate = this.context.getBean(MongoTemplate.class);
+        mongoTemplate.remove(new Query(Criteria.where("createdBy")
+                .is(this.operator.getEmail() + "/" + this.operator.getSystemID())), ObjectEntity.class);
+        mongoTemplate.remove(new Query(Criteria.where("email")
+                .in(this.operator.getEmail(), this.endUser.getEmail())), UserEntity.class);
+
+        this.context.close();
+        this.unityStub.stop(0);
+    }
+
+    // One client: a reserved locker of its own and the changeLockerStatus request toggling it
+    @State(Scope.Thread)
+    public static class Client {
+
+        private HttpRequest request;
+
+        @Setup(Level.Trial)
+        public void reserveLocker(ConcurrentUnlockBenchmark server) throws Exception {
+            ObjectService objectService = server.context.getBean(ObjectService.class);
+            ObjectBoundary locker = objectService.createObject(
+                    server.object("locker", "available", Map.of("isLocked", true)), false);
+            ObjectBoundary reservation = objectService.createObject(
+                    server.object("reservation", "active", Map.of("lockerId", locker.getObjectID().getID())), false);
+
+            CommandBoundary command = new CommandBoundary();
+            command.setCommand("changeLockerStatus");
+            command.setTargetObject(Map.of("id", Map.of("objectId", locker.getObjectID().getID(), "systemID", server.appName)));
+            command.setInvokedBy(Map.of("userId", server.endUser));
+            command.setCommandAttributes(Map.of("reservationId", reservation.getObjectID().getID()));
+
+            this.request = HttpRequest.newBuilder(server.commandsUri)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(server.objectMapper.writeValueAsBytes(command)))
+                    .build();
+        }
+    }
+
+    private ObjectBoundary object(String type, String status, Map<String, Object> objectDetails) {
+        ObjectBoundary object = new ObjectBoundary();
+        object.setType(type);
+        object.setAlias(type + " " + System.nanoTime());
+        object.setStatus(status);
+        object.setActive(true);
+        object.setCreatedBy(Map.of("userId", this.operator));
+        object.setObjectDetails(new HashMap<>(objectDetails));
+        return object;
+    }
+
+    @Benchmark
+    @Threads(CLIENTS)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public int unlockThroughput(Client client) throws Exception {
+        return unlock(client);
+    }
+
+    @Benchmark
+    @Threads(CLIENTS)
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int unlockLatency(Client client) throws Exception {
+        return unlock(client);
+    }
+
+    private int unlock(Client client) throws Exception {
+        HttpResponse<Void> response = this.httpClient.send(client.request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("changeLockerStatus answered HTTP " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
@@ -0,0 +1,166 @@
+package demo;
+
+import demo.DataAccessLayer.Entities.ObjectEntity;
+import demo.DataAccessLayer.IDs.CommandID;
+import demo.DataAccessLayer.IDs.ObjectID;
+import demo.DataAccessLayer.IDs.UserID;
+import demo.PresentationLayer.Boundaries.CommandBoundary;
+import demo.PresentationLayer.Boundaries.ObjectBoundary;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Locker and lockerBlock fixtures shaped like the objects MyInitHelper creates: blocks around Tel Aviv with
+ * name/address/coordinates, and lockers with number/size/isLocked bound to their block through parentId.
+ * A fixed seed keeps every benchmark run on the same data.
+ */
+public final class LockerFixtures {
+
+    public static final String APP_NAME = "2025b.Eden.Mendler";
+    public static final int LOCKERS_PER_BLOCK = 10;
+    private static final String[] LOCKER_SIZES = {"Small", "Medium", "Large"};
+    private static final String CREATED_BY = "operator@example.com/" + APP_NAME;
+
+    private LockerFixtures() {
+    }
+
+    public static List<ObjectEntity> lockerEntities(int count) {
+        Random random = new Random(42);
+        List<ObjectEntity> lockers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ObjectEntity locker = new ObjectEntity();
+            locker.setId("locker-" + i);
+            locker.setSystemID(APP_NAME);
+            locker.setType("locker");
+            locker.setAlias("Locker " + (i + 1));
+            locker.setStatus(random.nextInt(4) == 0 ? "OutOfOrder" : "available");
+            locker.setActive(true);
+            locker.setCreationTimestamp(new Date(1_700_000_000_000L + i));
+            locker.setCreatedBy(CREATED_BY);
+            locker.setParentId(blockIdOf(i));
+
+            Map<String, Object> details = new HashMap<>();
+            details.put("number", i + 1);
+            details.put("size", LOCKER_SIZES[random.nextInt(LOCKER_SIZES.length)]);
+            details.put("isLocked", random.nextBoolean());
+            locker.setObjectDetails(details);
+            lockers.add(locker);
+        }
+        return lockers;
+    }
+
+    public static List<ObjectBoundary> lockerBoundaries(int count) {
+        List<ObjectBoundary> lockers = new ArrayList<>(count);
+        for (ObjectEntity entity : lockerEntities(count)) {
+            ObjectBoundary locker = new ObjectBoundary();
+            locker.setObjectID(new ObjectID(entity.getId(), APP_NAME));
+            locker.setType(entity.getType());
+            locker.setAlias(entity.getAlias());
+            locker.setStatus(entity.getStatus());
+            locker.setActive(entity.getActive());
+            locker.setCreationTimestamp(entity.getCreationTimestamp());
+            locker.setCreatedBy(Map.of("userId", new UserID("operator@example.com", APP_NAME)));
+            locker.setObjectDetails(entity.getObjectDetails());
+            lockers.add(locker);
+        }
+        return lockers;
+    }
+
+    // One block per LOCKERS_PER_BLOCK lockers
+    public static List<ObjectBoundary> lockerBlocks(int lockerCount) {
+        Random random = new Random(7);
+        int blockCount = (lockerCount + LOCKERS_PER_BLOCK - 1) / LOCKERS_PER_BLOCK;
+        List<ObjectBoundary> blocks = new ArrayList<>(blockCount);
+        for (int i = 0; i < blockCount; i++) {
+            ObjectBoundary block = new ObjectBoundary();
+            block.setObjectID(new ObjectID("block-" + i, APP_NAME));
+            block.setType("lockerBlock");
+            block.setAlias("Central Station Block " + (i + 1));
+            block.setStatus("available");
+            block.setActive(true);
+            block.setCreationTimestamp(new Date(1_700_000_000_000L + i));
+            block.setCreatedBy(Map.of("userId", new UserID("operator@example.com", APP_NAME)));
+
+            Map<String, Object> details = new HashMap<>();
+            details.put("name", block.getAlias());
+            details.put("address", (100 + random.nextInt(899)) + " Dizengoff St");
+            details.put("latitude", 32.05 + random.nextDouble() * 0.1);
+            details.put("longitude", 34.75 + random.nextDouble() * 0.1);
+            details.put("distanceKm", random.nextDouble() * 5);
+            block.setObjectDetails(details);
+            blocks.add(block);
+        }
+        return blocks;
+    }
+
+    // lockerBlocks spread over Israel (about 420 x 160 km) with 0-3 available lockers each, as stored with their location
+    public static List<ObjectEntity> spreadLockerBlockEntities(int count) {
+        Random random = new Random(11);
+        List<ObjectEntity> blocks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            double latitude = 29.5 + random.nextDouble() * 3.8;
+            double longitude = 34.2 + random.nextDouble() * 1.7;
+
+            ObjectEntity block = new ObjectEntity();
+            block.setId("block-" + i);
+            block.setSystemID(APP_NAME);
+            block.setType("lockerBlock");
+            block.setAlias("Block " + (i + 1));
+            block.setStatus("available");
+            block.setActive(true);
+            block.setCreationTimestamp(new Date(1_700_000_000_000L + i));
+            block.setCreatedBy(CREATED_BY);
+            block.setAvailableCount(random.nextInt(4));
+
+            Map<String, Object> details = new HashMap<>();
+            details.put("latitude", latitude);
+            details.put("longitude", longitude);
+            block.setObjectDetails(details);
+            block.setLocation(new GeoJsonPoint(longitude, latitude));
+            blocks.add(block);
+        }
+        return blocks;
+    }
+
+    // Available lockers grouped by block, as returned by ObjectService.getActiveChildrenByTypeAndStatus
+    public static Map<String, List<ObjectBoundary>> availableLockersByBlock(int lockerCount) {
+        Map<String, List<ObjectBoundary>> lockersByBlock = new LinkedHashMap<>();
+        List<ObjectBoundary> lockers = lockerBoundaries(lockerCount);
+        for (int i = 0; i < lockers.size(); i++) {
+            if ("available".equals(lockers.get(i).getStatus())) {
+                lockersByBlock.computeIfAbsent(blockIdOf(i), key -> new ArrayList<>()).add(lockers.get(i));
+            }
+        }
+        return lockersByBlock;
+    }
+
+    // changeLockerStatus commands of an END_USER, one per locker
+    public static List<CommandBoundary> changeLockerStatusCommands(int count) {
+        List<CommandBoundary> commands = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            CommandBoundary command = new CommandBoundary();
+            CommandID commandID = new CommandID();
+            commandID.setCommandID("command-" + i);
+            commandID.setSystemID(APP_NAME);
+            command.setCommandID(commandID);
+            command.setCommand("changeLockerStatus");
+            command.setTargetObject(Map.of("id", Map.of("objectId", "locker-" + i, "systemID", APP_NAME)));
+            command.setInvocationTimestamp(new Date(1_700_000_000_000L + i));
+            command.setInvokedBy(Map.of("userId", new UserID("user" + i + "@example.com", APP_NAME)));
+            command.setCommandAttributes(Map.of("reservationId", "reservation-" + i));
+            commands.add(command);
+        }
+        return commands;
+    }
+
+    private static String blockIdOf(int lockerIndex) {
+        return "block-" + (lockerIndex / LOCKERS_PER_BLOCK);
+    }
+}
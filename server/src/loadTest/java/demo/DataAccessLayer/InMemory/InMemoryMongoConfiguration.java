@@ -0,0 +1,54 @@
+package demo.DataAccessLayer.InMemory;
+
+import com.mongodb.ConnectionString;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.InMemoryBackend;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoConnectionDetails;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.net.InetSocketAddress;
+
+/**
+ * The "inmemory" profile: the CRUDs talk to an in-process MongoDB server (mongo-java-server) instead of a real
+ * database, so the controller and service stack can be load-tested without Docker and with near-zero database cost.
+ * Every CRUD, derived finder, fragment and paging query runs unchanged over the wire protocol on the loopback
+ * interface. Data lives in concurrent in-memory collections and is lost on shutdown. Server features the
+ * in-memory backend does not implement fail with an error in this profile. It has no $geoNear, so nearby locker
+ * searches must be answered by the LockerBlockIndex: the profile refuses to start with lockers.spatial-index.enabled
+ * set to false. The class and mongo-java-server live in the loadTest source set and are never packaged.
+ */
+@Configuration(proxyBeanMethods = false)
+@Profile("inmemory")
+public class InMemoryMongoConfiguration {
+
+    private final Log log = LogFactory.getLog(InMemoryMongoConfiguration.class);
+
+    @Bean(destroyMethod = "shutdownNow")
+    public MongoServer inMemoryMongoServer(
+            @Value("${lockers.spatial-index.enabled:true}") boolean spatialIndexEnabled) {
+        if (!spatialIndexEnabled) {
+            throw new IllegalStateException("The inmemory profile has no $geoNear: nearby locker searches need "
+                    + "lockers.spatial-index.enabled=true");
+        }
+        MongoServer server = new MongoServer(new InMemoryBackend());
+        InetSocketAddress address = server.bind();
+        log.info("In-memory MongoDB listening on " + address.getHostString() + ":" + address.getPort());
+        return server;
+    }
+
+    // Takes precedence over spring.data.mongodb.uri
+    @Bean
+    public MongoConnectionDetails inMemoryMongoConnectionDetails(
+            MongoServer inMemoryMongoServer,
+            @Value("${inmemory.mongo.database:mydatabase}") String database) {
+        InetSocketAddress address = inMemoryMongoServer.getLocalAddress();
+        ConnectionString connectionString = new ConnectionString(
+                "mongodb://" + address.getHostString() + ":" + address.getPort() + "/" + database);
+        return () -> connectionString;
+    }
+}
@@ -0,0 +1,80 @@
+package demo.BusinessLogicLayer.CommandHandlers;
+
+import demo.BusinessLogicLayer.Exceptions.MyForbiddenException;
+import demo.BusinessLogicLayer.Exceptions.MyInvalidInputException;
+import demo.BusinessLogicLayer.Exceptions.MyNotFoundException;
+import demo.BusinessLogicLayer.Services.ObjectService;
+import demo.BusinessLogicLayer.Services.ToggledLocker;
+import demo.BusinessLogicLayer.Services.UnityNotificationService;
+import demo.DataAccessLayer.IDs.UserID;
+import demo.PresentationLayer.Boundaries.ObjectBoundary;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// No pre-check: the atomic toggle itself reports a missing or inactive locker
+@Component
+public class ChangeLockerStatusCommandHandler implements CommandHandler {
+
+    private final ObjectService objectService;
+    private final UnityNotificationService unityNotificationService;
+    private final String appName;
+
+    public ChangeLockerStatusCommandHandler(
+            ObjectService objectService,
+            UnityNotificationService unityNotificationService,
+            @Value("${spring.application.name:dummy}") String appName) {
+        this.objectService = objectService;
+        this.unityNotificationService = unityNotificationService;
+        this.appName = appName;
+    }
+
+    @Override
+    public String commandType() {
+        return "changeLockerStatus";
+    }
+
+    @Override
+    public Object handle(CommandContext context) {
+        // Extract locker ID from the command's target object
+        String lockerIdFromCommand = context.getTargetObjectId();
+        UserID userId = context.getUserId();
+        Map<String, Object> attributes = context.getAttributes();
+
+        // Validate attributes contain a reservationId
+        if (attributes == null || !attributes.containsKey("reservationId")) {
+            throw new MyInvalidInputException("Missing 'reservationId' in command attributes."); // reservationId is required
+        }
+        String reservationId = attributes.get("reservationId").toString();
+
+        // Fetch reservation object and validate
+        ObjectBoundary reservation = this.objectService.getObjectById(this.appName, reservationId, userId.getSystemID(), userId.getEmail())
+                .orElseThrow(() -> new MyNotFoundException("Reservation not found with ID: " + reservationId));
+        if (!reservation.getActive() || !"reservation".equals(reservation.getType())) {
+            throw new MyForbiddenException("Access denied"); // not a valid reservation object, status hidden from client
+        }
+
+        // Check if the reservation is for the target locker by comparing lockerId in reservation's details
+        Map<String, Object> reservationDetails = reservation.getObjectDetails();
+        if (reservationDetails == null || !reservationDetails.containsKey("lockerId")) {
+            throw new MyForbiddenException("Access denied"); // reservation details do not contain a lockerId, status hidden from client
+        }
+        String lockerIdFromReservation = reservationDetails.get("lockerId").toString();
+
+        if (!lockerIdFromCommand.equals(lockerIdFromReservation)) {
+            throw new MyForbiddenException("Access denied"); // The specified reservation is not for the target locker, status hidden from client
+        }
+
+        // Flip isLocked atomically in the database, concurrent toggles are applied one after the other
+        ToggledLocker toggled = this.objectService.toggleLockerStatus(lockerIdFromCommand, userId.getSystemID(), userId.getEmail());
+        ObjectBoundary locker = toggled.locker();
+
+        // Notify Unity once the new status is stored; delivery is queued and does not delay the response.
+        // The version of the toggle travels with it, so an update overtaken by a newer one is dropped
+        this.unityNotificationService.sendLockerStatus(lockerIdFromCommand, (Boolean) locker.getObjectDetails().get("isLocked"),
+                toggled.lockVersion());
+
+        return locker; // Return the updated locker boundary
+    }
+}
@@ -0,0 +1,99 @@
+package demo.BusinessLogicLayer.CommandHandlers;
+
+import demo.BusinessLogicLayer.Exceptions.MyInvalidInputException;
+import demo.DataAccessLayer.IDs.UserID;
+import demo.PresentationLayer.Boundaries.ObjectBoundary;
+
+import java.util.Map;
+
+// An invoked command as seen by its handler, with the target object once the TARGET_ACTIVE pre-check loaded it
+public class CommandContext {
+
+    private final String commandType;
+    private final Map<String, Object> targetObject;
+    private final Map<String, Object> attributes;
+    private final Map<String, UserID> invokedBy;
+    private ObjectBoundary target;
+
+    public CommandContext(String commandType, Map<String, Object> targetObject,
+                          Map<String, Object> attributes, Map<String, UserID> invokedBy) {
+        this.commandType = commandType;
+        this.targetObject = targetObject;
+        this.attributes = attributes;
+        this.invokedBy = invokedBy;
+    }
+
+    public String getCommandType() {
+        return commandType;
+    }
+
+    public Map<String, Object> getTargetObject() {
+        return targetObject;
+    }
+
+    public Map<String, Object> getAttributes() {
+        return attributes;
+    }
+
+    public Map<String, UserID> getInvokedBy() {
+        return invokedBy;
+    }
+
+    public UserID getUserId() {
+        return invokedBy.get("userId");
+    }
+
+    // Null unless the handler declared TARGET_ACTIVE and the target is not a wildcard
+    public ObjectBoundary getTarget() {
+        return target;
+    }
+
+    void setTarget(ObjectBoundary target) {
+        this.target = target;
+    }
+
+    public String getTargetObjectId() {
+        if (targetObject == null || !(targetObject.get("id") instanceof Map<?, ?> idMap)) {
+            throw new MyInvalidInputException("Target object must contain an 'id' field");
+        }
+        if (idMap.get("objectId") == null) {
+            throw new MyInvalidInputException("Target object id must contain an 'objectId' field");
+        }
+        return idMap.get("objectId").toString();
+    }
+
+    // A target objectId of "*" or "ALL" addresses every object
+    public boolean isWildcardTarget() {
+        String objectId = getTargetObjectId();
+        return "*".equals(objectId) || "ALL".equalsIgnoreCase(objectId);
+    }
+
+    // Reads the object fields carried in the command attributes
+    public ObjectBoundary attributesAsObject() {
+        ObjectBoundary boundary = new ObjectBoundary();
+
+        if (attributes.containsKey("type")) {
+            boundary.setType(attributes.get("type").toString());
+        }
+
+        if (attributes.containsKey("alias")) {
+            boundary.setAlias(attributes.get("alias").toString());
+        }
+
+        if (attributes.containsKey("active")) {
+            boundary.setActive((Boolean) attributes.get("active"));
+        }
+
+        if (attributes.containsKey("status")) {
+            boundary.setStatus(attributes.get("status").toString());
+        }
+
+        if (attributes.containsKey("objectDetails")) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> details = (Map<String, Object>) attributes.get("objectDetails");
+            boundary.setObjectDetails(details);
+        }
+
+        return boundary;
+    }
+}
@@ -0,0 +1,25 @@
+package demo.BusinessLogicLayer.CommandHandlers;
+
+import demo.Enums.CommandPreCheck;
+
+import java.util.Set;
+
+/**
+ * Handles one command type of the commands API.
+ * Handlers are Spring beans collected by {@link CommandHandlerRegistry} at startup; a new command type
+ * only needs a new handler bean. The registry runs the declared pre-checks before {@link #handle},
+ * and times every invocation and counts its failures under the command type.
+ */
+public interface CommandHandler {
+
+    // The command type handled, matched ignoring case
+    String commandType();
+
+    // TARGET_ACTIVE: unless the target is a wildcard, it must exist and be active, see CommandContext.getTarget()
+    default Set<CommandPreCheck> preChecks() {
+        return Set.of();
+    }
+
+    // Returns the command result, a List is returned as is and any other non-null value is wrapped in one
+    Object handle(CommandContext context);
+}
@@ -0,0 +1,92 @@
+package demo.BusinessLogicLayer.CommandHandlers;
+
+import demo.BusinessLogicLayer.Exceptions.MyInvalidInputException;
+import demo.BusinessLogicLayer.Exceptions.MyNotFoundException;
+import demo.BusinessLogicLayer.Services.ObjectService;
+import demo.DataAccessLayer.IDs.UserID;
+import demo.Enums.CommandPreCheck;
+import demo.PresentationLayer.Boundaries.ObjectBoundary;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Index of the {@link CommandHandler} beans by command type, built once at startup.
+ * Every handler gets a commands.handler.latency timer and a commands.handler.errors counter tagged with
+ * its command type; the timer includes the pre-checks the handler declared.
+ */
+@Component
+public class CommandHandlerRegistry {
+
+    private record RegisteredHandler(CommandHandler handler, Timer latency, Counter errors) {
+    }
+
+    private final Map<String, RegisteredHandler> handlers = new HashMap<>();
+    private final ObjectService objectService;
+    private final String appName;
+
+    public CommandHandlerRegistry(
+            List<CommandHandler> handlers,
+            ObjectService objectService,
+            MeterRegistry meterRegistry,
+            @Value("${spring.application.name:dummy}") String appName) {
+        this.objectService = objectService;
+        this.appName = appName;
+
+        for (CommandHandler handler : handlers) {
+            String commandType = handler.commandType().toLowerCase(Locale.ROOT);
+            Timer latency = Timer.builder("commands.handler.latency")
+                    .description("Time spent in a command handler, including its pre-checks")
+                    .tag("command", commandType)
+                    .register(meterRegistry);
+            Counter errors = Counter.builder("commands.handler.errors")
+                    .description("Commands whose handler or pre-checks failed")
+                    .tag("command", commandType)
+                    .register(meterRegistry);
+
+            RegisteredHandler previous = this.handlers.put(commandType, new RegisteredHandler(handler, latency, errors));
+            if (previous != null) {
+                throw new IllegalStateException("Command type " + commandType + " is handled by both "
+                        + previous.handler().getClass().getSimpleName() + " and " + handler.getClass().getSimpleName());
+            }
+        }
+    }
+
+    public Object execute(CommandContext context) {
+        RegisteredHandler registered = this.handlers.get(context.getCommandType().toLowerCase(Locale.ROOT));
+        if (registered == null) {
+            throw new MyInvalidInputException("Unknown command type: " + context.getCommandType());
+        }
+
+        Timer.Sample sample = Timer.start();
+        try {
+            runPreChecks(registered.handler(), context);
+            return registered.handler().handle(context);
+        } catch (RuntimeException e) {
+            registered.errors().increment();
+            throw e;
+        } finally {
+            sample.stop(registered.latency());
+        }
+    }
+
+    private void runPreChecks(CommandHandler handler, CommandContext context) {
+        if (handler.preChecks().contains(CommandPreCheck.TARGET_ACTIVE) && !context.isWildcardTarget()) {
+            UserID userId = context.getUserId();
+            ObjectBoundary target = this.objectService
+                    .getObjectById(this.appName, context.getTargetObjectId(), userId.getSystemID(), userId.getEmail())
+                    .orElseThrow(() -> new MyNotFoundException("Target object not found"));
+            if (!Boolean.TRUE.equals(target.getActive())) {
+                throw new MyNotFoundException("Target object is not active");
+            }
+            context.setTarget(target);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package demo.BusinessLogicLayer.CommandHandlers;
+
+import demo.BusinessLogicLayer.Exceptions.MyInvalidInputException;
+import demo.BusinessLogicLayer.Services.ObjectService;
+import demo.PresentationLayer.Boundaries.ObjectBoundary;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Component
+public class CreateCommandHandler implements CommandHandler {
+
+    private final ObjectService objectService;
+
+    public CreateCommandHandler(ObjectService objectService) {
+        this.objectService = objectService;
+    }
+
+    @Override
+    public String commandType() {
+        return "create";
+    }
+
+    @Override
+    public Object handle(CommandContext context) {
+        if (context.getAttributes() == null || context.getAttributes().isEmpty()) {
+            throw new MyInvalidInputException("Create command requires attributes with object details");
+        }
+
+        // Convert attributes to ObjectBoundary, created by the invoking user
+        ObjectBoundary objectBoundary = context.attributesAsObject();
+        objectBoundary.setCreatedBy(Map.of("userId", context.getUserId()));
+
+        return this.objectService.createObject(objectBoundary, true);
+    }
+}
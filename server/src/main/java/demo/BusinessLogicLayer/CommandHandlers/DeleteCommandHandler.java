@@ -0,0 +1,42 @@
+package demo.BusinessLogicLayer.CommandHandlers;
+
+import demo.BusinessLogicLayer.Exceptions.MyInvalidInputException;
+import demo.BusinessLogicLayer.Services.ObjectService;
+import demo.DataAccessLayer.IDs.UserID;
+import demo.Enums.CommandPreCheck;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+@Component
+public class DeleteCommandHandler implements CommandHandler {
+
+    private final ObjectService objectService;
+
+    public DeleteCommandHandler(ObjectService objectService) {
+        this.objectService = objectService;
+    }
+
+    @Override
+    public String commandType() {
+        return "delete";
+    }
+
+    @Override
+    public Set<CommandPreCheck> preChecks() {
+        return Set.of(CommandPreCheck.TARGET_ACTIVE);
+    }
+
+    @Override
+    public Object handle(CommandContext context) {
+        // Check if we're deleting all objects
+        if (context.isWildcardTarget()) {
+            UserID userId = context.getUserId();
+            this.objectService.deleteAllObjects(userId.getSystemID(), userId.getEmail());
+            return null;
+        }
+
+        // The pre-check found the object
+        throw new MyInvalidInputException("Individual object deletion is not supported in this version");
+    }
+}
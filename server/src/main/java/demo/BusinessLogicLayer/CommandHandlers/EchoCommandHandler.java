@@ -0,0 +1,29 @@
+package demo.BusinessLogicLayer.CommandHandlers;
+
+import demo.BusinessLogicLayer.Exceptions.MyInvalidInputException;
+import demo.Enums.CommandPreCheck;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+@Component
+public class EchoCommandHandler implements CommandHandler {
+
+    @Override
+    public String commandType() {
+        return "echo";
+    }
+
+    @Override
+    public Set<CommandPreCheck> preChecks() {
+        return Set.of(CommandPreCheck.TARGET_ACTIVE);
+    }
+
+    @Override
+    public Object handle(CommandContext context) {
+        if (context.getAttributes() == null) {
+            throw new MyInvalidInputException("Echo command requires attributes");
+        }
+        return context.getAttributes();
+    }
+}
@@ -0,0 +1,178 @@
+package demo.BusinessLogicLayer.CommandHandlers;
+
+import demo.BusinessLogicLayer.Exceptions.MyForbiddenException;
+import demo.BusinessLogicLayer.Exceptions.MyInvalidInputException;
+import demo.BusinessLogicLayer.Services.ObjectService;
+import demo.BusinessLogicLayer.Services.UserPrincipalResolver;
+import demo.DataAccessLayer.Entities.UserEntity;
+import demo.DataAccessLayer.IDs.UserID;
+import demo.Enums.UserRole;
+import demo.PresentationLayer.Boundaries.ObjectBoundary;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class GetAvailableLockersCommandHandler implements CommandHandler {
+
+    private final ObjectService objectService;
+    private final UserPrincipalResolver principalResolver;
+
+    public GetAvailableLockersCommandHandler(ObjectService objectService, UserPrincipalResolver principalResolver) {
+        this.objectService = objectService;
+        this.principalResolver = principalResolver;
+    }
+
+    @Override
+    public String commandType() {
+        return "getAvailableLockers";
+    }
+
+    @Override
+    public Object handle(CommandContext context) {
+        Map<String, Object> attributes = context.getAttributes();
+
+        // Validate attributes contain required location data
+        if (attributes == null) {
+            throw new MyInvalidInputException("GetAvailableLockers command requires attributes with location data");
+        }
+
+        // Extract parameters from attributes
+        double latitude, longitude, radius;
+        int size = 20, page = 0; // Default values
+        boolean includeLockers = true;
+
+        try {
+            latitude = Double.parseDouble(attributes.get("latitude").toString());
+            longitude = Double.parseDouble(attributes.get("longitude").toString());
+
+            // Optional radius parameter (default 5.0 km)
+            if (attributes.containsKey("radius")) {
+                radius = Double.parseDouble(attributes.get("radius").toString());
+            } else {
+                radius = 5.0;
+            }
+
+            // Optional size parameter
+            if (attributes.containsKey("size")) {
+                size = Integer.parseInt(attributes.get("size").toString());
+            }
+
+            // Optional page parameter
+            if (attributes.containsKey("page")) {
+                page = Integer.parseInt(attributes.get("page").toString());
+            }
+
+            // Optional includeLockers parameter, false returns the blocks with their counters only
+            if (attributes.containsKey("includeLockers")) {
+                includeLockers = Boolean.parseBoolean(attributes.get("includeLockers").toString());
+            }
+
+        } catch (NumberFormatException | NullPointerException e) {
+            throw new MyInvalidInputException("Invalid location parameters. Latitude and longitude are required as numbers");
+        }
+
+        UserID userId = context.getUserId();
+        return findAvailableLockers(latitude, longitude, radius, userId.getSystemID(), userId.getEmail(), size, page, includeLockers);
+    }
+
+    public List<ObjectBoundary> findAvailableLockers(double latitude, double longitude, double radius,
+                                                     String userSystemId, String userEmail, int size, int page,
+                                                     boolean includeLockers) {
+        validateLocation(latitude, longitude, radius);
+
+        // Verify user exists and has proper permissions
+        UserEntity userEntity = this.principalResolver.resolve(userSystemId, userEmail);
+
+        // Only END_USER and OPERATOR can access lockers
+        if (userEntity.getRole() == UserRole.ADMIN) {
+            throw new MyForbiddenException("ADMIN users cannot access locker information");
+        }
+
+        // Get the nearby locker blocks with type "lockerBlock" and status "available" that have an available locker.
+        // The in-memory LockerBlockIndex (or the 2dsphere index until it is loaded) filters by radius, sorts by
+        // distance and paginates, the blocks without an available locker are skipped through their availableCount
+        // counter, and objectDetails.distanceKm is filled in from the computed distance.
+        List<ObjectBoundary> nearbyLockerBlocks = this.objectService.searchAvailableLockerBlocksNear(
+                latitude,
+                longitude,
+                radius,
+                userSystemId,
+                userEmail,
+                size,
+                page
+        );
+
+        // The counters (availableCount, availableBySize) come with the blocks, the lockers themselves only on request
+        if (nearbyLockerBlocks.isEmpty() || !includeLockers) {
+            return nearbyLockerBlocks;
+        }
+
+        // Fetch the available lockers of all the blocks in the page with a single query
+        List<String> lockerBlockIds = nearbyLockerBlocks.stream()
+                .map(lockerBlock -> lockerBlock.getObjectID().getID())
+                .toList();
+        Map<String, List<ObjectBoundary>> lockersByBlock = this.objectService.getActiveChildrenByTypeAndStatus(
+                lockerBlockIds,
+                "locker",
+                "available",
+                userSystemId,
+                userEmail
+        );
+
+        return withAvailableLockers(nearbyLockerBlocks, lockersByBlock);
+    }
+
+    // Shared with the reactive availability endpoint
+    public static void validateLocation(double latitude, double longitude, double radius) {
+        // Validate coordinates
+        if (latitude < -90 || latitude > 90) {
+            throw new MyInvalidInputException("Invalid latitude value. Must be between -90 and 90");
+        }
+
+        if (longitude < -180 || longitude > 180) {
+            throw new MyInvalidInputException("Invalid longitude value. Must be between -180 and 180");
+        }
+
+        if (radius <= 0) {
+            throw new MyInvalidInputException("Radius must be positive");
+        }
+    }
+
+    // Adds the availableLockers list to each block; availableCount is the counter maintained on the block
+    public static List<ObjectBoundary> withAvailableLockers(List<ObjectBoundary> lockerBlocks,
+                                                            Map<String, List<ObjectBoundary>> lockersByBlock) {
+        List<ObjectBoundary> result = new ArrayList<>();
+        for (ObjectBoundary lockerBlock : lockerBlocks) {
+            List<ObjectBoundary> lockers = lockersByBlock.getOrDefault(lockerBlock.getObjectID().getID(), Collections.emptyList());
+
+            List<Map<String, Object>> availableLockers = new ArrayList<>(lockers.size());
+            for (ObjectBoundary locker : lockers) {
+                // Create a simplified locker representation for the response
+                Map<String, Object> lockerInfo = new HashMap<>();
+                lockerInfo.put("id", locker.getObjectID().getID());
+                lockerInfo.put("alias", locker.getAlias());
+
+                // Add locker-specific details if they exist
+                if (locker.getObjectDetails() != null) {
+                    if (locker.getObjectDetails().containsKey("number")) {
+                        lockerInfo.put("number", locker.getObjectDetails().get("number"));
+                    }
+                    if (locker.getObjectDetails().containsKey("size")) {
+                        lockerInfo.put("size", locker.getObjectDetails().get("size"));
+                    }
+                }
+
+                availableLockers.add(lockerInfo);
+            }
+
+            lockerBlock.getObjectDetails().put("availableLockers", availableLockers);
+            result.add(lockerBlock);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,39 @@
+package demo.BusinessLogicLayer.CommandHandlers;
+
+import demo.BusinessLogicLayer.Services.ObjectService;
+import demo.DataAccessLayer.IDs.UserID;
+import demo.Enums.CommandPreCheck;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+@Component
+public class GetCommandHandler implements CommandHandler {
+
+    private final ObjectService objectService;
+
+    public GetCommandHandler(ObjectService objectService) {
+        this.objectService = objectService;
+    }
+
+    @Override
+    public String commandType() {
+        return "get";
+    }
+
+    // The object loaded by the pre-check is the result, it is not read a second time
+    @Override
+    public Set<CommandPreCheck> preChecks() {
+        return Set.of(CommandPreCheck.TARGET_ACTIVE);
+    }
+
+    @Override
+    public Object handle(CommandContext context) {
+        if (context.isWildcardTarget()) {
+            // First page of all objects (default 5 items)
+            UserID userId = context.getUserId();
+            return this.objectService.getAllObjects(userId.getSystemID(), userId.getEmail(), 5, 0, null);
+        }
+        return context.getTarget();
+    }
+}
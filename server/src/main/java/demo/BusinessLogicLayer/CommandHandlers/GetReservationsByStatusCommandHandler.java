@@ -0,0 +1,108 @@
+package demo.BusinessLogicLayer.CommandHandlers;
+
+import demo.BusinessLogicLayer.Exceptions.MyInvalidInputException;
+import demo.BusinessLogicLayer.Services.ObjectService;
+import demo.BusinessLogicLayer.Services.UserPrincipalResolver;
+import demo.DataAccessLayer.IDs.UserID;
+import demo.Enums.CommandPreCheck;
+import demo.PresentationLayer.Boundaries.ObjectBoundary;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Component
+public class GetReservationsByStatusCommandHandler implements CommandHandler {
+
+    private static final int DEFAULT_SIZE = 1000;
+
+    private final ObjectService objectService;
+    private final UserPrincipalResolver principalResolver;
+
+    public GetReservationsByStatusCommandHandler(ObjectService objectService, UserPrincipalResolver principalResolver) {
+        this.objectService = objectService;
+        this.principalResolver = principalResolver;
+    }
+
+    @Override
+    public String commandType() {
+        return "getReservationsByStatus";
+    }
+
+    @Override
+    public Set<CommandPreCheck> preChecks() {
+        return Set.of(CommandPreCheck.TARGET_ACTIVE);
+    }
+
+    @Override
+    public Object handle(CommandContext context) {
+        Map<String, Object> attributes = context.getAttributes();
+
+        // 1) Validate attributes
+        if (attributes == null
+                || !attributes.containsKey("email")
+                || !attributes.containsKey("systemID")) {
+            throw new MyInvalidInputException(
+                    "Email and systemId are required in command attributes");
+        }
+        String targetEmail    = attributes.get("email").toString();
+        String targetSystemID = attributes.get("systemID").toString();
+        String status = attributes.containsKey("status")
+                ? attributes.get("status").toString()
+                : "active";
+
+        // Optional paging, the reservations come oldest first. Without size the first DEFAULT_SIZE are returned,
+        // the 1000 reservations the command always returned before it could page
+        int size = DEFAULT_SIZE, page = 0; // Default values
+        try {
+            if (attributes.containsKey("size")) {
+                size = Integer.parseInt(attributes.get("size").toString());
+            }
+            if (attributes.containsKey("page")) {
+                page = Integer.parseInt(attributes.get("page").toString());
+            }
+        } catch (NumberFormatException | NullPointerException e) {
+            throw new MyInvalidInputException("Invalid paging parameters. Size and page must be numbers");
+        }
+        if (size < 1 || page < 0) {
+            throw new MyInvalidInputException("Size must be positive and page cannot be negative");
+        }
+
+        // 2) Verify target user exists
+        this.principalResolver.resolve(targetSystemID, targetEmail);
+
+        // 3) Fetch that user's reservations of that status - the createdBy filter is part of the query
+        UserID caller = context.getUserId();
+        List<ObjectBoundary> reservations = this.objectService
+                .searchObjectsByTypeAndStatusAndCreatedBy(
+                        "reservation",
+                        status,
+                        new UserID(targetEmail, targetSystemID),
+                        caller.getSystemID(),
+                        caller.getEmail(),
+                        size,
+                        page,
+                        null
+                );
+
+        // 4) Build simple list of reservation details
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (ObjectBoundary r : reservations) {
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("reservationId",     r.getObjectID().getID());
+            entry.put("status",            r.getStatus());
+            entry.put("creationTimestamp", r.getCreationTimestamp());
+
+            if (r.getObjectDetails() != null) {
+                entry.putAll(r.getObjectDetails());
+            }
+
+            result.add(entry);
+        }
+
+        return new ArrayList<Object>(result);
+    }
+}
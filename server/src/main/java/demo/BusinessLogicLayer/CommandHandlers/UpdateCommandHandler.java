@@ -0,0 +1,47 @@
+package demo.BusinessLogicLayer.CommandHandlers;
+
+import demo.BusinessLogicLayer.Exceptions.MyInvalidInputException;
+import demo.BusinessLogicLayer.Services.ObjectService;
+import demo.DataAccessLayer.IDs.UserID;
+import demo.Enums.CommandPreCheck;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+@Component
+public class UpdateCommandHandler implements CommandHandler {
+
+    private final ObjectService objectService;
+    private final String appName;
+
+    public UpdateCommandHandler(ObjectService objectService, @Value("${spring.application.name:dummy}") String appName) {
+        this.objectService = objectService;
+        this.appName = appName;
+    }
+
+    @Override
+    public String commandType() {
+        return "update";
+    }
+
+    // The pre-check already found the object, no second lookup before the update
+    @Override
+    public Set<CommandPreCheck> preChecks() {
+        return Set.of(CommandPreCheck.TARGET_ACTIVE);
+    }
+
+    @Override
+    public Object handle(CommandContext context) {
+        String objectId = context.getTargetObjectId();
+
+        if (context.getAttributes() == null || context.getAttributes().isEmpty()) {
+            throw new MyInvalidInputException("Update attributes cannot be null or empty");
+        }
+
+        UserID userId = context.getUserId();
+        this.objectService.updateObject(this.appName, objectId, userId.getSystemID(), userId.getEmail(),
+                context.attributesAsObject(), true);
+        return null; // update doesn't return a value
+    }
+}
@@ -0,0 +1,93 @@
+package demo.BusinessLogicLayer.Converters;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import demo.BusinessLogicLayer.Exceptions.MyInvalidInputException;
+import demo.PresentationLayer.Boundaries.CommandBoundary;
+import demo.PresentationLayer.Boundaries.ObjectBoundary;
+import demo.PresentationLayer.Boundaries.UserBoundary;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Converts between the opaque cursors handed to clients and the sort keys of the last item of a page.
+ * A cursor is the base64url encoded JSON array of the sort key values followed by the id,
+ * timestamps are kept as epoch milliseconds.
+ */
+@Component
+public class CursorConverter {
+
+    private final ObjectMapper objectMapper;
+
+    public CursorConverter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public String encode(String... keys) {
+        try {
+            byte[] json = this.objectMapper.writeValueAsBytes(List.of(keys));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not encode cursor", e);
+        }
+    }
+
+    public String[] decode(String cursor, int keyCount) {
+        List<String> keys;
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(cursor.getBytes(StandardCharsets.US_ASCII));
+            keys = this.objectMapper.readValue(json, new TypeReference<List<String>>() {});
+        } catch (Exception e) {
+            throw new MyInvalidInputException("Invalid cursor: " + cursor);
+        }
+
+        if (keys == null || keys.size() != keyCount || keys.contains(null)) {
+            throw new MyInvalidInputException("Invalid cursor: " + cursor);
+        }
+        return keys.toArray(new String[0]);
+    }
+
+    public String encodeTimestamp(Date timestamp) {
+        return Long.toString(timestamp.getTime());
+    }
+
+    public Date decodeTimestamp(String key) {
+        try {
+            return new Date(Long.parseLong(key));
+        } catch (NumberFormatException e) {
+            throw new MyInvalidInputException("Invalid cursor timestamp: " + key);
+        }
+    }
+
+    // A page shorter than the requested size is the last one, so there is no next cursor
+    public String nextObjectCursor(List<ObjectBoundary> page, int size) {
+        if (page.isEmpty() || page.size() < size) {
+            return null;
+        }
+        ObjectBoundary last = page.get(page.size() - 1);
+        return encode(encodeTimestamp(last.getCreationTimestamp()), last.getObjectID().getID());
+    }
+
+    public String nextCommandCursor(List<CommandBoundary> page, int size) {
+        if (page.isEmpty() || page.size() < size) {
+            return null;
+        }
+        CommandBoundary last = page.get(page.size() - 1);
+        return encode(encodeTimestamp(last.getInvocationTimestamp()), last.getCommandID().getCommandID());
+    }
+
+    public String nextUserCursor(List<UserBoundary> page, int size) {
+        if (page.isEmpty() || page.size() < size) {
+            return null;
+        }
+        UserBoundary last = page.get(page.size() - 1);
+        return encode(
+                last.getUsername().getLast(),
+                last.getUsername().getFirst(),
+                last.getUserId().getEmail() + "/" + last.getUserId().getSystemID());
+    }
+}
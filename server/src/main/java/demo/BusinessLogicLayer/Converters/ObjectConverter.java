@@ -5,6 +5,7 @@ import demo.DataAccessLayer.Entities.ObjectEntity;
 import demo.DataAccessLayer.IDs.ObjectID;
 import demo.DataAccessLayer.IDs.UserID;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
 import org.springframework.stereotype.Component;
 
 import java.util.HashMap;
@@ -42,6 +43,17 @@ public class ObjectConverter {
         }
         rv.setObjectDetails(entity.getObjectDetails());
 
+        // The availability counters of a lockerBlock are shown with its details, they are never read back from them
+        if (entity.getAvailableCount() != null) {
+            Map<String, Object> details = entity.getObjectDetails() == null
+                    ? new HashMap<>()
+                    : new HashMap<>(entity.getObjectDetails());
+            details.put("availableCount", entity.getAvailableCount());
+            details.put("availableBySize", entity.getAvailableBySize() == null
+                    ? new HashMap<>()
+                    : new HashMap<>(entity.getAvailableBySize()));
+            rv.setObjectDetails(details);
+        }
 
         return rv;
     }
@@ -64,6 +76,27 @@ public class ObjectConverter {
             rv.setCreatedBy(userId.getEmail() + "/" + userId.getSystemID());
         }
         rv.setObjectDetails(boundary.getObjectDetails());
+        rv.setLocation(toLocation(boundary.getObjectDetails()));
         return rv;
     }
+
+    // Builds the GeoJSON point stored next to objectDetails, or null when the details carry no valid coordinates
+    public GeoJsonPoint toLocation(Map<String, Object> objectDetails) {
+        if (objectDetails == null
+                || objectDetails.get("latitude") == null
+                || objectDetails.get("longitude") == null) {
+            return null;
+        }
+        try {
+            double latitude = Double.parseDouble(objectDetails.get("latitude").toString());
+            double longitude = Double.parseDouble(objectDetails.get("longitude").toString());
+            if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+                return null;
+            }
+            // GeoJSON order is (longitude, latitude)
+            return new GeoJsonPoint(longitude, latitude);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
 }
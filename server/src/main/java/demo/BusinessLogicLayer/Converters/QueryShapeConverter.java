@@ -0,0 +1,32 @@
+package demo.BusinessLogicLayer.Converters;
+
+import demo.DataAccessLayer.Profiling.QueryShapeStats;
+import demo.PresentationLayer.Boundaries.QueryShapeBoundary;
+import org.springframework.stereotype.Component;
+
+@Component
+public class QueryShapeConverter {
+
+    public QueryShapeBoundary toBoundary(QueryShapeStats stats) {
+        QueryShapeBoundary rv = new QueryShapeBoundary();
+        rv.setCollection(stats.getCollection());
+        rv.setCommand(stats.getCommand());
+        rv.setShape(stats.getShape());
+        rv.setOrigins(stats.getOrigins());
+
+        long count = stats.getCount();
+        rv.setCount(count);
+        rv.setFailures(stats.getFailures());
+        rv.setTotalMillis(stats.getTotalNanos() / 1e6);
+        rv.setMeanMillis(count == 0 ? 0 : stats.getTotalNanos() / 1e6 / count);
+        rv.setMaxMillis(stats.getMaxNanos() / 1e6);
+        rv.setLatencyHistogram(stats.getLatencyHistogram());
+        rv.setDocumentsReturned(stats.getDocuments());
+        rv.setBytesReturned(stats.getBytes());
+
+        rv.setCollscan(stats.getCollscan());
+        rv.setPlanSummary(stats.getPlanSummary());
+        rv.setLastExplained(stats.getLastExplained());
+        return rv;
+    }
+}
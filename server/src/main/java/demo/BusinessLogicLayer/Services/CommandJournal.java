@@ -0,0 +1,311 @@
+package demo.BusinessLogicLayer.Services;
+
+import demo.DataAccessLayer.CRUDs.CommandCrud;
+import demo.DataAccessLayer.Entities.CommandEntity;
+import demo.Enums.JournalPolicy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind journal of invoked commands.
+ * Depending on the policy of the command type a command is inserted right away (SYNC), queued in a bounded
+ * buffer that a background writer drains with batched inserts (ASYNC), or only a sample of them is queued (SAMPLED).
+ * When the buffer is full the caller waits up to offer-timeout and then inserts the command itself,
+ * so commands are never dropped under load. Readers of the history call {@link #flushRecorded()} first: it writes
+ * only the commands recorded before the call and gives up after reader-flush-timeout, so a slow MongoDB or a busy
+ * writer delays a request by that much at most; the reader then sees the history without the commands left over.
+ * Batches are written with unordered inserts, and a duplicate commandID counts as already written. A command that
+ * fails alone is retried alone. A batch MongoDB did not take at all goes back into the buffer for the next round.
+ * Only a command still failing after max-write-attempts is logged and given up.
+ */
+@Component
+public class CommandJournal {
+
+    private final Log log = LogFactory.getLog(CommandJournal.class);
+
+    private final CommandCrud commandCrud;
+    private final BlockingQueue<CommandEntity> buffer;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final long offerTimeoutMillis;
+    private final JournalPolicy defaultPolicy;
+    private final Map<String, JournalPolicy> policies = new HashMap<>();
+    private final double sampleRate;
+    private final int maxWriteAttempts;
+    private final long readerFlushTimeoutNanos;
+    // Failed writes so far of the commands waiting for another attempt, by commandID
+    private final Map<String, Integer> writeAttempts = new ConcurrentHashMap<>();
+
+    // Not a monitor: flush() runs on request threads and blocks on MongoDB while holding it,
+    // which would pin the carrier thread of a virtual thread
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Object writerSignal = new Object();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private final Counter sampledOut;
+    private final Counter bufferFull;
+    private final Counter writesFailed;
+
+    public CommandJournal(
+            CommandCrud commandCrud,
+            MeterRegistry meterRegistry,
+            @Value("${commands.journal.capacity:10000}") int capacity,
+            @Value("${commands.journal.batch-size:200}") int batchSize,
+            @Value("${commands.journal.flush-interval:100ms}") Duration flushInterval,
+            @Value("${commands.journal.offer-timeout:50ms}") Duration offerTimeout,
+            @Value("${commands.journal.default-policy:ASYNC}") JournalPolicy defaultPolicy,
+            @Value("${commands.journal.sync:}") String[] syncCommands,
+            @Value("${commands.journal.sampled:}") String[] sampledCommands,
+            @Value("${commands.journal.sample-rate:0.1}") double sampleRate,
+            @Value("${commands.journal.max-write-attempts:10}") int maxWriteAttempts,
+            @Value("${commands.journal.reader-flush-timeout:2s}") Duration readerFlushTimeout) {
+        this.commandCrud = commandCrud;
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushInterval.toMillis();
+        this.offerTimeoutMillis = offerTimeout.toMillis();
+        this.defaultPolicy = defaultPolicy;
+        this.sampleRate = sampleRate;
+        this.maxWriteAttempts = maxWriteAttempts;
+        this.readerFlushTimeoutNanos = readerFlushTimeout.toNanos();
+        for (String command : syncCommands) {
+            addPolicy(command, JournalPolicy.SYNC);
+        }
+        for (String command : sampledCommands) {
+            addPolicy(command, JournalPolicy.SAMPLED);
+        }
+
+        Gauge.builder("commands.journal.buffered", this.buffer, BlockingQueue::size)
+                .description("Commands waiting in the journal buffer")
+                .register(meterRegistry);
+        this.sampledOut = Counter.builder("commands.journal.sampled.out")
+                .description("Commands of SAMPLED types that were not persisted")
+                .register(meterRegistry);
+        this.bufferFull = Counter.builder("commands.journal.buffer.full")
+                .description("Commands inserted by the caller because the journal buffer was full")
+                .register(meterRegistry);
+        this.writesFailed = Counter.builder("commands.journal.write.failed")
+                .description("Journaled commands given up after max-write-attempts failed writes")
+                .register(meterRegistry);
+
+        this.writer = new Thread(this::runWriter, "command-journal-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    private void addPolicy(String command, JournalPolicy policy) {
+        if (!command.isBlank()) {
+            this.policies.put(command.trim().toLowerCase(Locale.ROOT), policy);
+        }
+    }
+
+    public JournalPolicy policyOf(String commandType) {
+        return this.policies.getOrDefault(commandType.toLowerCase(Locale.ROOT), this.defaultPolicy);
+    }
+
+    // Persists the command according to the policy of its type; the entity must already carry its id
+    public void record(CommandEntity command) {
+        JournalPolicy policy = this.running ? policyOf(command.getCommand()) : JournalPolicy.SYNC;
+        switch (policy) {
+            case SYNC:
+                insert(command);
+                return;
+
+            case SAMPLED:
+                if (ThreadLocalRandom.current().nextDouble() >= this.sampleRate) {
+                    this.sampledOut.increment();
+                    return;
+                }
+                enqueue(command);
+                return;
+
+            default:
+                enqueue(command);
+        }
+    }
+
+    private void enqueue(CommandEntity command) {
+        boolean queued;
+        try {
+            queued = this.buffer.offer(command, this.offerTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queued = false;
+        }
+
+        if (!queued) {
+            // Backpressure: the caller pays for its own insert instead of losing the command
+            this.bufferFull.increment();
+            insert(command);
+            return;
+        }
+
+        if (this.buffer.size() >= this.batchSize) {
+            synchronized (this.writerSignal) {
+                this.writerSignal.notifyAll();
+            }
+        }
+    }
+
+    // A client-supplied commandID may already be stored; like the former save() that is not an error
+    private void insert(CommandEntity command) {
+        try {
+            this.commandCrud.insert(command);
+        } catch (DuplicateKeyException e) {
+            log.debug("Command " + command.getCommandID() + " is already journaled");
+        }
+    }
+
+    // Writes every buffered command before returning; commands that failed are queued again for the next round
+    public void flush() {
+        this.writeLock.lock();
+        try {
+            List<CommandEntity> batch = new ArrayList<>(this.batchSize);
+            List<CommandEntity> notWritten = new ArrayList<>();
+            while (this.buffer.drainTo(batch, this.batchSize) > 0) {
+                notWritten.addAll(writeBatch(batch));
+                batch.clear();
+            }
+            requeue(notWritten);
+        } finally {
+            this.writeLock.unlock();
+        }
+    }
+
+    // For the readers of the history: writes the commands buffered before the call, including a batch the writer is
+    // writing right now, for up to reader-flush-timeout. Returns false when some of them may not be stored yet
+    public boolean flushRecorded() {
+        long deadline = System.nanoTime() + this.readerFlushTimeoutNanos;
+        int recorded = this.buffer.size();
+        try {
+            if (!this.writeLock.tryLock(this.readerFlushTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                log.warn("Journal writer still busy after the reader flush timeout, " + recorded
+                        + " buffered commands may be missing from the history");
+                return false;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        try {
+            // Commands recorded after the call wait for the writer; the ones it took meanwhile are already written
+            int remaining = Math.min(recorded, this.buffer.size());
+            List<CommandEntity> batch = new ArrayList<>(this.batchSize);
+            List<CommandEntity> notWritten = new ArrayList<>();
+            while (remaining > 0 && System.nanoTime() < deadline
+                    && this.buffer.drainTo(batch, Math.min(this.batchSize, remaining)) > 0) {
+                remaining -= batch.size();
+                notWritten.addAll(writeBatch(batch));
+                batch.clear();
+            }
+            requeue(notWritten);
+
+            int missing = remaining + notWritten.size();
+            if (missing > 0) {
+                log.warn(missing + " buffered commands could not be written in time and may be missing from the history");
+            }
+            return missing == 0;
+        } finally {
+            this.writeLock.unlock();
+        }
+    }
+
+    // Returns the commands of the batch that are not stored afterwards
+    private List<CommandEntity> writeBatch(List<CommandEntity> batch) {
+        List<CommandEntity> failed;
+        try {
+            failed = this.commandCrud.insertUnordered(batch);
+        } catch (RuntimeException e) {
+            // Not a per-document error (MongoDB unreachable, timeout): the whole batch waits for the next round
+            log.warn("Could not write " + batch.size() + " journaled commands, retrying later: " + e.getMessage());
+            return new ArrayList<>(batch);
+        }
+
+        List<CommandEntity> notWritten = new ArrayList<>();
+        for (CommandEntity command : failed) {
+            try {
+                insert(command);
+            } catch (RuntimeException e) {
+                log.warn("Could not write journaled command " + command.getCommandID() + ": " + e.getMessage());
+                notWritten.add(command);
+            }
+        }
+        if (!this.writeAttempts.isEmpty()) {
+            for (CommandEntity command : batch) {
+                if (!notWritten.contains(command)) {
+                    this.writeAttempts.remove(command.getCommandID());
+                }
+            }
+        }
+        return notWritten;
+    }
+
+    private void requeue(List<CommandEntity> commands) {
+        for (CommandEntity command : commands) {
+            int attempts = this.writeAttempts.merge(command.getCommandID(), 1, Integer::sum);
+            if (attempts >= this.maxWriteAttempts) {
+                giveUp(command, attempts + " failed writes");
+            } else if (!this.buffer.offer(command)) {
+                giveUp(command, "the journal buffer is full");
+            }
+        }
+    }
+
+    private void giveUp(CommandEntity command, String reason) {
+        this.writeAttempts.remove(command.getCommandID());
+        this.writesFailed.increment();
+        log.error("Giving up on journaled command " + command.getCommandID() + " (" + command.getCommand()
+                + ") after " + reason);
+    }
+
+    private void runWriter() {
+        while (this.running) {
+            try {
+                synchronized (this.writerSignal) {
+                    if (this.buffer.size() < this.batchSize) {
+                        this.writerSignal.wait(this.flushIntervalMillis);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            flush();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // Commands recorded from now on are inserted synchronously, the buffer is written once more
+        this.running = false;
+        synchronized (this.writerSignal) {
+            this.writerSignal.notifyAll();
+        }
+        this.writer.join(TimeUnit.SECONDS.toMillis(5));
+        flush();
+        if (!this.buffer.isEmpty()) {
+            log.error(this.buffer.size() + " journaled commands could not be written before shutdown");
+        }
+    }
+}
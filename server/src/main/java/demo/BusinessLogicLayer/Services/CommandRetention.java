@@ -0,0 +1,140 @@
+package demo.BusinessLogicLayer.Services;
+
+import demo.DataAccessLayer.CRUDs.CommandCrud;
+import demo.DataAccessLayer.Entities.CommandEntity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retention of the COMMAND history.
+ * Every interval the commands older than the retention of their type are deleted; types without their own
+ * retention use the default one, and an empty default keeps them forever. Both are empty by default, so
+ * retention is opt-in and the history served by the admin export is kept unless configured otherwise.
+ * COMMAND must stay a regular collection: a time-series collection has no unique _id, which CommandJournal
+ * relies on to write a retried batch or a repeated commandID only once. The application refuses to start with
+ * commands.storage.time-series=true or on a COMMAND that is a time-series collection.
+ */
+@Component
+public class CommandRetention {
+
+    private final Log log = LogFactory.getLog(CommandRetention.class);
+
+    private final CommandCrud commandCrud;
+    private final MongoTemplate mongoTemplate;
+    private final Duration defaultRetention;
+    private final Map<String, Duration> retentionByType = new LinkedHashMap<>();
+    private final Duration interval;
+    private final boolean timeSeries;
+    private final Counter deleted;
+    private final ScheduledExecutorService pruneScheduler;
+
+    public CommandRetention(
+            CommandCrud commandCrud,
+            MongoTemplate mongoTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${commands.retention.default:}") String defaultRetention,
+            @Value("${commands.retention.by-type:}") String[] retentionByType,
+            @Value("${commands.retention.interval:1h}") Duration interval,
+            @Value("${commands.storage.time-series:false}") boolean timeSeries) {
+        this.commandCrud = commandCrud;
+        this.mongoTemplate = mongoTemplate;
+        this.defaultRetention = defaultRetention.isBlank() ? null : DurationStyle.detectAndParse(defaultRetention.trim());
+        this.interval = interval;
+        this.timeSeries = timeSeries;
+
+        // by-type entries are <command type>:<duration>, e.g. echo:7d
+        for (String entry : retentionByType) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.lastIndexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid commands.retention.by-type entry: " + entry);
+            }
+            this.retentionByType.put(entry.substring(0, separator).trim(),
+                    DurationStyle.detectAndParse(entry.substring(separator + 1).trim()));
+        }
+
+        this.deleted = Counter.builder("commands.retention.deleted")
+                .description("Commands deleted from the history by the retention job")
+                .register(meterRegistry);
+        this.pruneScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "command-retention");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        // Runs before MongoIndexInitializer and the first journal write
+        if (this.timeSeries) {
+            throw new IllegalStateException("commands.storage.time-series=true is not supported: a time-series "
+                    + "COMMAND has no unique _id, so retried journal writes would store commands twice");
+        }
+        if (isTimeSeriesCollection()) {
+            throw new IllegalStateException("COMMAND is a time-series collection, which has no unique _id and would "
+                    + "store retried journal writes twice; migrate it to a regular collection");
+        }
+
+        long intervalMillis = this.interval.toMillis();
+        this.pruneScheduler.scheduleWithFixedDelay(() -> {
+            try {
+                prune();
+            } catch (RuntimeException e) {
+                log.error("Command retention run failed: " + e.getMessage(), e);
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private boolean isTimeSeriesCollection() {
+        String collection = this.mongoTemplate.getCollectionName(CommandEntity.class);
+        for (Document info : this.mongoTemplate.getDb().listCollections().filter(new Document("name", collection))) {
+            return "timeseries".equals(info.getString("type"));
+        }
+        return false;
+    }
+
+    // Deletes the commands past their retention and returns how many were deleted
+    public long prune() {
+        Date now = new Date();
+        long total = 0;
+
+        for (Map.Entry<String, Duration> retention : this.retentionByType.entrySet()) {
+            Date cutoff = new Date(now.getTime() - retention.getValue().toMillis());
+            total += this.commandCrud.deleteInvokedBefore(cutoff, retention.getKey());
+        }
+        if (this.defaultRetention != null) {
+            Date cutoff = new Date(now.getTime() - this.defaultRetention.toMillis());
+            total += this.commandCrud.deleteInvokedBeforeExcept(cutoff, this.retentionByType.keySet());
+        }
+
+        this.deleted.increment(total);
+        if (total > 0) {
+            log.info("Command retention deleted " + total + " commands");
+        }
+        return total;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.pruneScheduler.shutdownNow();
+    }
+}
@@ -4,13 +4,17 @@ import demo.PresentationLayer.Boundaries.CommandBoundary;
 import demo.PresentationLayer.Boundaries.ObjectBoundary;
 
 
+import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface CommandService {
 
      List<Object> invokeCommand(CommandBoundary command);
 
-     List<CommandBoundary> getAllCommandsHistory(String userSystemId, String userEmail, int size, int page);
+     List<CommandBoundary> getAllCommandsHistory(String userSystemId, String userEmail, int size, int page, String cursor);
+
+     Stream<CommandBoundary> streamCommandsHistory(String userSystemId, String userEmail, Date from, Date to);
 
      void deleteAllCommands(String userSystemId, String userEmail);
 
@@ -0,0 +1,46 @@
+package demo.BusinessLogicLayer.Services;
+
+import demo.DataAccessLayer.Entities.ObjectEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The contribution of one object to the availability counters of its lockerBlock: an active locker with
+ * status "available" bound to a parent counts once for that parent and its size. Objects that do not count
+ * have no LockerAvailability (null).
+ */
+record LockerAvailability(String lockerBlockId, String size) {
+
+    static final String UNKNOWN_SIZE = "unknown";
+
+    static LockerAvailability of(ObjectEntity object) {
+        Object size = object.getObjectDetails() == null ? null : object.getObjectDetails().get("size");
+        return of(object.getType(), object.getStatus(), object.getActive(), object.getParentId(), size);
+    }
+
+    static LockerAvailability of(String type, String status, Boolean active, String parentId, Object size) {
+        if (!"locker".equals(type) || !"available".equals(status) || !Boolean.TRUE.equals(active) || parentId == null) {
+            return null;
+        }
+        return new LockerAvailability(parentId, sizeKey(size));
+    }
+
+    // The lockers that count, as a query filter (the parent is matched by the caller)
+    static Criteria criteria() {
+        return Criteria.where("type").is("locker").and("status").is("available").and("active").is(true);
+    }
+
+    // small/medium/large as stored, lower-cased; anything that cannot be a field name is counted as unknown
+    static String sizeKey(Object size) {
+        if (size == null || size instanceof Map<?, ?>) {
+            return UNKNOWN_SIZE;
+        }
+        String key = size.toString().trim().toLowerCase(Locale.ROOT);
+        if (key.isEmpty() || key.contains(".") || key.startsWith("$")) {
+            return UNKNOWN_SIZE;
+        }
+        return key;
+    }
+}
@@ -0,0 +1,139 @@
+package demo.BusinessLogicLayer.Services;
+
+import demo.DataAccessLayer.CRUDs.ObjectCrud;
+import demo.DataAccessLayer.Entities.ObjectEntity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repairs drift of the lockerBlock availability counters (availableCount, availableBySize).
+ * The counters are moved with $inc next to each locker change, so a failed increment or a write that bypassed
+ * ObjectServiceImpl leaves them wrong. At startup and then every reconcile-interval the available lockers are
+ * counted per block and size, and the counters that differ are replaced, only if they did not change meanwhile;
+ * a block skipped that way is checked again by the next run. Each run then rebuilds the LockerBlockIndex from the
+ * blocks it read; blocks this instance wrote to while the run was reading keep their live index entry.
+ */
+@Component
+public class LockerAvailabilityReconciler {
+
+    private final Log log = LogFactory.getLog(LockerAvailabilityReconciler.class);
+
+    private final ObjectCrud objectCrud;
+    private final LockerBlockIndex lockerBlockIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration interval;
+    private final Counter repaired;
+    private final ScheduledExecutorService reconcileScheduler;
+
+    public LockerAvailabilityReconciler(
+            ObjectCrud objectCrud,
+            LockerBlockIndex lockerBlockIndex,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry,
+            @Value("${lockers.availability.reconcile-interval:10m}") Duration interval) {
+        this.objectCrud = objectCrud;
+        this.lockerBlockIndex = lockerBlockIndex;
+        this.eventPublisher = eventPublisher;
+        this.interval = interval;
+
+        this.repaired = Counter.builder("lockers.availability.repaired")
+                .description("LockerBlocks whose availability counters were repaired by the reconciliation job")
+                .register(meterRegistry);
+        this.reconcileScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "locker-availability");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        // The first run also fills in the counters of blocks stored before they existed and loads the spatial index
+        this.reconcileScheduler.scheduleWithFixedDelay(() -> {
+            try {
+                reconcile();
+            } catch (RuntimeException e) {
+                log.error("Locker availability reconciliation failed: " + e.getMessage(), e);
+            }
+        }, 0, this.interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    // Recounts the available lockers of every lockerBlock and rebuilds the spatial index; returns the repaired blocks
+    public int reconcile() {
+        // Writes from here on survive the rebuild even if the snapshot below misses them
+        this.lockerBlockIndex.beginRebuild();
+        try {
+            return reconcileAndRebuild();
+        } finally {
+            this.lockerBlockIndex.endRebuild();
+        }
+    }
+
+    private int reconcileAndRebuild() {
+        List<ObjectEntity> lockerBlocks = this.objectCrud.findAvailabilityByType("lockerBlock");
+        Map<String, Map<Object, Long>> counts = this.objectCrud
+                .countChildrenByParentAndDetail(LockerAvailability.criteria(), "size");
+
+        int repairedBlocks = 0;
+        for (ObjectEntity lockerBlock : lockerBlocks) {
+            int count = 0;
+            Map<String, Integer> bySize = new HashMap<>();
+            for (Map.Entry<Object, Long> sizeCount : counts.getOrDefault(lockerBlock.getId(), Map.of()).entrySet()) {
+                bySize.merge(LockerAvailability.sizeKey(sizeCount.getKey()), sizeCount.getValue().intValue(), Integer::sum);
+                count += sizeCount.getValue().intValue();
+            }
+
+            if (lockerBlock.getAvailableCount() != null && lockerBlock.getAvailableCount() == count
+                    && withoutZeros(lockerBlock.getAvailableBySize()).equals(bySize)) {
+                continue;
+            }
+
+            if (this.objectCrud.replaceAvailability(lockerBlock.getId(),
+                    lockerBlock.getAvailableCount(), lockerBlock.getAvailableBySize(), count, bySize)) {
+                repairedBlocks++;
+                log.warn("Repaired availability of lockerBlock " + lockerBlock.getId() + ": availableCount "
+                        + lockerBlock.getAvailableCount() + " -> " + count + ", availableBySize "
+                        + lockerBlock.getAvailableBySize() + " -> " + bySize);
+                lockerBlock.setAvailableCount(count);
+                this.eventPublisher.publishEvent(new LockerBlockChangedEvent(lockerBlock.getId()));
+            }
+        }
+
+        this.lockerBlockIndex.rebuild(lockerBlocks);
+        this.repaired.increment(repairedBlocks);
+        return repairedBlocks;
+    }
+
+    // Sizes decremented back to zero stay in the stored counters
+    private static Map<String, Integer> withoutZeros(Map<String, Integer> bySize) {
+        Map<String, Integer> counts = new HashMap<>();
+        if (bySize != null) {
+            bySize.forEach((size, count) -> {
+                if (count != null && count != 0) {
+                    counts.put(size, count);
+                }
+            });
+        }
+        return counts;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.reconcileScheduler.shutdownNow();
+    }
+}
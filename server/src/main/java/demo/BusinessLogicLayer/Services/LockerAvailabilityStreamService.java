@@ -0,0 +1,8 @@
+package demo.BusinessLogicLayer.Services;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface LockerAvailabilityStreamService {
+    // Server-sent events for the available lockerBlocks within radiusKm: a snapshot, then the changes as they happen
+    SseEmitter subscribe(double latitude, double longitude, double radiusKm, String userSystemID, String userEmail);
+}
@@ -0,0 +1,330 @@
+package demo.BusinessLogicLayer.Services;
+
+import demo.BusinessLogicLayer.CommandHandlers.GetAvailableLockersCommandHandler;
+import demo.BusinessLogicLayer.Converters.ObjectConverter;
+import demo.BusinessLogicLayer.Exceptions.MyForbiddenException;
+import demo.DataAccessLayer.CRUDs.ObjectCrud;
+import demo.DataAccessLayer.Entities.ObjectEntity;
+import demo.DataAccessLayer.Entities.UserEntity;
+import demo.Enums.UserRole;
+import demo.PresentationLayer.Boundaries.ObjectBoundary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Pushes lockerBlock availability to subscribed map screens instead of having them poll getAvailableLockers.
+ * A subscription first receives a "snapshot" event with the available blocks within its radius. Every
+ * LockerBlockChangedEvent marks a block as changed; every push-interval the changed blocks are read with one
+ * query and each subscription receives a "changes" event with the blocks in its radius that were updated or
+ * became available, and the ids of the blocks it had seen that left it. Nothing is read while no one subscribes.
+ * The events come from this instance's own writes and, when MongoDB is a replica set, from the change stream
+ * opened by LockerBlockChangeStreamWatcher for the writes of the other instances. On a standalone MongoDB only
+ * one instance is supported (see lockers.availability.change-streams).
+ * Events are not written on the push thread: each subscription has a bounded outbox drained by its own virtual
+ * thread, so a slow client only delays itself, and a client whose outbox overflows is disconnected.
+ */
+@Service
+public class LockerAvailabilityStreamServiceImpl implements LockerAvailabilityStreamService {
+
+    private final Log log = LogFactory.getLog(LockerAvailabilityStreamServiceImpl.class);
+
+    private final ObjectService objectService;
+    private final ObjectCrud objectCrud;
+    private final ObjectConverter converter;
+    private final UserPrincipalResolver principalResolver;
+    private final Duration pushInterval;
+    private final Duration heartbeatInterval;
+    private final Duration streamTimeout;
+    private final int snapshotSize;
+    private final int maxQueuedEvents;
+
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final Set<String> changedBlocks = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService pushScheduler;
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("locker-availability-send-", 0).factory());
+
+    public LockerAvailabilityStreamServiceImpl(
+            ObjectService objectService,
+            ObjectCrud objectCrud,
+            ObjectConverter converter,
+            UserPrincipalResolver principalResolver,
+            MeterRegistry meterRegistry,
+            @Value("${lockers.availability.push-interval:1s}") Duration pushInterval,
+            @Value("${lockers.availability.heartbeat-interval:30s}") Duration heartbeatInterval,
+            @Value("${lockers.availability.stream-timeout:30m}") Duration streamTimeout,
+            @Value("${lockers.availability.snapshot-size:100}") int snapshotSize,
+            @Value("${lockers.availability.max-queued-events:50}") int maxQueuedEvents) {
+        this.objectService = objectService;
+        this.objectCrud = objectCrud;
+        this.converter = converter;
+        this.principalResolver = principalResolver;
+        this.pushInterval = pushInterval;
+        this.heartbeatInterval = heartbeatInterval;
+        this.streamTimeout = streamTimeout;
+        this.snapshotSize = snapshotSize;
+        this.maxQueuedEvents = maxQueuedEvents;
+
+        Gauge.builder("lockers.availability.subscriptions", this.subscriptions, Set::size)
+                .description("Open locker availability streams")
+                .register(meterRegistry);
+        this.pushScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "locker-availability-push");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        this.pushScheduler.scheduleWithFixedDelay(() -> {
+            try {
+                push();
+            } catch (RuntimeException e) {
+                log.error("Locker availability push failed: " + e.getMessage(), e);
+            }
+        }, this.pushInterval.toMillis(), this.pushInterval.toMillis(), TimeUnit.MILLISECONDS);
+
+        // Proxies close idle connections, and a comment is how a dead client is noticed between changes
+        this.pushScheduler.scheduleWithFixedDelay(() -> {
+            for (Subscription subscription : this.subscriptions) {
+                subscription.send(SseEmitter.event().comment("keep-alive"));
+            }
+        }, this.heartbeatInterval.toMillis(), this.heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public SseEmitter subscribe(double latitude, double longitude, double radiusKm, String userSystemID, String userEmail) {
+        GetAvailableLockersCommandHandler.validateLocation(latitude, longitude, radiusKm);
+
+        // Same access rules as getAvailableLockers
+        UserEntity userEntity = this.principalResolver.resolve(userSystemID, userEmail);
+        if (userEntity.getRole() == UserRole.ADMIN) {
+            throw new MyForbiddenException("ADMIN users cannot access locker information");
+        }
+
+        SseEmitter emitter = new SseEmitter(this.streamTimeout.toMillis());
+        Subscription subscription = new Subscription(emitter, latitude, longitude, radiusKm,
+                userEntity.getRole() != UserRole.OPERATOR);
+        emitter.onCompletion(() -> this.subscriptions.remove(subscription));
+        emitter.onTimeout(() -> this.subscriptions.remove(subscription));
+        emitter.onError(e -> this.subscriptions.remove(subscription));
+
+        // Registered before the snapshot is read so no change in between is lost; a push for this subscription
+        // queues its changes behind the snapshot, and at worst repeats a block the snapshot already has
+        synchronized (subscription) {
+            this.subscriptions.add(subscription);
+            List<ObjectBoundary> snapshot;
+            try {
+                snapshot = this.objectService.searchAvailableLockerBlocksNear(latitude, longitude, radiusKm,
+                        userSystemID, userEmail, this.snapshotSize, 0);
+            } catch (RuntimeException e) {
+                this.subscriptions.remove(subscription);
+                throw e;
+            }
+            for (ObjectBoundary lockerBlock : snapshot) {
+                subscription.visible.add(lockerBlock.getObjectID().getID());
+            }
+            subscription.send(SseEmitter.event().name("snapshot").data(snapshot, MediaType.APPLICATION_JSON));
+        }
+        return emitter;
+    }
+
+    @EventListener
+    public void onLockerBlockChanged(LockerBlockChangedEvent event) {
+        if (event.lockerBlockId() != null) {
+            this.changedBlocks.add(event.lockerBlockId());
+        }
+    }
+
+    // Sends the blocks changed since the previous push to the subscriptions they are relevant to
+    void push() {
+        if (this.changedBlocks.isEmpty()) {
+            return;
+        }
+        List<String> changed = new ArrayList<>(this.changedBlocks);
+        this.changedBlocks.removeAll(changed);
+        if (this.subscriptions.isEmpty()) {
+            return;
+        }
+
+        Map<String, ObjectEntity> lockerBlocks = this.objectCrud.findAllById(changed)
+                .stream()
+                .collect(Collectors.toMap(ObjectEntity::getId, lockerBlock -> lockerBlock));
+
+        for (Subscription subscription : this.subscriptions) {
+            synchronized (subscription) {
+                List<ObjectBoundary> updated = new ArrayList<>();
+                List<String> removed = new ArrayList<>();
+                for (String lockerBlockId : changed) {
+                    ObjectEntity lockerBlock = lockerBlocks.get(lockerBlockId);
+                    Double distanceKm = lockerBlock == null ? null : subscription.distanceIfVisible(lockerBlock);
+                    if (distanceKm != null) {
+                        updated.add(toBoundaryWithDistance(lockerBlock, distanceKm));
+                        subscription.visible.add(lockerBlockId);
+                    } else if (subscription.visible.remove(lockerBlockId)) {
+                        removed.add(lockerBlockId);
+                    }
+                }
+
+                if (!updated.isEmpty() || !removed.isEmpty()) {
+                    subscription.send(SseEmitter.event()
+                            .name("changes")
+                            .data(Map.of("updated", updated, "removed", removed), MediaType.APPLICATION_JSON));
+                }
+            }
+        }
+    }
+
+    private ObjectBoundary toBoundaryWithDistance(ObjectEntity lockerBlock, double distanceKm) {
+        ObjectBoundary boundary = this.converter.toBoundary(lockerBlock);
+        Map<String, Object> details = boundary.getObjectDetails() == null
+                ? new HashMap<>()
+                : new HashMap<>(boundary.getObjectDetails());
+        details.put("distanceKm", distanceKm);
+        boundary.setObjectDetails(details);
+        return boundary;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.pushScheduler.shutdownNow();
+        for (Subscription subscription : this.subscriptions) {
+            subscription.emitter.complete();
+        }
+        this.subscriptions.clear();
+        this.senders.shutdownNow();
+    }
+
+    // One open stream; its fields after construction are only used while holding its monitor
+    private final class Subscription {
+
+        private final SseEmitter emitter;
+        private final double latitude;
+        private final double longitude;
+        private final double radiusKm;
+        private final boolean activeOnly;
+        // The blocks this client currently shows, so a block that leaves the radius is reported as removed
+        private final Set<String> visible = new HashSet<>();
+        // Events not written yet, and whether a sender is draining them
+        private final Queue<SseEmitter.SseEventBuilder> outbox = new ArrayDeque<>();
+        private boolean draining;
+        private boolean closed;
+
+        Subscription(SseEmitter emitter, double latitude, double longitude, double radiusKm, boolean activeOnly) {
+            this.emitter = emitter;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.radiusKm = radiusKm;
+            this.activeOnly = activeOnly;
+        }
+
+        // The distance of an available lockerBlock within the radius, null when the client should not show it
+        Double distanceIfVisible(ObjectEntity lockerBlock) {
+            if (!"lockerBlock".equals(lockerBlock.getType())
+                    || !"available".equals(lockerBlock.getStatus())
+                    || (this.activeOnly && !Boolean.TRUE.equals(lockerBlock.getActive()))
+                    || lockerBlock.getAvailableCount() == null || lockerBlock.getAvailableCount() <= 0
+                    || lockerBlock.getLocation() == null) {
+                return null;
+            }
+            double distanceKm = LockerBlockIndex.distanceKm(this.latitude, this.longitude,
+                    lockerBlock.getLocation().getY(), lockerBlock.getLocation().getX());
+            return distanceKm <= this.radiusKm ? distanceKm : null;
+        }
+
+        // Queues the event and returns right away; the write happens on this subscription's sender
+        void send(SseEmitter.SseEventBuilder event) {
+            synchronized (this) {
+                if (this.closed) {
+                    return;
+                }
+                if (this.outbox.size() >= maxQueuedEvents) {
+                    // Slower than the changes it subscribed to: the client reconnects and gets a fresh snapshot
+                    log.warn("Closing a locker availability stream whose client fell " + maxQueuedEvents + " events behind");
+                    close();
+                    // complete() waits for a write in progress, so it does not run on the caller's thread either
+                    completeLater();
+                    return;
+                }
+                this.outbox.add(event);
+                if (this.draining) {
+                    return;
+                }
+                this.draining = true;
+            }
+            try {
+                senders.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                close();
+            }
+        }
+
+        // Writes the queued events one by one, blocking only this subscription's sender thread
+        private void drain() {
+            while (true) {
+                SseEmitter.SseEventBuilder event;
+                synchronized (this) {
+                    event = this.outbox.poll();
+                    if (event == null || this.closed) {
+                        this.draining = false;
+                        return;
+                    }
+                }
+                try {
+                    this.emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    // The client went away; the container completes the emitter
+                    synchronized (this) {
+                        close();
+                        this.draining = false;
+                    }
+                    return;
+                }
+            }
+        }
+
+        private void completeLater() {
+            try {
+                senders.execute(this.emitter::complete);
+            } catch (RejectedExecutionException e) {
+                // Shutting down, every emitter is completed by shutdown()
+            }
+        }
+
+        // Called while holding the monitor
+        private void close() {
+            this.closed = true;
+            this.outbox.clear();
+            subscriptions.remove(this);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package demo.BusinessLogicLayer.Services;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import demo.DataAccessLayer.Entities.ObjectEntity;
+import jakarta.annotation.PreDestroy;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes a LockerBlockChangedEvent for every lockerBlock written by any server instance, so the locker
+ * availability streams of this instance also see the writes made through the others.
+ * Change streams need a replica set or a sharded cluster. With lockers.availability.change-streams=auto (the
+ * default) they are used when MongoDB offers them; on a standalone mongod only this instance's own writes reach
+ * its streams, which is correct for a single instance only. required refuses to start without them, off never
+ * opens one. Writes made through this instance are then reported twice, which the streams coalesce.
+ * Each change is also applied to the LockerBlockIndex from the document looked up with it, counter included, so a
+ * block another instance made available is found by the nearby search without waiting for the next rebuild.
+ * The same holds as for the streams: without change streams the index only follows this instance's writes.
+ */
+@Component
+public class LockerBlockChangeStreamWatcher {
+
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+
+    private final Log log = LogFactory.getLog(LockerBlockChangeStreamWatcher.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LockerBlockIndex lockerBlockIndex;
+    private final String mode;
+    private final Duration retryDelay;
+
+    private volatile boolean running;
+    private volatile MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor;
+    private Thread watcherThread;
+
+    public LockerBlockChangeStreamWatcher(
+            MongoTemplate mongoTemplate,
+            ApplicationEventPublisher eventPublisher,
+            LockerBlockIndex lockerBlockIndex,
+            @Value("${lockers.availability.change-streams:auto}") String mode,
+            @Value("${lockers.availability.change-stream-retry-delay:5s}") Duration retryDelay) {
+        this.mode = mode.trim().toLowerCase(Locale.ROOT);
+        if (!List.of("auto", "required", "off").contains(this.mode)) {
+            throw new IllegalArgumentException("lockers.availability.change-streams must be auto, required or off: " + mode);
+        }
+        this.mongoTemplate = mongoTemplate;
+        this.eventPublisher = eventPublisher;
+        this.lockerBlockIndex = lockerBlockIndex;
+        this.retryDelay = retryDelay;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if ("off".equals(this.mode)) {
+            log.info("Locker availability change streams are off: streams only see writes made through this instance");
+            return;
+        }
+        if (!changeStreamsSupported()) {
+            if ("required".equals(this.mode)) {
+                throw new IllegalStateException("lockers.availability.change-streams=required, but MongoDB is a "
+                        + "standalone server; locker availability streams need a replica set to see every instance's writes");
+            }
+            log.warn("MongoDB offers no change streams (standalone server): locker availability streams only see "
+                    + "writes made through this instance, so run a single instance or use a replica set");
+            return;
+        }
+
+        this.running = true;
+        this.watcherThread = new Thread(this::watch, "locker-block-change-stream");
+        this.watcherThread.setDaemon(true);
+        this.watcherThread.start();
+    }
+
+    // A replica set member reports its setName, a mongos router answers isdbgrid
+    private boolean changeStreamsSupported() {
+        try {
+            Document hello = this.mongoTemplate.executeCommand(new Document("hello", 1));
+            return hello.get("setName") != null || "isdbgrid".equals(hello.get("msg"));
+        } catch (RuntimeException e) {
+            log.warn("Could not ask MongoDB whether it offers change streams: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void watch() {
+        BsonDocument resumeToken = null;
+        while (this.running) {
+            // Updates are matched on the looked-up document, deletes carry no type and are all passed on
+            ChangeStreamIterable<Document> changes = this.mongoTemplate
+                    .getCollection(this.mongoTemplate.getCollectionName(ObjectEntity.class))
+                    .watch(List.of(Aggregates.match(Filters.or(
+                            Filters.eq("fullDocument.type", "lockerBlock"),
+                            Filters.eq("operationType", "delete")))))
+                    .fullDocument(FullDocument.UPDATE_LOOKUP);
+            if (resumeToken != null) {
+                changes = changes.resumeAfter(resumeToken);
+            }
+
+            try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> opened = changes.cursor()) {
+                this.cursor = opened;
+                while (this.running) {
+                    ChangeStreamDocument<Document> change = opened.tryNext();
+                    if (change == null) {
+                        continue;
+                    }
+                    resumeToken = change.getResumeToken();
+                    BsonValue id = change.getDocumentKey() == null ? null : change.getDocumentKey().get("_id");
+                    if (id != null && id.isString()) {
+                        refreshIndex(id.asString().getValue(), change.getFullDocument());
+                        this.eventPublisher.publishEvent(new LockerBlockChangedEvent(id.asString().getValue()));
+                    }
+                }
+            } catch (RuntimeException e) {
+                if (!this.running) {
+                    return;
+                }
+                log.warn("Locker block change stream failed, reopening in " + this.retryDelay.toMillis() + " ms: "
+                        + e.getMessage());
+                if (e instanceof MongoException mongoException && mongoException.getCode() == CHANGE_STREAM_HISTORY_LOST) {
+                    // The oplog no longer reaches back to the last event seen, start from now
+                    resumeToken = null;
+                }
+                try {
+                    TimeUnit.MILLISECONDS.sleep(this.retryDelay.toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    // A delete, or an update whose document is gone by the lookup, has no full document and leaves the index
+    private void refreshIndex(String lockerBlockId, Document fullDocument) {
+        try {
+            if (fullDocument == null) {
+                this.lockerBlockIndex.remove(lockerBlockId);
+            } else {
+                this.lockerBlockIndex.refresh(this.mongoTemplate.getConverter().read(ObjectEntity.class, fullDocument));
+            }
+        } catch (RuntimeException e) {
+            // The next change of the block or the next rebuild puts it right
+            log.warn("Could not apply the change of lockerBlock " + lockerBlockId + " to the spatial index: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.running = false;
+        MongoChangeStreamCursor<ChangeStreamDocument<Document>> opened = this.cursor;
+        if (opened != null) {
+            try {
+                opened.close();
+            } catch (RuntimeException e) {
+                // already closed by the watcher thread
+            }
+        }
+        if (this.watcherThread != null) {
+            this.watcherThread.interrupt();
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package demo.BusinessLogicLayer.Services;
+
+/**
+ * Published in-process whenever a lockerBlock may look different to a nearby client: its location, status or
+ * active flag changed, or a locker bound to it changed its availability. Only the id is carried; listeners read
+ * the block again, so several changes of one block can be coalesced.
+ */
+public record LockerBlockChangedEvent(String lockerBlockId) {
+}
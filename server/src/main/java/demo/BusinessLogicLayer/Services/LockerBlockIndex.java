@@ -0,0 +1,646 @@
+package demo.BusinessLogicLayer.Services;
+
+import demo.DataAccessLayer.Entities.ObjectEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Memory-resident spatial index of the lockerBlock coordinates, answering the radius / k-nearest-neighbour
+ * part of getAvailableLockers without a database query.
+ * Blocks live in slots of primitive arrays (coordinates in radians, cos(latitude), availableCount, flags) and a
+ * fixed latitude/longitude grid maps each cell to the slots inside it. A query visits the cells ring by ring
+ * around the query point and stops once the k nearest blocks found so far are closer than the next ring can be.
+ * ObjectServiceImpl keeps it current on every write, LockerBlockChangeStreamWatcher refreshes the blocks written
+ * by other instances, and LockerAvailabilityReconciler rebuilds it from OBJECTS at startup and after each
+ * reconciliation; until the first rebuild isReady() is false and the 2dsphere index is used.
+ * Between beginRebuild() and endRebuild() the ids written to are recorded: rebuild() takes those blocks from the
+ * live index instead of the older snapshot it is given, so no write made while the snapshot was read is lost.
+ */
+@Component
+public class LockerBlockIndex {
+
+    static final double EARTH_RADIUS_KM = 6371;
+
+    private static final byte STATUS_AVAILABLE = 1;
+    private static final byte ACTIVE = 2;
+
+    private final boolean enabled;
+    private final double cellDegrees;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Grid grid;
+    private volatile boolean loaded;
+
+    // Guarded by the lock: ids written while a rebuild runs, mapped to true when the last write removed them
+    private int rebuildsRunning;
+    private Map<String, Boolean> writtenDuringRebuild = new HashMap<>();
+    private boolean clearedDuringRebuild;
+
+    public LockerBlockIndex(
+            @Value("${lockers.spatial-index.enabled:true}") boolean enabled,
+            @Value("${lockers.spatial-index.cell-degrees:0.01}") double cellDegrees) {
+        if (cellDegrees <= 0 || cellDegrees > 90) {
+            throw new IllegalArgumentException("lockers.spatial-index.cell-degrees must be in (0, 90]: " + cellDegrees);
+        }
+        this.enabled = enabled;
+        this.cellDegrees = cellDegrees;
+        this.grid = new Grid(cellDegrees, 16);
+    }
+
+    // True once the index was built from the database and may answer queries
+    public boolean isReady() {
+        return this.enabled && this.loaded;
+    }
+
+    public int size() {
+        this.lock.readLock().lock();
+        try {
+            return this.grid.slotById.size();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    // Starts recording the writes; call it before reading the lockerBlocks that are passed to rebuild()
+    public void beginRebuild() {
+        this.lock.writeLock().lock();
+        try {
+            this.rebuildsRunning++;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    // Stops recording once every begun rebuild has ended, whether it completed or failed
+    public void endRebuild() {
+        this.lock.writeLock().lock();
+        try {
+            if (this.rebuildsRunning > 0 && --this.rebuildsRunning == 0) {
+                this.writtenDuringRebuild = new HashMap<>();
+                this.clearedDuringRebuild = false;
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    // Replaces the content with the given lockerBlocks; the new grid is built before the lock is taken, then the
+    // blocks written since beginRebuild() are copied over from the live grid
+    public void rebuild(Collection<ObjectEntity> lockerBlocks) {
+        Grid rebuilt = new Grid(this.cellDegrees, Math.max(16, lockerBlocks.size()));
+        // Slots are handed out cell by cell, so the blocks of a cell sit next to each other in the arrays
+        List<ObjectEntity> indexable = lockerBlocks.stream()
+                .filter(LockerBlockIndex::isIndexable)
+                .sorted(Comparator.comparingLong(lockerBlock ->
+                        rebuilt.cellKeyOf(lockerBlock.getLocation().getY(), lockerBlock.getLocation().getX())))
+                .toList();
+        for (ObjectEntity lockerBlock : indexable) {
+            rebuilt.put(lockerBlock.getId(), lockerBlock.getLocation().getY(), lockerBlock.getLocation().getX(),
+                    flags(lockerBlock.getStatus(), lockerBlock.getActive()), counter(lockerBlock.getAvailableCount()));
+        }
+
+        this.lock.writeLock().lock();
+        try {
+            if (this.clearedDuringRebuild) {
+                // Everything the snapshot holds was deleted afterwards, unless it was written again
+                for (String id : List.copyOf(rebuilt.slotById.keySet())) {
+                    if (!this.grid.slotById.containsKey(id)) {
+                        rebuilt.remove(id);
+                    }
+                }
+            }
+            for (Map.Entry<String, Boolean> written : this.writtenDuringRebuild.entrySet()) {
+                Integer liveSlot = this.grid.slotById.get(written.getKey());
+                if (liveSlot != null) {
+                    rebuilt.copy(this.grid, liveSlot);
+                } else if (written.getValue()) {
+                    rebuilt.remove(written.getKey());
+                }
+            }
+            this.grid = rebuilt;
+            this.loaded = true;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    // Called with the write lock held
+    private void recordWrite(String id, boolean removed) {
+        if (this.rebuildsRunning > 0) {
+            this.writtenDuringRebuild.put(id, removed);
+        }
+    }
+
+    // Indexes a stored lockerBlock, or drops an object that is no longer a lockerBlock with a location
+    public void put(ObjectEntity object) {
+        if (!isIndexable(object)) {
+            remove(object.getId());
+            return;
+        }
+        put(object.getId(), object.getLocation().getY(), object.getLocation().getX(),
+                object.getStatus(), object.getActive(), object.getAvailableCount());
+    }
+
+    // availableCount only seeds a block that is not indexed yet, the counter of an indexed one moves by addAvailable
+    public void put(String id, double latitude, double longitude, String status, Boolean active, Integer availableCount) {
+        put(id, latitude, longitude, status, active, availableCount, false);
+    }
+
+    // Takes a lockerBlock as it is stored now, counter included: for the writes of other instances, whose
+    // availableCount moves this index has not seen
+    public void refresh(ObjectEntity object) {
+        if (!isIndexable(object)) {
+            remove(object.getId());
+            return;
+        }
+        put(object.getId(), object.getLocation().getY(), object.getLocation().getX(),
+                object.getStatus(), object.getActive(), object.getAvailableCount(), true);
+    }
+
+    private void put(String id, double latitude, double longitude, String status, Boolean active,
+                     Integer availableCount, boolean replaceCounter) {
+        this.lock.writeLock().lock();
+        try {
+            Integer slot = this.grid.slotById.get(id);
+            int count = slot != null && !replaceCounter ? this.grid.availableCounts[slot] : counter(availableCount);
+            this.grid.put(id, latitude, longitude, flags(status, active), count);
+            recordWrite(id, false);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    public void addAvailable(String id, int delta) {
+        this.lock.writeLock().lock();
+        try {
+            Integer slot = this.grid.slotById.get(id);
+            if (slot != null) {
+                this.grid.availableCounts[slot] += delta;
+            }
+            recordWrite(id, false);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String id) {
+        this.lock.writeLock().lock();
+        try {
+            this.grid.remove(id);
+            recordWrite(id, true);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        this.lock.writeLock().lock();
+        try {
+            this.grid = new Grid(this.cellDegrees, 16);
+            if (this.rebuildsRunning > 0) {
+                this.writtenDuringRebuild.clear();
+                this.clearedDuringRebuild = true;
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The k nearest lockerBlocks with status "available" and at least one available locker within radiusKm,
+     * nearest first; activeOnly also skips the inactive blocks (END_USER).
+     */
+    public Neighbours nearest(double latitude, double longitude, double radiusKm, int k, boolean activeOnly) {
+        if (k <= 0) {
+            return new Neighbours(new String[0], new double[0], 0);
+        }
+        this.lock.readLock().lock();
+        try {
+            return this.grid.nearest(latitude, longitude, radiusKm, k, activeOnly ? STATUS_AVAILABLE | ACTIVE : STATUS_AVAILABLE);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    private static boolean isIndexable(ObjectEntity object) {
+        return "lockerBlock".equals(object.getType()) && object.getLocation() != null;
+    }
+
+    private static byte flags(String status, Boolean active) {
+        return (byte) (("available".equals(status) ? STATUS_AVAILABLE : 0) | (Boolean.TRUE.equals(active) ? ACTIVE : 0));
+    }
+
+    private static int counter(Integer availableCount) {
+        return availableCount == null ? 0 : availableCount;
+    }
+
+    // Great-circle (haversine) distance in kilometers, as reported by nearest()
+    static double distanceKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double sinLat = Math.sin(Math.toRadians(latitude2 - latitude1) / 2);
+        double sinLon = Math.sin(Math.toRadians(longitude2 - longitude1) / 2);
+        double a = sinLat * sinLat
+                + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2)) * sinLon * sinLon;
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    // Result of a query: ids and great-circle distances in kilometers, nearest first
+    public static final class Neighbours {
+
+        private final String[] ids;
+        private final double[] distancesKm;
+        private final int size;
+
+        Neighbours(String[] ids, double[] distancesKm, int size) {
+            this.ids = ids;
+            this.distancesKm = distancesKm;
+            this.size = size;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public String id(int index) {
+            return ids[index];
+        }
+
+        public double distanceKm(int index) {
+            return distancesKm[index];
+        }
+    }
+
+    // Slots and cells of one generation of the index, guarded by the lock of LockerBlockIndex
+    private static final class Grid {
+
+        private final double latCellDegrees;
+        private final double lonCellDegrees;
+        private final int rows;
+        private final int cols;
+
+        private final Map<String, Integer> slotById = new HashMap<>();
+        private final Map<Long, Cell> cells = new HashMap<>();
+
+        private String[] ids;
+        private double[] latitudes;
+        private double[] longitudes;
+        private double[] cosLatitudes;
+        private int[] availableCounts;
+        private byte[] flags;
+        private long[] cellKeys;
+        private int slotCount;
+        private int[] freeSlots = new int[16];
+        private int freeCount;
+
+        Grid(double cellDegrees, int capacity) {
+            this.latCellDegrees = cellDegrees;
+            this.rows = (int) Math.ceil(180 / cellDegrees);
+            // An odd number of columns lets a ring reach every column exactly once in each direction
+            int cols = (int) Math.ceil(360 / cellDegrees);
+            this.cols = cols % 2 == 0 ? cols + 1 : cols;
+            this.lonCellDegrees = 360.0 / this.cols;
+
+            this.ids = new String[capacity];
+            this.latitudes = new double[capacity];
+            this.longitudes = new double[capacity];
+            this.cosLatitudes = new double[capacity];
+            this.availableCounts = new int[capacity];
+            this.flags = new byte[capacity];
+            this.cellKeys = new long[capacity];
+        }
+
+        void put(String id, double latitude, double longitude, byte blockFlags, int availableCount) {
+            long cellKey = cellKeyOf(latitude, longitude);
+
+            Integer existing = this.slotById.get(id);
+            int slot;
+            if (existing != null) {
+                slot = existing;
+                if (this.cellKeys[slot] != cellKey) {
+                    removeFromCell(slot);
+                    this.cells.computeIfAbsent(cellKey, key -> new Cell()).add(slot);
+                }
+            } else {
+                slot = allocate();
+                this.slotById.put(id, slot);
+                this.cells.computeIfAbsent(cellKey, key -> new Cell()).add(slot);
+            }
+
+            this.ids[slot] = id;
+            this.latitudes[slot] = Math.toRadians(latitude);
+            this.longitudes[slot] = Math.toRadians(longitude);
+            this.cosLatitudes[slot] = Math.cos(this.latitudes[slot]);
+            this.availableCounts[slot] = availableCount;
+            this.flags[slot] = blockFlags;
+            this.cellKeys[slot] = cellKey;
+        }
+
+        // Puts the block held by a slot of another grid, with its counter
+        void copy(Grid from, int slot) {
+            put(from.ids[slot], Math.toDegrees(from.latitudes[slot]), Math.toDegrees(from.longitudes[slot]),
+                    from.flags[slot], from.availableCounts[slot]);
+        }
+
+        void remove(String id) {
+            Integer slot = this.slotById.remove(id);
+            if (slot == null) {
+                return;
+            }
+            removeFromCell(slot);
+            this.ids[slot] = null;
+            if (this.freeCount == this.freeSlots.length) {
+                this.freeSlots = Arrays.copyOf(this.freeSlots, this.freeCount * 2);
+            }
+            this.freeSlots[this.freeCount++] = slot;
+        }
+
+        private void removeFromCell(int slot) {
+            Cell cell = this.cells.get(this.cellKeys[slot]);
+            cell.remove(slot);
+            if (cell.size == 0) {
+                this.cells.remove(this.cellKeys[slot]);
+            }
+        }
+
+        private int allocate() {
+            if (this.freeCount > 0) {
+                return this.freeSlots[--this.freeCount];
+            }
+            if (this.slotCount == this.ids.length) {
+                int capacity = this.slotCount * 2;
+                this.ids = Arrays.copyOf(this.ids, capacity);
+                this.latitudes = Arrays.copyOf(this.latitudes, capacity);
+                this.longitudes = Arrays.copyOf(this.longitudes, capacity);
+                this.cosLatitudes = Arrays.copyOf(this.cosLatitudes, capacity);
+                this.availableCounts = Arrays.copyOf(this.availableCounts, capacity);
+                this.flags = Arrays.copyOf(this.flags, capacity);
+                this.cellKeys = Arrays.copyOf(this.cellKeys, capacity);
+            }
+            return this.slotCount++;
+        }
+
+        Neighbours nearest(double latitude, double longitude, double radiusKm, int k, int requiredFlags) {
+            Query query = new Query(latitude, longitude, radiusKm, k, requiredFlags);
+
+            // Cells that can hold a point within the radius: a box of rowRange x colRange rings around the query cell
+            double latRangeDegrees = Math.toDegrees(radiusKm / EARTH_RADIUS_KM);
+            double maxLatitude = Math.abs(latitude) + latRangeDegrees;
+            if (maxLatitude >= 90) {
+                // Around a pole every longitude is in range and no ring can be ruled out by its distance
+                return scanAll(query);
+            }
+            double cosMaxLatitude = Math.cos(Math.toRadians(maxLatitude));
+            int rowRange = (int) Math.min(this.rows, Math.ceil(latRangeDegrees / this.latCellDegrees));
+            int colRange = (int) Math.min((this.cols - 1) / 2, Math.ceil(latRangeDegrees / cosMaxLatitude / this.lonCellDegrees));
+            int queryRow = rowOf(latitude);
+            int queryCol = colOf(longitude);
+
+            int entries = this.slotById.size();
+            int visited = 0;
+            int lookups = 0;
+            for (int ring = 0; ring <= Math.max(rowRange, colRange) && visited < entries; ring++) {
+                if (ring > 1 && query.isFull() && ringLowerBoundKm(ring, cosMaxLatitude) > query.farthestKm()) {
+                    break;
+                }
+
+                for (int cell = 0, cellCount = ringCellCount(ring, rowRange, colRange); cell < cellCount; cell++) {
+                    // Mostly empty cells (a large radius over few blocks) cost more than looking at every block
+                    if (++lookups > entries) {
+                        return scanAll(new Query(latitude, longitude, radiusKm, k, requiredFlags));
+                    }
+                    long cellKey = ringCellKey(ring, cell, rowRange, colRange, queryRow, queryCol);
+                    Cell slots = cellKey < 0 ? null : this.cells.get(cellKey);
+                    if (slots == null) {
+                        continue;
+                    }
+                    visited += slots.size;
+                    for (int i = 0; i < slots.size; i++) {
+                        offer(query, slots.slots[i]);
+                    }
+                }
+            }
+            return query.toNeighbours(this.ids);
+        }
+
+        private Neighbours scanAll(Query query) {
+            for (int slot = 0; slot < this.slotCount; slot++) {
+                if (this.ids[slot] != null) {
+                    offer(query, slot);
+                }
+            }
+            return query.toNeighbours(this.ids);
+        }
+
+        private void offer(Query query, int slot) {
+            if ((this.flags[slot] & query.requiredFlags) != query.requiredFlags || this.availableCounts[slot] <= 0) {
+                return;
+            }
+            double sinLat = Math.sin((this.latitudes[slot] - query.latitude) / 2);
+            double sinLon = Math.sin((this.longitudes[slot] - query.longitude) / 2);
+            query.offer(slot, sinLat * sinLat + query.cosLatitude * this.cosLatitudes[slot] * sinLon * sinLon);
+        }
+
+        // Ring r is the border of the (2r+1)x(2r+1) square of cells around the query cell, clipped to the box
+        private static int ringCellCount(int ring, int rowRange, int colRange) {
+            if (ring == 0) {
+                return 1;
+            }
+            int count = 0;
+            if (ring <= rowRange) {
+                count += 2 * (2 * Math.min(ring, colRange) + 1);
+            }
+            if (ring <= colRange) {
+                count += 2 * (2 * Math.min(ring - 1, rowRange) + 1);
+            }
+            return count;
+        }
+
+        // Key of the index-th cell of a ring (top and bottom rows first, then the left and right columns), -1 off the grid
+        private long ringCellKey(int ring, int index, int rowRange, int colRange, int queryRow, int queryCol) {
+            int rowOffset;
+            int colOffset;
+            if (ring == 0) {
+                rowOffset = 0;
+                colOffset = 0;
+            } else {
+                int rowEdgeCells = ring <= rowRange ? 2 * Math.min(ring, colRange) + 1 : 0;
+                if (index < 2 * rowEdgeCells) {
+                    rowOffset = index < rowEdgeCells ? -ring : ring;
+                    colOffset = index % rowEdgeCells - Math.min(ring, colRange);
+                } else {
+                    int colEdgeCells = 2 * Math.min(ring - 1, rowRange) + 1;
+                    int colIndex = index - 2 * rowEdgeCells;
+                    colOffset = colIndex < colEdgeCells ? -ring : ring;
+                    rowOffset = colIndex % colEdgeCells - Math.min(ring - 1, rowRange);
+                }
+            }
+
+            int row = queryRow + rowOffset;
+            if (row < 0 || row >= this.rows) {
+                return -1;
+            }
+            int col = Math.floorMod(queryCol + colOffset, this.cols);
+            return (long) row * this.cols + col;
+        }
+
+        // No point of ring r is closer than r-1 whole cells in latitude or in longitude at the highest latitude reached
+        private double ringLowerBoundKm(int ring, double cosMaxLatitude) {
+            double latBound = EARTH_RADIUS_KM * Math.toRadians((ring - 1) * this.latCellDegrees);
+            double lonDelta = Math.min(Math.PI, Math.toRadians((ring - 1) * this.lonCellDegrees));
+            double lonBound = 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, cosMaxLatitude * Math.sin(lonDelta / 2)));
+            return Math.min(latBound, lonBound);
+        }
+
+        long cellKeyOf(double latitude, double longitude) {
+            return (long) rowOf(latitude) * this.cols + colOf(longitude);
+        }
+
+        private int rowOf(double latitude) {
+            return Math.min(this.rows - 1, Math.max(0, (int) Math.floor((latitude + 90) / this.latCellDegrees)));
+        }
+
+        private int colOf(double longitude) {
+            return Math.floorMod((int) Math.floor((longitude + 180) / this.lonCellDegrees), this.cols);
+        }
+    }
+
+    /**
+     * One query and the max-heap of the k nearest blocks found so far. Candidates are compared on the haversine
+     * term a = sin^2(dLat/2) + cos(lat1) cos(lat2) sin^2(dLon/2), which grows with the distance, so the arcsine
+     * is only taken for the k results.
+     */
+    private static final class Query {
+
+        private final double latitude;
+        private final double longitude;
+        private final double cosLatitude;
+        private final double maxHaversine;
+        private final int requiredFlags;
+        private final int[] heapSlots;
+        private final double[] heapDistances;
+        private int heapSize;
+
+        Query(double latitude, double longitude, double radiusKm, int k, int requiredFlags) {
+            this.latitude = Math.toRadians(latitude);
+            this.longitude = Math.toRadians(longitude);
+            this.cosLatitude = Math.cos(this.latitude);
+            double halfAngle = radiusKm / EARTH_RADIUS_KM / 2;
+            this.maxHaversine = halfAngle >= Math.PI / 2 ? Double.MAX_VALUE : Math.pow(Math.sin(halfAngle), 2);
+            this.requiredFlags = requiredFlags;
+            this.heapSlots = new int[k];
+            this.heapDistances = new double[k];
+        }
+
+        boolean isFull() {
+            return this.heapSize == this.heapSlots.length;
+        }
+
+        double farthestKm() {
+            return toKm(this.heapDistances[0]);
+        }
+
+        void offer(int slot, double distance) {
+            if (distance > this.maxHaversine) {
+                return;
+            }
+            if (!isFull()) {
+                int index = this.heapSize++;
+                this.heapSlots[index] = slot;
+                this.heapDistances[index] = distance;
+                siftUp(index);
+            } else if (distance < this.heapDistances[0]) {
+                this.heapSlots[0] = slot;
+                this.heapDistances[0] = distance;
+                siftDown(this.heapSize);
+            }
+        }
+
+        // Popping the heap fills the result from the farthest to the nearest
+        Neighbours toNeighbours(String[] ids) {
+            int size = this.heapSize;
+            String[] resultIds = new String[size];
+            double[] resultDistances = new double[size];
+            for (int last = size - 1; last >= 0; last--) {
+                resultIds[last] = ids[this.heapSlots[0]];
+                resultDistances[last] = toKm(this.heapDistances[0]);
+                swap(0, last);
+                siftDown(last);
+            }
+            return new Neighbours(resultIds, resultDistances, size);
+        }
+
+        private static double toKm(double haversine) {
+            return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(haversine)));
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) / 2;
+                if (this.heapDistances[parent] >= this.heapDistances[index]) {
+                    return;
+                }
+                swap(parent, index);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int size) {
+            int index = 0;
+            while (true) {
+                int largest = index;
+                int left = 2 * index + 1;
+                int right = left + 1;
+                if (left < size && this.heapDistances[left] > this.heapDistances[largest]) {
+                    largest = left;
+                }
+                if (right < size && this.heapDistances[right] > this.heapDistances[largest]) {
+                    largest = right;
+                }
+                if (largest == index) {
+                    return;
+                }
+                swap(index, largest);
+                index = largest;
+            }
+        }
+
+        private void swap(int i, int j) {
+            int slot = this.heapSlots[i];
+            this.heapSlots[i] = this.heapSlots[j];
+            this.heapSlots[j] = slot;
+            double distance = this.heapDistances[i];
+            this.heapDistances[i] = this.heapDistances[j];
+            this.heapDistances[j] = distance;
+        }
+    }
+
+    // Growable list of the slots in one grid cell
+    private static final class Cell {
+
+        private int[] slots = new int[4];
+        private int size;
+
+        void add(int slot) {
+            if (this.size == this.slots.length) {
+                this.slots = Arrays.copyOf(this.slots, this.size * 2);
+            }
+            this.slots[this.size++] = slot;
+        }
+
+        void remove(int slot) {
+            for (int i = 0; i < this.size; i++) {
+                if (this.slots[i] == slot) {
+                    this.slots[i] = this.slots[--this.size];
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package demo.BusinessLogicLayer.Services;
 
+import demo.DataAccessLayer.IDs.UserID;
 import demo.PresentationLayer.Boundaries.ObjectBoundary;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface ObjectService {
@@ -11,26 +14,41 @@ public interface ObjectService {
 
     void updateObject(String systemID, String objectID, String userSystemID, String userEmail, ObjectBoundary update,Boolean fromCommand);
 
+    void patchObject(String systemID, String objectID, String userSystemID, String userEmail, Map<String, Object> patch);
+
     Optional<ObjectBoundary> getObjectById(String systemID, String objectId, String userSystemID, String userEmail);
 
-    List<ObjectBoundary> getAllObjects(String userSystemID, String userEmail, int size, int page);
+    List<ObjectBoundary> getAllObjects(String userSystemID, String userEmail, int size, int page, String cursor);
 
     void deleteAllObjects(String userSystemID, String userEmail);
 
     void bindObjects(String parentSystemID, String parentObjectID, String childSystemID, String childObjectID,
                      String userSystemID, String userEmail);
 
-    List<ObjectBoundary> getChildren(String parentSystemID, String parentObjectID, String userSystemID, String userEmail, int size, int page);
+    ToggledLocker toggleLockerStatus(String lockerObjectID, String userSystemID, String userEmail);
+
+    List<ObjectBoundary> getChildren(String parentSystemID, String parentObjectID, String userSystemID, String userEmail, int size, int page, String cursor);
+
+    Map<String, List<ObjectBoundary>> getActiveChildrenByTypeAndStatus(Collection<String> parentObjectIDs, String type, String status,
+                                                                      String userSystemID, String userEmail);
 
     List<ObjectBoundary> getParent(String childSystemID, String childObjectID, String userSystemID, String userEmail, int size, int page);
 
-    List<ObjectBoundary> searchObjectsByExactAlias(String alias, String userSystemID, String userEmail, int size, int page);
+    List<ObjectBoundary> searchObjectsByExactAlias(String alias, String userSystemID, String userEmail, int size, int page, String cursor);
+
+    List<ObjectBoundary> searchObjectsByAliasPattern(String pattern, String userSystemID, String userEmail, int size, int page, String cursor);
+
+    List<ObjectBoundary> searchObjectsByType(String type, String userSystemID, String userEmail, int size, int page, String cursor);
 
-    List<ObjectBoundary> searchObjectsByAliasPattern(String pattern, String userSystemID, String userEmail, int size, int page);
+    List<ObjectBoundary> searchObjectsByStatus(String status, String userSystemID, String userEmail, int size, int page, String cursor);
 
-    List<ObjectBoundary> searchObjectsByType(String type, String userSystemID, String userEmail, int size, int page);
+    List<ObjectBoundary> searchObjectsByTypeAndStatus(String type, String status, String userSystemID, String userEmail, int size, int page, String cursor);
 
-    List<ObjectBoundary> searchObjectsByStatus(String status, String userSystemID, String userEmail, int size, int page);
+    // Objects of the given type and status created by one user, oldest first
+    List<ObjectBoundary> searchObjectsByTypeAndStatusAndCreatedBy(String type, String status, UserID createdBy,
+                                                                  String userSystemID, String userEmail, int size, int page, String cursor);
 
-    List<ObjectBoundary> searchObjectsByTypeAndStatus(String type, String status, String userSystemID, String userEmail, int size, int page);
+    // Available lockerBlocks with at least one available locker by their availability counter, nearest first
+    List<ObjectBoundary> searchAvailableLockerBlocksNear(double latitude, double longitude, double radiusKm,
+                                                         String userSystemID, String userEmail, int size, int page);
 }
\ No newline at end of file
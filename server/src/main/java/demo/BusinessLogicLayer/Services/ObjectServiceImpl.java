@@ -2,24 +2,34 @@ package demo.BusinessLogicLayer.Services;
 
 import demo.DataAccessLayer.IDs.UserID;
 import demo.PresentationLayer.Boundaries.ObjectBoundary;
-import demo.PresentationLayer.Boundaries.UserBoundary;
 import demo.DataAccessLayer.CRUDs.ObjectCrud;
 import demo.DataAccessLayer.Entities.ObjectEntity;
 import demo.DataAccessLayer.Entities.UserEntity;
+import demo.BusinessLogicLayer.Converters.CursorConverter;
 import demo.BusinessLogicLayer.Converters.ObjectConverter;
-import demo.BusinessLogicLayer.Converters.UserConverter;
 import demo.BusinessLogicLayer.Exceptions.MyForbiddenException;
 import demo.BusinessLogicLayer.Exceptions.MyInvalidInputException;
 import demo.BusinessLogicLayer.Exceptions.MyNotFoundException;
 import demo.Enums.UserRole;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.GeoResult;
+import org.springframework.data.geo.GeoResults;
+import org.springframework.data.geo.Metrics;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
@@ -28,20 +38,26 @@ public class ObjectServiceImpl implements ObjectService {
 
     private final ObjectCrud objectCrud;
     private final ObjectConverter converter;
-    private final UserService userService;
-    private final UserConverter userConverter;
+    private final UserPrincipalResolver principalResolver;
+    private final CursorConverter cursorConverter;
+    private final LockerBlockIndex lockerBlockIndex;
+    private final ApplicationEventPublisher eventPublisher;
     private String appName;
 
     @Autowired
     public ObjectServiceImpl(
             ObjectCrud objectCrud,
             ObjectConverter converter,
-            UserService userService,
-            UserConverter userConverter) {
+            UserPrincipalResolver principalResolver,
+            CursorConverter cursorConverter,
+            LockerBlockIndex lockerBlockIndex,
+            ApplicationEventPublisher eventPublisher) {
         this.objectCrud = objectCrud;
         this.converter = converter;
-        this.userService = userService;
-        this.userConverter = userConverter;
+        this.principalResolver = principalResolver;
+        this.cursorConverter = cursorConverter;
+        this.lockerBlockIndex = lockerBlockIndex;
+        this.eventPublisher = eventPublisher;
     }
 
     @Value("${spring.application.name:dummy}")
@@ -90,9 +106,7 @@ public class ObjectServiceImpl implements ObjectService {
         }
 
         // Check if the user exists in the system and get their role
-        UserBoundary userBoundary = userService.login(userId.getSystemID(), userId.getEmail())
-                .orElseThrow(() -> new MyNotFoundException("User with email " + userId.getEmail() + " does not exist"));
-        UserEntity userEntity = userConverter.toEntity(userBoundary);
+        UserEntity userEntity = principalResolver.resolve(userId.getSystemID(), userId.getEmail());
 
         if (userEntity.getRole()!= UserRole.OPERATOR &&  fromCommand==false)
             throw new MyForbiddenException("Cannot create object");
@@ -109,16 +123,26 @@ public class ObjectServiceImpl implements ObjectService {
             entity.setCreatedBy(userStr);
         }
 
-        return converter.toBoundary(this.objectCrud.save(entity));
+        // Availability counters are maintained by the server, a new lockerBlock starts without available lockers
+        if ("lockerBlock".equals(entity.getType())) {
+            entity.setAvailableCount(0);
+            entity.setAvailableBySize(new HashMap<>());
+        }
+
+        ObjectEntity created = this.objectCrud.save(entity);
+        updateAvailability(null, LockerAvailability.of(created));
+        if ("lockerBlock".equals(created.getType())) {
+            this.lockerBlockIndex.put(created);
+            this.eventPublisher.publishEvent(new LockerBlockChangedEvent(created.getId()));
+        }
+        return converter.toBoundary(created);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ObjectBoundary> getAllObjects(String userSystemID, String userEmail, int size, int page) {
+    public List<ObjectBoundary> getAllObjects(String userSystemID, String userEmail, int size, int page, String cursor) {
         // Verify user exists and get their role
-        UserBoundary userBoundary = userService.login(userSystemID, userEmail)
-                .orElseThrow(() -> new MyNotFoundException("User not found"));
-        UserEntity userEntity = userConverter.toEntity(userBoundary);
+        UserEntity userEntity = principalResolver.resolve(userSystemID, userEmail);
 
         // Apply permission rules based on user role
         switch (userEntity.getRole()) {
@@ -128,20 +152,15 @@ public class ObjectServiceImpl implements ObjectService {
 
             case OPERATOR:
                 // OPERATOR users have full access to all objects with pagination
-                return this.objectCrud
-                        .findAll(PageRequest.of(page, size, Sort.Direction.ASC, "creationTimestamp", "id"))
-                        .stream()
-                        .map(converter::toBoundary)
-                        .collect(Collectors.toList());
+                return toBoundaries(cursor, size,
+                        new Criteria(),
+                        () -> this.objectCrud.findAll(PageRequest.of(page, size, Sort.Direction.ASC, "creationTimestamp", "id")));
 
             case END_USER:
                 // END_USER can only access active objects with pagination
-                return this.objectCrud
-                        .findAll(PageRequest.of(page, size, Sort.Direction.ASC, "creationTimestamp", "id"))
-                        .stream()
-                        .filter(entity -> entity.getActive() != null && entity.getActive())
-                        .map(converter::toBoundary)
-                        .collect(Collectors.toList());
+                return toBoundaries(cursor, size,
+                        Criteria.where("active").is(true),
+                        () -> this.objectCrud.findAllByActiveTrue(PageRequest.of(page, size, Sort.Direction.ASC, "creationTimestamp", "id")));
 
             default:
                 throw new MyForbiddenException("Unknown user role");
@@ -156,9 +175,7 @@ public class ObjectServiceImpl implements ObjectService {
                 .orElseThrow(() -> new MyNotFoundException("Object with ID " + objectId + " not found"));
 
         // Verify user exists and get their role
-        UserBoundary userBoundary = userService.login(userSystemID, userEmail)
-                .orElseThrow(() -> new MyNotFoundException("User not found"));
-        UserEntity userEntity = userConverter.toEntity(userBoundary);
+        UserEntity userEntity = principalResolver.resolve(userSystemID, userEmail);
 
         // Apply permission rules based on user role
         switch (userEntity.getRole()) {
@@ -189,9 +206,7 @@ public class ObjectServiceImpl implements ObjectService {
     @Transactional
     public void updateObject(String systemID, String objectId, String userSystemID, String userEmail, ObjectBoundary update,Boolean fromCommand) {
         // Verify user exists
-        UserBoundary userBoundary = userService.login(userSystemID, userEmail)
-                .orElseThrow(() -> new MyNotFoundException("User not found"));
-        UserEntity userEntity = userConverter.toEntity(userBoundary);
+        UserEntity userEntity = principalResolver.resolve(userSystemID, userEmail);
 
         // Get the object entity
         ObjectEntity existingEntity = objectCrud.findById(objectId)
@@ -221,24 +236,282 @@ public class ObjectServiceImpl implements ObjectService {
         if (update.getActive() != null) existingEntity.setActive(update.getActive());
         if (update.getObjectDetails() != null) {
             existingEntity.setObjectDetails(update.getObjectDetails());
+            existingEntity.setLocation(converter.toLocation(update.getObjectDetails()));
         }
 
-        objectCrud.save(existingEntity);
+        // Only the updatable fields are written, so the availability counters of a lockerBlock are left alone,
+        // and the stored state before the write tells how the availability of a locker changed
+        Update changes = new Update()
+                .set("type", existingEntity.getType())
+                .set("alias", existingEntity.getAlias())
+                .set("status", existingEntity.getStatus());
+        setOrUnset(changes, "active", existingEntity.getActive());
+        setOrUnset(changes, "objectDetails", existingEntity.getObjectDetails());
+        setOrUnset(changes, "location", existingEntity.getLocation());
+        ObjectEntity previous = this.objectCrud.findAndUpdateByIdReturningPrevious(objectId, changes);
+        if (previous == null) {
+            throw new MyNotFoundException("Object with ID " + objectId + " not found");
+        }
+        existingEntity.setParentId(previous.getParentId());
+        updateAvailability(LockerAvailability.of(previous), LockerAvailability.of(existingEntity));
+        updateLockerBlockIndex(objectId, previous, existingEntity.getType(), existingEntity.getStatus(),
+                existingEntity.getActive(), existingEntity.getLocation());
+    }
+
+    @Override
+    @Transactional
+    public void patchObject(String systemID, String objectId, String userSystemID, String userEmail, Map<String, Object> patch) {
+        // Verify user exists; the role alone decides, the object is not read before the update
+        UserEntity userEntity = principalResolver.resolve(userSystemID, userEmail);
+        if (userEntity.getRole() != UserRole.OPERATOR) {
+            throw new MyForbiddenException("Cannot update object");
+        }
+
+        if (patch == null || patch.isEmpty()) {
+            throw new MyInvalidInputException("Patch cannot be null or empty");
+        }
+
+        // JSON Merge Patch: a value is set, null removes the field, objects are merged recursively
+        Update update = new Update();
+        for (Map.Entry<String, Object> entry : patch.entrySet()) {
+            String field = entry.getKey();
+            Object value = entry.getValue();
+            switch (field) {
+                case "type":
+                case "alias":
+                case "status":
+                    if (!(value instanceof String text) || text.trim().isEmpty()) {
+                        throw new MyInvalidInputException("Object " + field + " cannot be empty or null");
+                    }
+                    update.set(field, text);
+                    break;
+
+                case "active":
+                    if (value == null) {
+                        update.unset(field);
+                    } else if (value instanceof Boolean) {
+                        update.set(field, value);
+                    } else {
+                        throw new MyInvalidInputException("Object active must be true, false or null");
+                    }
+                    break;
+
+                case "objectDetails":
+                    if (value == null) {
+                        update.unset("objectDetails");
+                        update.unset("location");
+                    } else if (value instanceof Map<?, ?> details) {
+                        // Nested objects merge into the stored ones, so those are read; flat patches need no read
+                        Map<String, Object> stored = details.values().stream().anyMatch(Map.class::isInstance)
+                                ? this.objectCrud.findObjectDetailsById(objectId)
+                                : null;
+                        addMergePatch(update, "objectDetails", details, stored);
+                    } else {
+                        throw new MyInvalidInputException("Object objectDetails must be an object or null");
+                    }
+                    break;
+
+                default:
+                    throw new MyInvalidInputException("Field " + field + " cannot be patched");
+            }
+        }
+
+        // Nothing to change (e.g. only empty objects were merged into stored ones)
+        if (update.getUpdateObject().isEmpty()) {
+            if (!this.objectCrud.existsById(objectId)) {
+                throw new MyNotFoundException("Object with ID " + objectId + " not found");
+            }
+            return;
+        }
+
+        // The stored location follows objectDetails.latitude/longitude
+        boolean coordinatesPatched = patch.get("objectDetails") instanceof Map<?, ?> details
+                && (details.containsKey("latitude") || details.containsKey("longitude"));
+        // A locker may become (un)available through its type, status, active flag or size
+        boolean availabilityPatched = patch.containsKey("type") || patch.containsKey("status") || patch.containsKey("active")
+                || (patch.containsKey("objectDetails")
+                    && (!(patch.get("objectDetails") instanceof Map<?, ?> details) || details.containsKey("size")));
+        try {
+            if (!coordinatesPatched && !availabilityPatched) {
+                if (this.objectCrud.updateById(objectId, update) == 0) {
+                    throw new MyNotFoundException("Object with ID " + objectId + " not found");
+                }
+                return;
+            }
+
+            // The stored state before the patch, with the patch applied to it, gives the state after it
+            ObjectEntity previous = this.objectCrud.findAndUpdateByIdReturningPrevious(objectId, update);
+            if (previous == null) {
+                throw new MyNotFoundException("Object with ID " + objectId + " not found");
+            }
+            updateAvailability(LockerAvailability.of(previous), patchedAvailability(previous, patch));
+
+            GeoJsonPoint location = patch.containsKey("objectDetails") && patch.get("objectDetails") == null
+                    ? null
+                    : previous.getLocation();
+            if (coordinatesPatched) {
+                // Only one of the coordinates may be in the patch, the other one is the stored value
+                Map<String, Object> coordinates = new HashMap<>();
+                Map<?, ?> patchedDetails = (Map<?, ?>) patch.get("objectDetails");
+                for (String coordinate : List.of("latitude", "longitude")) {
+                    Object value = patchedDetails.containsKey(coordinate)
+                            ? patchedDetails.get(coordinate)
+                            : previous.getObjectDetails() == null ? null : previous.getObjectDetails().get(coordinate);
+                    coordinates.put(coordinate, value);
+                }
+                location = converter.toLocation(coordinates);
+                this.objectCrud.updateById(objectId, location == null
+                        ? new Update().unset("location")
+                        : new Update().set("location", location));
+            }
+
+            updateLockerBlockIndex(objectId, previous,
+                    patch.containsKey("type") ? (String) patch.get("type") : previous.getType(),
+                    patch.containsKey("status") ? (String) patch.get("status") : previous.getStatus(),
+                    patch.containsKey("active") ? (Boolean) patch.get("active") : previous.getActive(),
+                    location);
+        } catch (DataAccessException e) {
+            // e.g. merging an object into a stored objectDetails value that is not an object
+            throw new MyInvalidInputException("Patch cannot be applied to object " + objectId + ": " + e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    // Like save(), a null field is not stored
+    private static void setOrUnset(Update update, String field, Object value) {
+        if (value == null) {
+            update.unset(field);
+        } else {
+            update.set(field, value);
+        }
+    }
+
+    // The availability of an object once the merge patch is applied to its previous state
+    private static LockerAvailability patchedAvailability(ObjectEntity previous, Map<String, Object> patch) {
+        String type = patch.containsKey("type") ? (String) patch.get("type") : previous.getType();
+        String status = patch.containsKey("status") ? (String) patch.get("status") : previous.getStatus();
+        Boolean active = patch.containsKey("active") ? (Boolean) patch.get("active") : previous.getActive();
+
+        Object size = previous.getObjectDetails() == null ? null : previous.getObjectDetails().get("size");
+        if (patch.containsKey("objectDetails")) {
+            if (!(patch.get("objectDetails") instanceof Map<?, ?> details)) {
+                size = null;
+            } else if (details.containsKey("size")) {
+                size = details.get("size");
+            }
+        }
+        return LockerAvailability.of(type, status, active, previous.getParentId(), size);
+    }
+
+    // Moves the contribution of a locker between the availability counters with $inc, nothing when it did not change
+    private void updateAvailability(LockerAvailability before, LockerAvailability after) {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        if (before != null) {
+            this.objectCrud.incrementAvailability(before.lockerBlockId(), before.size(), -1);
+            this.lockerBlockIndex.addAvailable(before.lockerBlockId(), -1);
+            this.eventPublisher.publishEvent(new LockerBlockChangedEvent(before.lockerBlockId()));
+        }
+        if (after != null) {
+            this.objectCrud.incrementAvailability(after.lockerBlockId(), after.size(), 1);
+            this.lockerBlockIndex.addAvailable(after.lockerBlockId(), 1);
+            this.eventPublisher.publishEvent(new LockerBlockChangedEvent(after.lockerBlockId()));
+        }
+    }
+
+    // Follows a write of a lockerBlock (or of an object that was or became one) in the spatial index and tells the
+    // availability streams; the stored counter before the write seeds a block new to the index, afterwards
+    // updateAvailability moves it
+    private void updateLockerBlockIndex(String objectId, ObjectEntity previous, String type, String status,
+                                        Boolean active, GeoJsonPoint location) {
+        if ("lockerBlock".equals(type) && location != null) {
+            this.lockerBlockIndex.put(objectId, location.getY(), location.getX(), status, active, previous.getAvailableCount());
+        } else if ("lockerBlock".equals(previous.getType())) {
+            this.lockerBlockIndex.remove(objectId);
+        } else {
+            return;
+        }
+        this.eventPublisher.publishEvent(new LockerBlockChangedEvent(objectId));
+    }
+
+    // Adds $set/$unset operations for the leaves of a merge patch object under the given path. A nested object is
+    // merged into the stored object at its path; where none is stored (a scalar, or nothing) it replaces the value
+    // as a whole, since MongoDB cannot create fields inside a scalar and an empty object has no leaves to $set
+    private void addMergePatch(Update update, String path, Map<?, ?> patch, Map<?, ?> stored) {
+        for (Map.Entry<?, ?> entry : patch.entrySet()) {
+            String key = String.valueOf(entry.getKey());
+            if (key.isEmpty() || key.contains(".") || key.startsWith("$")) {
+                throw new MyInvalidInputException("Invalid objectDetails key: " + key);
+            }
+
+            String fieldPath = path + "." + key;
+            Object value = entry.getValue();
+            Object storedValue = stored == null ? null : stored.get(key);
+            if (value == null) {
+                update.unset(fieldPath);
+            } else if (value instanceof Map<?, ?> nested && storedValue instanceof Map<?, ?> storedNested) {
+                addMergePatch(update, fieldPath, nested, storedNested);
+            } else if (value instanceof Map<?, ?> nested) {
+                update.set(fieldPath, withoutNulls(nested));
+            } else {
+                update.set(fieldPath, value);
+            }
+        }
+    }
+
+    // A merge patch object applied to nothing: its null members remove nothing and are dropped
+    private static Map<String, Object> withoutNulls(Map<?, ?> patch) {
+        Map<String, Object> value = new LinkedHashMap<>();
+        for (Map.Entry<?, ?> entry : patch.entrySet()) {
+            String key = String.valueOf(entry.getKey());
+            if (key.isEmpty() || key.contains(".") || key.startsWith("$")) {
+                throw new MyInvalidInputException("Invalid objectDetails key: " + key);
+            }
+            if (entry.getValue() instanceof Map<?, ?> nested) {
+                value.put(key, withoutNulls(nested));
+            } else if (entry.getValue() != null) {
+                value.put(key, entry.getValue());
+            }
+        }
+        return value;
+    }
+
+    @Override
+    @Transactional
+    public ToggledLocker toggleLockerStatus(String lockerObjectID, String userSystemID, String userEmail) {
+        // Verify user exists; ADMIN users have no access to objects
+        UserEntity userEntity = principalResolver.resolve(userSystemID, userEmail);
+        if (userEntity.getRole() == UserRole.ADMIN) {
+            throw new MyForbiddenException("Object not found");
+        }
+
+        // One conditional write: matches only an active locker and flips its stored isLocked
+        ObjectEntity toggled = this.objectCrud.toggleLocked(lockerObjectID);
+        if (toggled != null) {
+            return new ToggledLocker(converter.toBoundary(toggled), toggled.getLockVersion());
+        }
+
+        // Nothing matched, read the object only to report why
+        ObjectEntity locker = this.objectCrud.findById(lockerObjectID)
+                .orElseThrow(() -> new MyNotFoundException("Locker not found with ID: " + lockerObjectID));
+        if (locker.getActive() == null || !locker.getActive() || !"locker".equals(locker.getType())) {
+            throw new MyForbiddenException("Access denied"); // not a valid locker object, status hidden from client
+        }
+        throw new MyForbiddenException("Locker status must be 'locked' or 'unlocked'");
     }
 
     @Override
     @Transactional
     public void deleteAllObjects(String userSystemId, String userEmail) {
         // Verify user exists and has ADMIN role
-        UserBoundary userBoundary = userService.login(userSystemId, userEmail)
-                .orElseThrow(() -> new MyNotFoundException("User not found"));
-        UserEntity userEntity = userConverter.toEntity(userBoundary);
+        UserEntity userEntity = principalResolver.resolve(userSystemId, userEmail);
         if (userEntity.getRole() != UserRole.ADMIN) {
             throw new MyForbiddenException("Only ADMIN users can delete all objects");
         }
 
         // Delete all objects
         this.objectCrud.deleteAll();
+        this.lockerBlockIndex.clear();
     }
 
     @Override
@@ -246,74 +519,76 @@ public class ObjectServiceImpl implements ObjectService {
     public void bindObjects(String parentSystemID, String parentObjectID, String childSystemID, String childObjectID,
                             String userSystemID, String userEmail) {
         // Verify user exists and get their role
-        UserBoundary userBoundary = userService.login(userSystemID, userEmail)
-                .orElseThrow(() -> new MyNotFoundException("User not found"));
-        UserEntity userEntity = userConverter.toEntity(userBoundary);
+        UserEntity userEntity = principalResolver.resolve(userSystemID, userEmail);
 
         // Only OPERATOR users can bind objects
         if (userEntity.getRole() != UserRole.OPERATOR) {
             throw new MyForbiddenException("Can't bind objects");
         }
 
-        // get parent entity by parentId if exists
+        // check the parent entity exists
         // otherwise return 404 status
-        ObjectEntity parent = this.objectCrud
-                .findById(parentObjectID)
-                .orElseThrow(()->new MyNotFoundException("Could not find parent entity by id: " + parentObjectID));
+        if (!this.objectCrud.existsById(parentObjectID)) {
+            throw new MyNotFoundException("Could not find parent entity by id: " + parentObjectID);
+        }
 
-        // get child entity by childId if exists
+        // connect entities with a single $set of the child's parentId, so a concurrent toggle, patch or counter
+        // update of the child is not overwritten; returns the child as it was just before
         // otherwise return 404 status
-        ObjectEntity child = this.objectCrud
-                .findById(childObjectID)
-                .orElseThrow(()->new MyNotFoundException("Could not find child entity by id: " + childObjectID));
-
-        // connect entities and store updates to database
-        child.setParent(parent);
+        ObjectEntity previous = this.objectCrud.findAndUpdateByIdReturningPrevious(
+                childObjectID, new Update().set("parentId", parentObjectID));
+        if (previous == null) {
+            throw new MyNotFoundException("Could not find child entity by id: " + childObjectID);
+        }
 
-        this.objectCrud
-                .save(child);
+        // The availability delta comes from that same atomic write: only the parent changed
+        Object size = previous.getObjectDetails() == null ? null : previous.getObjectDetails().get("size");
+        updateAvailability(LockerAvailability.of(previous),
+                LockerAvailability.of(previous.getType(), previous.getStatus(), previous.getActive(), parentObjectID, size));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<ObjectBoundary> getParent(String childSystemID, String childObjectID, String userSystemID, String userEmail, int size, int page) {
         // Verify user exists and get their role
-        UserBoundary userBoundary = userService.login(userSystemID, userEmail)
-                .orElseThrow(() -> new MyNotFoundException("User not found"));
-        UserEntity userEntity = userConverter.toEntity(userBoundary);
+        UserEntity userEntity = principalResolver.resolve(userSystemID, userEmail);
 
         // Get the child entity to check if it exists
         ObjectEntity child = this.objectCrud
                 .findById(childObjectID)
                 .orElseThrow(() -> new MyNotFoundException("Could not find child by id: " + childObjectID));
 
+        // ADMIN users have no access
+        if (userEntity.getRole() == UserRole.ADMIN) {
+            throw new MyForbiddenException("Object not found");
+        }
+
+        // Load the parent by the id stored on the child
+        ObjectEntity parent = child.getParentId() == null
+                ? null
+                : this.objectCrud.findById(child.getParentId()).orElse(null);
+
         // Apply permission rules based on user role
         switch (userEntity.getRole()) {
-            case ADMIN:
-                // ADMIN users have no access
-                throw new MyForbiddenException("Object not found");
-
             case OPERATOR:
                 // OPERATOR users have full access
                 // If there's a parent and we're on the first page, return it
-                if (child.getParent() != null && page == 0 && size > 0) {
-                    return Collections.singletonList(converter.toBoundary(child.getParent()));
+                if (parent != null && page == 0 && size > 0) {
+                    return Collections.singletonList(converter.toBoundary(parent));
                 }
                 // Otherwise return empty list
                 return Collections.emptyList();
 
             case END_USER:
                 // END_USER can only access active objects
-                if (child.getActive() == null || !child.getActive() || !child.getParent().getActive()) {
+                if (child.getActive() == null || !child.getActive()
+                        || (parent != null && (parent.getActive() == null || !parent.getActive()))) {
                     throw new MyForbiddenException("Object not found");
                 }
 
-                // For END_USER, check if parent exists and is active
-                if (child.getParent() != null &&
-                        child.getParent().getActive() != null &&
-                        child.getParent().getActive() &&
-                        page == 0 && size > 0) {
-                    return Collections.singletonList(converter.toBoundary(child.getParent()));
+                // For END_USER, return the parent (known to be active here) on the first page
+                if (parent != null && page == 0 && size > 0) {
+                    return Collections.singletonList(converter.toBoundary(parent));
                 }
                 // Otherwise return empty list
                 return Collections.emptyList();
@@ -325,11 +600,9 @@ public class ObjectServiceImpl implements ObjectService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<ObjectBoundary> getChildren(String parentSystemID, String parentObjectID, String userSystemID, String userEmail, int size, int page) {
+    public List<ObjectBoundary> getChildren(String parentSystemID, String parentObjectID, String userSystemID, String userEmail, int size, int page, String cursor) {
         // Verify user exists and get their role
-        UserBoundary userBoundary = userService.login(userSystemID, userEmail)
-                .orElseThrow(() -> new MyNotFoundException("User not found"));
-        UserEntity userEntity = userConverter.toEntity(userBoundary);
+        UserEntity userEntity = principalResolver.resolve(userSystemID, userEmail);
 
         // Check if parent object exists
         ObjectEntity parent = this.objectCrud
@@ -345,11 +618,9 @@ public class ObjectServiceImpl implements ObjectService {
             case OPERATOR:
                 // OPERATOR users have full access to all objects
                 // Use pagination for the query
-                return this.objectCrud
-                        .findAllByParent_id(parentObjectID, PageRequest.of(page, size, Sort.Direction.ASC, "creationTimestamp", "id"))
-                        .stream()
-                        .map(this.converter::toBoundary)
-                        .collect(Collectors.toList());
+                return toBoundaries(cursor, size,
+                        Criteria.where("parentId").is(parentObjectID),
+                        () -> this.objectCrud.findAllByParentId(parentObjectID, PageRequest.of(page, size, Sort.Direction.ASC, "creationTimestamp", "id")));
 
             case END_USER:
                 // END_USER can only access active objects
@@ -357,13 +628,10 @@ public class ObjectServiceImpl implements ObjectService {
                     throw new MyForbiddenException("Object not found");
                 }
 
-                // For END_USER, get paginated results but filter to only active children
-                return this.objectCrud
-                        .findAllByParent_id(parentObjectID, PageRequest.of(page, size, Sort.Direction.ASC, "creationTimestamp", "id"))
-                        .stream()
-                        .filter(entity -> entity.getActive() != null && entity.getActive())
-                        .map(this.converter::toBoundary)
-                        .collect(Collectors.toList());
+                // For END_USER, the database returns only the active children of the page
+                return toBoundaries(cursor, size,
+                        Criteria.where("parentId").is(parentObjectID).and("active").is(true),
+                        () -> this.objectCrud.findAllByParentIdAndActiveTrue(parentObjectID, PageRequest.of(page, size, Sort.Direction.ASC, "creationTimestamp", "id")));
 
             default:
                 throw new MyForbiddenException("Unknown user role");
@@ -372,16 +640,51 @@ public class ObjectServiceImpl implements ObjectService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<ObjectBoundary> searchObjectsByExactAlias(String alias, String userSystemID, String userEmail, int size, int page) {
+    public Map<String, List<ObjectBoundary>> getActiveChildrenByTypeAndStatus(Collection<String> parentObjectIDs, String type, String status,
+                                                                             String userSystemID, String userEmail) {
+        // Validate input
+        if (type == null || type.trim().isEmpty()) {
+            throw new MyInvalidInputException("Type cannot be null or empty");
+        }
+
+        if (status == null) {
+            throw new MyInvalidInputException("Status cannot be null");
+        }
+
+        // Verify user exists and get their role
+        UserEntity userEntity = principalResolver.resolve(userSystemID, userEmail);
+
+        // ADMIN users have no access, OPERATOR and END_USER both get the active children only
+        if (userEntity.getRole() == UserRole.ADMIN) {
+            throw new MyForbiddenException("Object not found");
+        }
+
+        if (parentObjectIDs == null || parentObjectIDs.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        // One query for all the parents, grouped by parent id in memory
+        Map<String, List<ObjectBoundary>> childrenByParent = new HashMap<>();
+        this.objectCrud
+                .findAllByParentIdInAndTypeAndStatusAndActiveTrue(
+                        parentObjectIDs, type, status, Sort.by(Sort.Direction.ASC, "creationTimestamp", "id"))
+                .forEach(child -> childrenByParent
+                        .computeIfAbsent(child.getParentId(), parentId -> new ArrayList<>())
+                        .add(this.converter.toBoundary(child)));
+
+        return childrenByParent;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ObjectBoundary> searchObjectsByExactAlias(String alias, String userSystemID, String userEmail, int size, int page, String cursor) {
         // Validate input
         if (alias == null || alias.trim().isEmpty()) {
             throw new MyInvalidInputException("Alias cannot be null or empty");
         }
 
         // Verify user exists and get their role
-        UserBoundary userBoundary = userService.login(userSystemID, userEmail)
-                .orElseThrow(() -> new MyNotFoundException("User not found"));
-        UserEntity userEntity = userConverter.toEntity(userBoundary);
+        UserEntity userEntity = principalResolver.resolve(userSystemID, userEmail);
 
         // Apply permission rules based on user role
         switch (userEntity.getRole()) {
@@ -391,20 +694,15 @@ public class ObjectServiceImpl implements ObjectService {
 
             case OPERATOR:
                 // OPERATOR users have full access to all objects
-                return this.objectCrud
-                        .findAllByAlias(alias, PageRequest.of(page, size, Sort.Direction.ASC, "creationTimestamp", "id"))
-                        .stream()
-                        .map(converter::toBoundary)
-                        .collect(Collectors.toList());
+                return toBoundaries(cursor, size,
+                        Criteria.where("alias").is(alias),
+                        () -> this.objectCrud.findAllByAlias(alias, PageRequest.of(page, size, Sort.Direction.ASC, "creationTimestamp", "id")));
 
             case END_USER:
                 // END_USER can only access active objects
-                return this.objectCrud
-                        .findAllByAlias(alias, PageRequest.of(page, size, Sort.Direction.ASC, "creationTimestamp", "id"))
-                        .stream()
-                        .filter(entity -> entity.getActive() != null && entity.getActive())
-                        .map(converter::toBoundary)
-                        .collect(Collectors.toList());
+                return toBoundaries(cursor, size,
+                        Criteria.where("alias").is(alias).and("active").is(true),
+                        () -> this.objectCrud.findAllByAliasAndActiveTrue(alias, PageRequest.of(page, size, Sort.Direction.ASC, "creationTimestamp", "id")));
 
             default:
                 throw new MyForbiddenException("Unknown user role");
@@ -413,16 +711,14 @@ public class ObjectServiceImpl implements ObjectService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<ObjectBoundary> searchObjectsByAliasPattern(String pattern, String userSystemID, String userEmail, int size, int page) {
+    public List<ObjectBoundary> searchObjectsByAliasPattern(String pattern, String userSystemID, String userEmail, int size, int page, String cursor) {
         // Validate input
         if (pattern == null || pattern.trim().isEmpty()) {
             throw new MyInvalidInputException("Pattern cannot be null or empty");
         }
 
         // Verify user exists and get their role
-        UserBoundary userBoundary = userService.login(userSystemID, userEmail)
-                .orElseThrow(() -> new MyNotFoundException("User not found"));
-        UserEntity userEntity = userConverter.toEntity(userBoundary);
+        UserEntity userEntity = principalResolver.resolve(userSystemID, userEmail);
 
         // Apply permission rules based on user role
         switch (userEntity.getRole()) {
@@ -432,24 +728,15 @@ public class ObjectServiceImpl implements ObjectService {
 
             case OPERATOR:
                 // OPERATOR users have full access to all objects
-                return this.objectCrud
-                        .findAllByAliasLike(
-                                "*" + pattern + "*",
-                                PageRequest.of(page, size, Sort.Direction.ASC, "creationTimestamp", "id"))
-                        .stream()
-                        .map(this.converter::toBoundary)
-                        .collect(Collectors.toList());
+                return toBoundaries(cursor, size,
+                        Criteria.where("alias").regex(".*" + Pattern.quote(pattern) + ".*"),
+                        () -> this.objectCrud.findAllByAliasLike("*" + pattern + "*", PageRequest.of(page, size, Sort.Direction.ASC, "creationTimestamp", "id")));
 
             case END_USER:
                 // END_USER can only access active objects
-                return this.objectCrud
-                        .findAllByAliasLike(
-                                "*" + pattern + "*",
-                                PageRequest.of(page, size, Sort.Direction.ASC, "creationTimestamp", "id"))
-                        .stream()
-                        .filter(entity -> entity.getActive() != null && entity.getActive())
-                        .map(this.converter::toBoundary)
-                        .collect(Collectors.toList());
+                return toBoundaries(cursor, size,
+                        Criteria.where("alias").regex(".*" + Pattern.quote(pattern) + ".*").and("active").is(true),
+                        () -> this.objectCrud.findAllByAliasLikeAndActiveTrue("*" + pattern + "*", PageRequest.of(page, size, Sort.Direction.ASC, "creationTimestamp", "id")));
 
             default:
                 throw new MyForbiddenException("Unknown user role");
@@ -458,16 +745,14 @@ public class ObjectServiceImpl implements ObjectService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<ObjectBoundary> searchObjectsByType(String type, String userSystemID, String userEmail, int size, int page) {
+    public List<ObjectBoundary> searchObjectsByType(String type, String userSystemID, String userEmail, int size, int page, String cursor) {
         // Validate input
         if (type == null || type.trim().isEmpty()) {
             throw new MyInvalidInputException("Type cannot be null or empty");
         }
 
         // Verify user exists and get their role
-        UserBoundary userBoundary = userService.login(userSystemID, userEmail)
-                .orElseThrow(() -> new MyNotFoundException("User not found"));
-        UserEntity userEntity = userConverter.toEntity(userBoundary);
+        UserEntity userEntity = principalResolver.resolve(userSystemID, userEmail);
 
         // Apply permission rules based on user role
         switch (userEntity.getRole()) {
@@ -477,20 +762,15 @@ public class ObjectServiceImpl implements ObjectService {
 
             case OPERATOR:
                 // OPERATOR users have full access to all objects
-                return this.objectCrud
-                        .findAllByType(type, PageRequest.of(page, size, Sort.Direction.ASC, "creationTimestamp", "id"))
-                        .stream()
-                        .map(converter::toBoundary)
-                        .collect(Collectors.toList());
+                return toBoundaries(cursor, size,
+                        Criteria.where("type").is(type),
+                        () -> this.objectCrud.findAllByType(type, PageRequest.of(page, size, Sort.Direction.ASC, "creationTimestamp", "id")));
 
             case END_USER:
                 // END_USER can only access active objects
-                return this.objectCrud
-                        .findAllByType(type, PageRequest.of(page, size, Sort.Direction.ASC, "creationTimestamp", "id"))
-                        .stream()
-                        .filter(entity -> entity.getActive() != null && entity.getActive())
-                        .map(converter::toBoundary)
-                        .collect(Collectors.toList());
+                return toBoundaries(cursor, size,
+                        Criteria.where("type").is(type).and("active").is(true),
+                        () -> this.objectCrud.findAllByTypeAndActiveTrue(type, PageRequest.of(page, size, Sort.Direction.ASC, "creationTimestamp", "id")));
 
             default:
                 throw new MyForbiddenException("Unknown user role");
@@ -499,16 +779,14 @@ public class ObjectServiceImpl implements ObjectService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<ObjectBoundary> searchObjectsByStatus(String status, String userSystemID, String userEmail, int size, int page) {
+    public List<ObjectBoundary> searchObjectsByStatus(String status, String userSystemID, String userEmail, int size, int page, String cursor) {
         // Validate input
         if (status == null) {
             throw new MyInvalidInputException("Status cannot be null");
         }
 
         // Verify user exists and get their role
-        UserBoundary userBoundary = userService.login(userSystemID, userEmail)
-                .orElseThrow(() -> new MyNotFoundException("User not found"));
-        UserEntity userEntity = userConverter.toEntity(userBoundary);
+        UserEntity userEntity = principalResolver.resolve(userSystemID, userEmail);
 
         // Apply permission rules based on user role
         switch (userEntity.getRole()) {
@@ -518,20 +796,15 @@ public class ObjectServiceImpl implements ObjectService {
 
             case OPERATOR:
                 // OPERATOR users have full access to all objects
-                return this.objectCrud
-                        .findAllByStatus(status, PageRequest.of(page, size, Sort.Direction.ASC, "creationTimestamp", "id"))
-                        .stream()
-                        .map(converter::toBoundary)
-                        .collect(Collectors.toList());
+                return toBoundaries(cursor, size,
+                        Criteria.where("status").is(status),
+                        () -> this.objectCrud.findAllByStatus(status, PageRequest.of(page, size, Sort.Direction.ASC, "creationTimestamp", "id")));
 
             case END_USER:
                 // END_USER can only access active objects
-                return this.objectCrud
-                        .findAllByStatus(status, PageRequest.of(page, size, Sort.Direction.ASC, "creationTimestamp", "id"))
-                        .stream()
-                        .filter(entity -> entity.getActive() != null && entity.getActive())
-                        .map(converter::toBoundary)
-                        .collect(Collectors.toList());
+                return toBoundaries(cursor, size,
+                        Criteria.where("status").is(status).and("active").is(true),
+                        () -> this.objectCrud.findAllByStatusAndActiveTrue(status, PageRequest.of(page, size, Sort.Direction.ASC, "creationTimestamp", "id")));
 
             default:
                 throw new MyForbiddenException("Unknown user role");
@@ -540,7 +813,7 @@ public class ObjectServiceImpl implements ObjectService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<ObjectBoundary> searchObjectsByTypeAndStatus(String type, String status, String userSystemID, String userEmail, int size, int page) {
+    public List<ObjectBoundary> searchObjectsByTypeAndStatus(String type, String status, String userSystemID, String userEmail, int size, int page, String cursor) {
         // Validate input
         if (type == null || type.trim().isEmpty()) {
             throw new MyInvalidInputException("Type cannot be null or empty");
@@ -551,9 +824,7 @@ public class ObjectServiceImpl implements ObjectService {
         }
 
         // Verify user exists and get their role
-        UserBoundary userBoundary = userService.login(userSystemID, userEmail)
-                .orElseThrow(() -> new MyNotFoundException("User not found"));
-        UserEntity userEntity = userConverter.toEntity(userBoundary);
+        UserEntity userEntity = principalResolver.resolve(userSystemID, userEmail);
 
         // Apply permission rules based on user role
         switch (userEntity.getRole()) {
@@ -563,23 +834,196 @@ public class ObjectServiceImpl implements ObjectService {
 
             case OPERATOR:
                 // OPERATOR users have full access to all objects
-                return this.objectCrud
-                        .findAllByTypeAndStatus(type, status, PageRequest.of(page, size, Sort.Direction.ASC, "creationTimestamp", "id"))
-                        .stream()
-                        .map(converter::toBoundary)
-                        .collect(Collectors.toList());
+                return toBoundaries(cursor, size,
+                        Criteria.where("type").is(type).and("status").is(status),
+                        () -> this.objectCrud.findAllByTypeAndStatus(type, status, PageRequest.of(page, size, Sort.Direction.ASC, "creationTimestamp", "id")));
 
             case END_USER:
                 // END_USER can only access active objects
-                return this.objectCrud
-                        .findAllByTypeAndStatus(type, status, PageRequest.of(page, size, Sort.Direction.ASC, "creationTimestamp", "id"))
-                        .stream()
-                        .filter(entity -> entity.getActive() != null && entity.getActive())
-                        .map(converter::toBoundary)
-                        .collect(Collectors.toList());
+                return toBoundaries(cursor, size,
+                        Criteria.where("type").is(type).and("status").is(status).and("active").is(true),
+                        () -> this.objectCrud.findAllByTypeAndStatusAndActiveTrue(type, status, PageRequest.of(page, size, Sort.Direction.ASC, "creationTimestamp", "id")));
 
             default:
                 throw new MyForbiddenException("Unknown user role");
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ObjectBoundary> searchObjectsByTypeAndStatusAndCreatedBy(String type, String status, UserID createdBy,
+                                                                         String userSystemID, String userEmail, int size, int page, String cursor) {
+        // Validate input
+        if (type == null || type.trim().isEmpty()) {
+            throw new MyInvalidInputException("Type cannot be null or empty");
+        }
+
+        if (status == null) {
+            throw new MyInvalidInputException("Status cannot be null");
+        }
+
+        if (createdBy == null || createdBy.getEmail() == null || createdBy.getSystemID() == null) {
+            throw new MyInvalidInputException("CreatedBy must contain email and systemID");
+        }
+
+        // Same "email/systemID" form createObject stores
+        String creator = createdBy.getEmail() + "/" + createdBy.getSystemID();
+
+        // Verify user exists and get their role
+        UserEntity userEntity = principalResolver.resolve(userSystemID, userEmail);
+
+        // Apply permission rules based on user role
+        switch (userEntity.getRole()) {
+            case ADMIN:
+                // ADMIN users have no access
+                throw new MyForbiddenException("Object not found");
+
+            case OPERATOR:
+                // OPERATOR users have full access to all objects
+                return toBoundaries(cursor, size,
+                        Criteria.where("type").is(type).and("status").is(status).and("createdBy").is(creator),
+                        () -> this.objectCrud.findAllByTypeAndStatusAndCreatedBy(type, status, creator, PageRequest.of(page, size, Sort.Direction.ASC, "creationTimestamp", "id")));
+
+            case END_USER:
+                // END_USER can only access active objects
+                return toBoundaries(cursor, size,
+                        Criteria.where("type").is(type).and("status").is(status).and("createdBy").is(creator).and("active").is(true),
+                        () -> this.objectCrud.findAllByTypeAndStatusAndCreatedByAndActiveTrue(type, status, creator, PageRequest.of(page, size, Sort.Direction.ASC, "creationTimestamp", "id")));
+
+            default:
+                throw new MyForbiddenException("Unknown user role");
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ObjectBoundary> searchAvailableLockerBlocksNear(double latitude, double longitude, double radiusKm,
+                                                                String userSystemID, String userEmail, int size, int page) {
+        // Verify user exists and get their role
+        UserEntity userEntity = principalResolver.resolve(userSystemID, userEmail);
+
+        if (this.lockerBlockIndex.isReady()) {
+            return searchAvailableLockerBlocksInIndex(latitude, longitude, radiusKm, userEntity.getRole(), size, page);
+        }
+
+        // GeoJSON order is (longitude, latitude); the database sorts by distance, so no additional sort is given
+        GeoJsonPoint center = new GeoJsonPoint(longitude, latitude);
+        Distance maxDistance = new Distance(radiusKm, Metrics.KILOMETERS);
+        PageRequest pageRequest = PageRequest.of(page, size);
+
+        GeoResults<ObjectEntity> results;
+
+        // Apply permission rules based on user role
+        switch (userEntity.getRole()) {
+            case ADMIN:
+                // ADMIN users have no access
+                throw new MyForbiddenException("Object not found");
+
+            case OPERATOR:
+                // OPERATOR users have full access to all objects
+                results = this.objectCrud.findAllByTypeAndStatusAndAvailableCountGreaterThanAndLocationNear(
+                        "lockerBlock", "available", 0, center, maxDistance, pageRequest);
+                break;
+
+            case END_USER:
+                // END_USER can only access active objects
+                results = this.objectCrud.findAllByTypeAndStatusAndActiveTrueAndAvailableCountGreaterThanAndLocationNear(
+                        "lockerBlock", "available", 0, center, maxDistance, pageRequest);
+                break;
+
+            default:
+                throw new MyForbiddenException("Unknown user role");
+        }
+
+        return results.getContent()
+                .stream()
+                .map(this::toBoundaryWithDistance)
+                .collect(Collectors.toList());
+    }
+
+    // The same page from the in-memory spatial index: the k = (page + 1) * size nearest blocks are found in memory
+    // and only the blocks of the page are loaded, then checked again since the index may lag behind the database
+    private List<ObjectBoundary> searchAvailableLockerBlocksInIndex(double latitude, double longitude, double radiusKm,
+                                                                    UserRole role, int size, int page) {
+        boolean activeOnly;
+        switch (role) {
+            case ADMIN:
+                // ADMIN users have no access
+                throw new MyForbiddenException("Object not found");
+
+            case OPERATOR:
+                // OPERATOR users have full access to all objects
+                activeOnly = false;
+                break;
+
+            case END_USER:
+                // END_USER can only access active objects
+                activeOnly = true;
+                break;
+
+            default:
+                throw new MyForbiddenException("Unknown user role");
+        }
+
+        PageRequest pageRequest = PageRequest.of(page, size);
+        int first = (int) Math.min(pageRequest.getOffset(), Integer.MAX_VALUE);
+        int k = (int) Math.min((long) first + size, Integer.MAX_VALUE);
+        LockerBlockIndex.Neighbours nearest = this.lockerBlockIndex.nearest(latitude, longitude, radiusKm, k, activeOnly);
+        if (nearest.size() <= first) {
+            return Collections.emptyList();
+        }
+
+        List<String> ids = new ArrayList<>(nearest.size() - first);
+        for (int i = first; i < nearest.size(); i++) {
+            ids.add(nearest.id(i));
+        }
+        Map<String, ObjectEntity> lockerBlocks = this.objectCrud.findAllById(ids)
+                .stream()
+                .collect(Collectors.toMap(ObjectEntity::getId, lockerBlock -> lockerBlock));
+
+        List<ObjectBoundary> result = new ArrayList<>(ids.size());
+        for (int i = first; i < nearest.size(); i++) {
+            ObjectEntity lockerBlock = lockerBlocks.get(nearest.id(i));
+            if (lockerBlock == null
+                    || !"lockerBlock".equals(lockerBlock.getType())
+                    || !"available".equals(lockerBlock.getStatus())
+                    || (activeOnly && !Boolean.TRUE.equals(lockerBlock.getActive()))
+                    || lockerBlock.getAvailableCount() == null || lockerBlock.getAvailableCount() <= 0) {
+                continue;
+            }
+            result.add(toBoundaryWithDistance(lockerBlock, nearest.distanceKm(i)));
+        }
+        return result;
+    }
+
+    // A cursor selects the keyset page after it, otherwise the page/size query is used
+    private List<ObjectBoundary> toBoundaries(String cursor, int size, Criteria filter, Supplier<List<ObjectEntity>> pageQuery) {
+        List<ObjectEntity> entities;
+        if (cursor == null || cursor.isEmpty()) {
+            entities = pageQuery.get();
+        } else {
+            String[] keys = this.cursorConverter.decode(cursor, 2);
+            entities = this.objectCrud.findAllAfter(filter, this.cursorConverter.decodeTimestamp(keys[0]), keys[1], size);
+        }
+
+        return entities
+                .stream()
+                .map(this.converter::toBoundary)
+                .collect(Collectors.toList());
+    }
+
+    // Converts a geo result and exposes the distance computed by the database as objectDetails.distanceKm
+    private ObjectBoundary toBoundaryWithDistance(GeoResult<ObjectEntity> result) {
+        return toBoundaryWithDistance(result.getContent(), result.getDistance().getValue());
+    }
+
+    private ObjectBoundary toBoundaryWithDistance(ObjectEntity entity, double distanceKm) {
+        ObjectBoundary boundary = converter.toBoundary(entity);
+        Map<String, Object> details = boundary.getObjectDetails() == null
+                ? new HashMap<>()
+                : new HashMap<>(boundary.getObjectDetails());
+        details.put("distanceKm", distanceKm);
+        boundary.setObjectDetails(details);
+        return boundary;
+    }
+}
@@ -0,0 +1,12 @@
+package demo.BusinessLogicLayer.Services;
+
+import demo.PresentationLayer.Boundaries.QueryShapeBoundary;
+
+import java.util.List;
+
+public interface QueryProfileService {
+
+    List<QueryShapeBoundary> getQueryShapes(String userSystemID, String userEmail);
+
+    void resetQueryShapes(String userSystemID, String userEmail);
+}
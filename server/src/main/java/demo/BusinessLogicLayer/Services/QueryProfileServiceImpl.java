@@ -0,0 +1,51 @@
+package demo.BusinessLogicLayer.Services;
+
+import demo.BusinessLogicLayer.Converters.QueryShapeConverter;
+import demo.BusinessLogicLayer.Exceptions.MyForbiddenException;
+import demo.DataAccessLayer.Entities.UserEntity;
+import demo.DataAccessLayer.Profiling.MongoQueryProfiler;
+import demo.Enums.UserRole;
+import demo.PresentationLayer.Boundaries.QueryShapeBoundary;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+public class QueryProfileServiceImpl implements QueryProfileService {
+
+    private final MongoQueryProfiler profiler;
+    private final QueryShapeConverter converter;
+    private final UserPrincipalResolver principalResolver;
+
+    public QueryProfileServiceImpl(MongoQueryProfiler profiler, QueryShapeConverter converter,
+                                   UserPrincipalResolver principalResolver) {
+        this.profiler = profiler;
+        this.converter = converter;
+        this.principalResolver = principalResolver;
+    }
+
+    @Override
+    public List<QueryShapeBoundary> getQueryShapes(String userSystemID, String userEmail) {
+        // Verify user exists and has ADMIN role
+        UserEntity userEntity = this.principalResolver.resolve(userSystemID, userEmail);
+        if (userEntity.getRole() != UserRole.ADMIN) {
+            throw new MyForbiddenException("Only ADMIN users can retrieve the query profile");
+        }
+
+        // Most expensive shapes first
+        return this.profiler.snapshot()
+                .stream()
+                .map(this.converter::toBoundary)
+                .toList();
+    }
+
+    @Override
+    public void resetQueryShapes(String userSystemID, String userEmail) {
+        UserEntity userEntity = this.principalResolver.resolve(userSystemID, userEmail);
+        if (userEntity.getRole() != UserRole.ADMIN) {
+            throw new MyForbiddenException("Only ADMIN users can reset the query profile");
+        }
+
+        this.profiler.reset();
+    }
+}
@@ -0,0 +1,24 @@
+package demo.BusinessLogicLayer.Services;
+
+import demo.PresentationLayer.Boundaries.ObjectBoundary;
+import reactor.core.publisher.Flux;
+
+// Non-blocking variant of the read-heavy ObjectService searches, served by the reactive endpoints
+public interface ReactiveObjectService {
+
+    Flux<ObjectBoundary> searchObjectsByExactAlias(String alias, String userSystemID, String userEmail, int size, int page);
+
+    Flux<ObjectBoundary> searchObjectsByAliasPattern(String pattern, String userSystemID, String userEmail, int size, int page);
+
+    Flux<ObjectBoundary> searchObjectsByType(String type, String userSystemID, String userEmail, int size, int page);
+
+    Flux<ObjectBoundary> searchObjectsByStatus(String status, String userSystemID, String userEmail, int size, int page);
+
+    Flux<ObjectBoundary> searchObjectsByTypeAndStatus(String type, String status, String userSystemID, String userEmail, int size, int page);
+
+    // Same result as the getAvailableLockers command: nearby locker blocks with an available locker,
+    // with the list of those lockers when includeLockers is set
+    Flux<ObjectBoundary> getAvailableLockers(double latitude, double longitude, double radius,
+                                             String userSystemID, String userEmail, int size, int page,
+                                             boolean includeLockers);
+}
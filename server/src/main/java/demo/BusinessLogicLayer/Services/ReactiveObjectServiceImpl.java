@@ -0,0 +1,209 @@
+package demo.BusinessLogicLayer.Services;
+
+import demo.BusinessLogicLayer.CommandHandlers.GetAvailableLockersCommandHandler;
+import demo.BusinessLogicLayer.Converters.ObjectConverter;
+import demo.BusinessLogicLayer.Exceptions.MyForbiddenException;
+import demo.BusinessLogicLayer.Exceptions.MyInvalidInputException;
+import demo.DataAccessLayer.CRUDs.ReactiveObjectCrud;
+import demo.DataAccessLayer.CRUDs.ReactiveUserCrud;
+import demo.DataAccessLayer.Entities.ObjectEntity;
+import demo.DataAccessLayer.Entities.UserEntity;
+import demo.PresentationLayer.Boundaries.ObjectBoundary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.GeoResult;
+import org.springframework.data.geo.Metrics;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Reactive searches over the reactive MongoDB driver, with the same validation and role rules as ObjectServiceImpl.
+ * Nothing here blocks: the invoking user comes from the {@link UserCache} or a non-blocking USERS lookup,
+ * and results are emitted as the driver reads them, so a slow client only slows down its own cursor.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveObjectServiceImpl implements ReactiveObjectService {
+
+    private final ReactiveObjectCrud objectCrud;
+    private final ReactiveUserCrud userCrud;
+    private final UserCache userCache;
+    private final ObjectConverter converter;
+
+    public ReactiveObjectServiceImpl(ReactiveObjectCrud objectCrud, ReactiveUserCrud userCrud,
+                                     UserCache userCache, ObjectConverter converter) {
+        this.objectCrud = objectCrud;
+        this.userCrud = userCrud;
+        this.userCache = userCache;
+        this.converter = converter;
+    }
+
+    @Override
+    public Flux<ObjectBoundary> searchObjectsByExactAlias(String alias, String userSystemID, String userEmail, int size, int page) {
+        // Validate input
+        if (alias == null || alias.trim().isEmpty()) {
+            return Flux.error(new MyInvalidInputException("Alias cannot be null or empty"));
+        }
+
+        PageRequest pageRequest = PageRequest.of(page, size, Sort.Direction.ASC, "creationTimestamp", "id");
+        return search(userSystemID, userEmail,
+                () -> this.objectCrud.findAllByAlias(alias, pageRequest),
+                () -> this.objectCrud.findAllByAliasAndActiveTrue(alias, pageRequest));
+    }
+
+    @Override
+    public Flux<ObjectBoundary> searchObjectsByAliasPattern(String pattern, String userSystemID, String userEmail, int size, int page) {
+        // Validate input
+        if (pattern == null || pattern.trim().isEmpty()) {
+            return Flux.error(new MyInvalidInputException("Pattern cannot be null or empty"));
+        }
+
+        PageRequest pageRequest = PageRequest.of(page, size, Sort.Direction.ASC, "creationTimestamp", "id");
+        return search(userSystemID, userEmail,
+                () -> this.objectCrud.findAllByAliasLike("*" + pattern + "*", pageRequest),
+                () -> this.objectCrud.findAllByAliasLikeAndActiveTrue("*" + pattern + "*", pageRequest));
+    }
+
+    @Override
+    public Flux<ObjectBoundary> searchObjectsByType(String type, String userSystemID, String userEmail, int size, int page) {
+        // Validate input
+        if (type == null || type.trim().isEmpty()) {
+            return Flux.error(new MyInvalidInputException("Type cannot be null or empty"));
+        }
+
+        PageRequest pageRequest = PageRequest.of(page, size, Sort.Direction.ASC, "creationTimestamp", "id");
+        return search(userSystemID, userEmail,
+                () -> this.objectCrud.findAllByType(type, pageRequest),
+                () -> this.objectCrud.findAllByTypeAndActiveTrue(type, pageRequest));
+    }
+
+    @Override
+    public Flux<ObjectBoundary> searchObjectsByStatus(String status, String userSystemID, String userEmail, int size, int page) {
+        // Validate input
+        if (status == null) {
+            return Flux.error(new MyInvalidInputException("Status cannot be null"));
+        }
+
+        PageRequest pageRequest = PageRequest.of(page, size, Sort.Direction.ASC, "creationTimestamp", "id");
+        return search(userSystemID, userEmail,
+                () -> this.objectCrud.findAllByStatus(status, pageRequest),
+                () -> this.objectCrud.findAllByStatusAndActiveTrue(status, pageRequest));
+    }
+
+    @Override
+    public Flux<ObjectBoundary> searchObjectsByTypeAndStatus(String type, String status, String userSystemID, String userEmail, int size, int page) {
+        // Validate input
+        if (type == null || type.trim().isEmpty()) {
+            return Flux.error(new MyInvalidInputException("Type cannot be null or empty"));
+        }
+
+        if (status == null) {
+            return Flux.error(new MyInvalidInputException("Status cannot be null"));
+        }
+
+        PageRequest pageRequest = PageRequest.of(page, size, Sort.Direction.ASC, "creationTimestamp", "id");
+        return search(userSystemID, userEmail,
+                () -> this.objectCrud.findAllByTypeAndStatus(type, status, pageRequest),
+                () -> this.objectCrud.findAllByTypeAndStatusAndActiveTrue(type, status, pageRequest));
+    }
+
+    @Override
+    public Flux<ObjectBoundary> getAvailableLockers(double latitude, double longitude, double radius,
+                                                    String userSystemID, String userEmail, int size, int page,
+                                                    boolean includeLockers) {
+        try {
+            GetAvailableLockersCommandHandler.validateLocation(latitude, longitude, radius);
+        } catch (MyInvalidInputException e) {
+            return Flux.error(e);
+        }
+
+        // GeoJSON order is (longitude, latitude); the database sorts by distance, so no additional sort is given
+        GeoJsonPoint center = new GeoJsonPoint(longitude, latitude);
+        Distance maxDistance = new Distance(radius, Metrics.KILOMETERS);
+        PageRequest pageRequest = PageRequest.of(page, size);
+
+        Flux<ObjectBoundary> lockerBlocks = resolve(userSystemID, userEmail)
+                .flatMapMany(userEntity -> switch (userEntity.getRole()) {
+                    // Only END_USER and OPERATOR can access lockers
+                    case ADMIN -> Flux.<GeoResult<ObjectEntity>>error(
+                            new MyForbiddenException("ADMIN users cannot access locker information"));
+                    case OPERATOR -> this.objectCrud.findAllByTypeAndStatusAndAvailableCountGreaterThanAndLocationNear(
+                            "lockerBlock", "available", 0, center, maxDistance, pageRequest);
+                    case END_USER -> this.objectCrud.findAllByTypeAndStatusAndActiveTrueAndAvailableCountGreaterThanAndLocationNear(
+                            "lockerBlock", "available", 0, center, maxDistance, pageRequest);
+                })
+                .map(this::toBoundaryWithDistance);
+        if (!includeLockers) {
+            // The counters (availableCount, availableBySize) come with the blocks, which can be streamed as they arrive
+            return lockerBlocks;
+        }
+
+        return lockerBlocks
+                .collectList()
+                .flatMapMany(blocks -> blocks.isEmpty()
+                        ? Flux.empty()
+                        : withAvailableLockers(blocks));
+    }
+
+    // Fetches the available lockers of all the blocks in the page with a single query
+    private Flux<ObjectBoundary> withAvailableLockers(List<ObjectBoundary> lockerBlocks) {
+        List<String> lockerBlockIds = lockerBlocks.stream()
+                .map(lockerBlock -> lockerBlock.getObjectID().getID())
+                .toList();
+
+        return this.objectCrud
+                .findAllByParentIdInAndTypeAndStatusAndActiveTrue(
+                        lockerBlockIds, "locker", "available", Sort.by(Sort.Direction.ASC, "creationTimestamp", "id"))
+                .collect(Collectors.groupingBy(ObjectEntity::getParentId,
+                        Collectors.mapping(this.converter::toBoundary, Collectors.toList())))
+                .flatMapIterable(lockersByBlock -> GetAvailableLockersCommandHandler.withAvailableLockers(lockerBlocks, lockersByBlock));
+    }
+
+    // Applies the role rules shared by all the searches: ADMIN has no access, END_USER sees active objects only
+    private Flux<ObjectBoundary> search(String userSystemID, String userEmail,
+                                        Supplier<Flux<ObjectEntity>> operatorQuery,
+                                        Supplier<Flux<ObjectEntity>> endUserQuery) {
+        return resolve(userSystemID, userEmail)
+                .flatMapMany(userEntity -> switch (userEntity.getRole()) {
+                    case ADMIN -> Flux.<ObjectEntity>error(new MyForbiddenException("Object not found"));
+                    case OPERATOR -> operatorQuery.get();
+                    case END_USER -> endUserQuery.get();
+                })
+                .map(this.converter::toBoundary);
+    }
+
+    // Cached users are used as is, a miss is read from USERS without blocking and cached
+    private Mono<UserEntity> resolve(String systemId, String userEmail) {
+        String userId = userEmail + "/" + systemId;
+        UserEntity cached = this.userCache.getIfPresent(userId);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+
+        return this.userCrud.findById(userId)
+                .doOnNext(userEntity -> this.userCache.put(userId, userEntity))
+                .switchIfEmpty(Mono.error(() -> new MyForbiddenException(
+                        "User with ID " + userId + " does not exist or credentials are invalid")));
+    }
+
+    // Converts a geo result and exposes the distance computed by the database as objectDetails.distanceKm
+    private ObjectBoundary toBoundaryWithDistance(GeoResult<ObjectEntity> result) {
+        ObjectBoundary boundary = this.converter.toBoundary(result.getContent());
+        Map<String, Object> details = boundary.getObjectDetails() == null
+                ? new HashMap<>()
+                : new HashMap<>(boundary.getObjectDetails());
+        details.put("distanceKm", result.getDistance().getValue());
+        boundary.setObjectDetails(details);
+        return boundary;
+    }
+}
@@ -0,0 +1,10 @@
+package demo.BusinessLogicLayer.Services;
+
+import demo.PresentationLayer.Boundaries.ObjectBoundary;
+
+/**
+ * A locker as stored by an atomic toggle, with the lockVersion written by that same toggle. Versions grow in the
+ * order the toggles were applied, so a receiver can drop an update that arrives after a newer one.
+ */
+public record ToggledLocker(ObjectBoundary locker, long lockVersion) {
+}
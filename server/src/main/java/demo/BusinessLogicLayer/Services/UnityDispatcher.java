@@ -0,0 +1,271 @@
+package demo.BusinessLogicLayer.Services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import demo.DataAccessLayer.CRUDs.UnityDeadLetterCrud;
+import demo.DataAccessLayer.Entities.UnityDeadLetterEntity;
+import jakarta.annotation.PreDestroy;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delivers notifications to the Unity simulator off the request thread.
+ * Notifications wait in a bounded queue and are sent by a small pool of workers over one shared
+ * keep-alive HTTP client. A failed delivery is retried with exponential backoff, and after the last
+ * attempt, or when the queue is full, the notification is kept in UNITY_DEAD_LETTERS.
+ * Notifications whose order matters go through dispatchInOrder with an order key (the lockerId): the same workers
+ * send them, but a notification waits until the earlier ones of its key are delivered or dead-lettered, including
+ * their scheduled retries. Keys never wait for each other, so one unreachable locker does not hold back the others.
+ * With spring.threads.virtual.enabled=true the workers and the HTTP client run on virtual threads, so a slow
+ * simulator parks them instead of holding platform threads; the queue still bounds the pending notifications.
+ */
+@Component
+public class UnityDispatcher {
+
+    private final Log log = LogFactory.getLog(UnityDispatcher.class);
+
+    private final UnityDeadLetterCrud deadLetterCrud;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService retryScheduler;
+    private final ExecutorService httpExecutor;
+    // Per order key, the deliveries waiting behind the one in flight; a key is present while one is in flight
+    private final Map<String, Queue<Delivery>> orderedLanes = new HashMap<>();
+    private int waitingInLanes;
+    private final int queueCapacity;
+
+    private final String simulatorUrl;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration requestTimeout;
+
+    public UnityDispatcher(
+            UnityDeadLetterCrud deadLetterCrud,
+            ObjectMapper objectMapper,
+            @Value("${unity.simulator.url:http://localhost:8085}") String simulatorUrl,
+            @Value("${unity.dispatcher.threads:2}") int threads,
+            @Value("${unity.dispatcher.queue-capacity:1000}") int queueCapacity,
+            @Value("${unity.dispatcher.max-attempts:5}") int maxAttempts,
+            @Value("${unity.dispatcher.initial-backoff:500ms}") Duration initialBackoff,
+            @Value("${unity.dispatcher.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${unity.dispatcher.request-timeout:5s}") Duration requestTimeout,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.deadLetterCrud = deadLetterCrud;
+        this.objectMapper = objectMapper;
+        this.simulatorUrl = simulatorUrl;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.requestTimeout = requestTimeout;
+        this.queueCapacity = queueCapacity;
+
+        // null keeps the client's own cached thread pool
+        this.httpExecutor = virtualThreads
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("unity-http-", 0).factory())
+                : null;
+        HttpClient.Builder httpClientBuilder = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(connectTimeout);
+        if (this.httpExecutor != null) {
+            httpClientBuilder.executor(this.httpExecutor);
+        }
+        this.httpClient = httpClientBuilder.build();
+        this.workers = new ThreadPoolExecutor(
+                threads, threads,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                virtualThreads
+                        ? Thread.ofVirtual().name("unity-dispatcher-", 0).factory()
+                        : daemonThreads("unity-dispatcher"));
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("unity-retry"));
+    }
+
+    // Queues the payload for delivery to the given simulator path and returns immediately
+    public void dispatch(String path, Object payload) {
+        String body = serialize(path, payload);
+        if (body != null) {
+            submit(new Delivery(path, body, 1, null));
+        }
+    }
+
+    // Queues the payload behind the earlier notifications of the same order key and returns immediately
+    public void dispatchInOrder(String orderKey, String path, Object payload) {
+        String body = serialize(path, payload);
+        if (body == null) {
+            return;
+        }
+        Delivery delivery = new Delivery(path, body, 1, orderKey);
+        synchronized (this.orderedLanes) {
+            Queue<Delivery> waiting = this.orderedLanes.get(orderKey);
+            if (waiting == null) {
+                // Nothing in flight for the key: sent right away, later ones of the key wait behind it
+                this.orderedLanes.put(orderKey, new ArrayDeque<>());
+                submit(delivery);
+                return;
+            }
+            if (this.waitingInLanes < this.queueCapacity) {
+                waiting.add(delivery);
+                this.waitingInLanes++;
+                return;
+            }
+        }
+        deadLetter(new Delivery(path, body, 0, orderKey), "ordered dispatcher queue is full");
+    }
+
+    private String serialize(String path, Object payload) {
+        try {
+            return this.objectMapper.writeValueAsString(payload);
+        } catch (Exception e) {
+            log.error("Could not serialize Unity notification for " + path + ": " + e.getMessage(), e);
+            return null;
+        }
+    }
+
+    private void submit(Delivery delivery) {
+        try {
+            this.workers.execute(() -> send(delivery));
+        } catch (RejectedExecutionException e) {
+            deadLetter(delivery, "dispatcher queue is full");
+            finish(delivery);
+        }
+    }
+
+    private void send(Delivery delivery) {
+        String error = attempt(delivery);
+        if (error == null) {
+            finish(delivery);
+            return;
+        }
+
+        if (delivery.attempt() >= this.maxAttempts || this.retryScheduler.isShutdown()) {
+            deadLetter(delivery, error);
+            finish(delivery);
+            return;
+        }
+
+        long delayMillis = backoffMillis(delivery.attempt());
+        log.warn("Unity notification to " + delivery.path() + " failed (" + error + "), attempt "
+                + delivery.attempt() + "/" + this.maxAttempts + ", retrying in " + delayMillis + " ms");
+        // The retry waits on the scheduler, not on a worker; later notifications of its order key keep waiting
+        try {
+            this.retryScheduler.schedule(() -> submit(delivery.nextAttempt()), delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            deadLetter(delivery, error);
+            finish(delivery);
+        }
+    }
+
+    // The delivery is done with (sent or dead-lettered): the next one of its order key may go
+    private void finish(Delivery delivery) {
+        if (delivery.orderKey() == null) {
+            return;
+        }
+        Delivery next;
+        synchronized (this.orderedLanes) {
+            Queue<Delivery> waiting = this.orderedLanes.get(delivery.orderKey());
+            next = waiting == null ? null : waiting.poll();
+            if (next == null) {
+                this.orderedLanes.remove(delivery.orderKey());
+                return;
+            }
+            this.waitingInLanes--;
+        }
+        submit(next);
+    }
+
+    // One HTTP attempt, returns null on a 2xx answer and the error otherwise
+    private String attempt(Delivery delivery) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(this.simulatorUrl + delivery.path()))
+                    .timeout(this.requestTimeout)
+                    .header("Content-Type", "application/json; charset=utf-8")
+                    .header("Accept", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(delivery.body(), StandardCharsets.UTF_8))
+                    .build();
+            HttpResponse<Void> response = this.httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() / 100 == 2) {
+                return null;
+            }
+            return "HTTP " + response.statusCode();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "interrupted";
+        } catch (Exception e) {
+            return e.getClass().getSimpleName() + ": " + e.getMessage();
+        }
+    }
+
+    // initialBackoff * 2^(attempt - 1), with up to 20% jitter so retries of a burst do not arrive together
+    long backoffMillis(int attempt) {
+        long base = this.initialBackoff.toMillis() << Math.min(attempt - 1, 20);
+        return base + ThreadLocalRandom.current().nextLong(base / 5 + 1);
+    }
+
+    private void deadLetter(Delivery delivery, String error) {
+        log.error("Giving up on Unity notification to " + delivery.path() + " after " + delivery.attempt()
+                + " attempt(s): " + error);
+        try {
+            UnityDeadLetterEntity deadLetter = new UnityDeadLetterEntity();
+            deadLetter.setId(UUID.randomUUID().toString());
+            deadLetter.setPath(delivery.path());
+            deadLetter.setPayload(delivery.body());
+            deadLetter.setAttempts(delivery.attempt());
+            deadLetter.setLastError(error);
+            deadLetter.setFailedTimestamp(new Date());
+            this.deadLetterCrud.save(deadLetter);
+        } catch (Exception e) {
+            log.error("Could not store Unity dead letter " + delivery.body() + ": " + e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // Scheduled retries are discarded, queued and in-flight deliveries get a few seconds to finish
+        this.retryScheduler.shutdownNow();
+        this.workers.shutdown();
+        if (!this.workers.awaitTermination(5, TimeUnit.SECONDS)) {
+            this.workers.shutdownNow();
+        }
+        if (this.httpExecutor != null) {
+            this.httpExecutor.shutdownNow();
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // orderKey is null for notifications dispatched without an order
+    private record Delivery(String path, String body, int attempt, String orderKey) {
+        Delivery nextAttempt() {
+            return new Delivery(this.path, this.body, this.attempt + 1, this.orderKey);
+        }
+    }
+}
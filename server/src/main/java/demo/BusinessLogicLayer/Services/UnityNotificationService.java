@@ -1,5 +1,6 @@
 package demo.BusinessLogicLayer.Services;
 
 public interface UnityNotificationService {
-    void sendLockerStatus(String lockerId, boolean isLocked);
-}
\ No newline at end of file
+    // version is the lockVersion stored with this state; an update older than one already queued or sent is dropped
+    void sendLockerStatus(String lockerId, boolean isLocked, long version);
+}
@@ -1,55 +1,153 @@
 package demo.BusinessLogicLayer.Services;
 
-import com.fasterxml.jackson.databind.ObjectMapper; // For JSON conversion
-import demo.BusinessLogicLayer.Services.UnityNotificationService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.util.HashMap;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-// Consider adding logging framework e.g. import org.slf4j.Logger; import org.slf4j.LoggerFactory;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Coalesces locker status updates before they are sent to Unity.
+ * Updates are collected for a short window keeping only the newest state of each locker, and are sent when the
+ * window ends or when flush-size lockers are pending. Each update carries the lockVersion of its toggle: "newest"
+ * is decided by that version rather than by arrival order, an update older than one already queued is dropped,
+ * and the updates of a locker are dispatched in order under its lockerId, so a retried one cannot overtake a later
+ * one while other lockers are not held up by it.
+ * By default every update is posted on its own to /lockerUpdate as before; with unity.coalescing.batch-endpoint=true
+ * a window is sent as one batch to /lockerUpdates, for Unity clients that accept it.
+ * The coalescing ratio (updates received / updates sent) is published as unity.updates.coalescing.ratio.
+ */
 @Service
 public class UnityNotificationServiceImpl implements UnityNotificationService {
 
-    // private static final Logger logger = LoggerFactory.getLogger(UnityNotificationServiceImpl.class);
-    private final String UNITY_SIMULATOR_URL = "http://localhost:8085"; // Adjust if Unity is not on localhost
+    private final UnityDispatcher dispatcher;
+    private final int flushSize;
+    private final boolean batchEndpoint;
+    private final Map<String, LockerState> pending = new ConcurrentHashMap<>();
+    // Highest version accepted per locker, one entry per locker ever toggled
+    private final Map<String, Long> acceptedVersions = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flushScheduler;
+
+    private final Counter updatesReceived;
+    private final Counter updatesSent;
+    private final Counter batchesSent;
+    private final Counter updatesStale;
+
+    public UnityNotificationServiceImpl(
+            UnityDispatcher dispatcher,
+            MeterRegistry meterRegistry,
+            @Value("${unity.coalescing.flush-size:100}") int flushSize,
+            @Value("${unity.coalescing.flush-interval:200ms}") Duration flushInterval,
+            @Value("${unity.coalescing.batch-endpoint:false}") boolean batchEndpoint) {
+        this.dispatcher = dispatcher;
+        this.flushSize = flushSize;
+        this.batchEndpoint = batchEndpoint;
+
+        this.updatesReceived = Counter.builder("unity.updates.received")
+                .description("Locker status updates handed to the Unity notification service")
+                .register(meterRegistry);
+        this.updatesSent = Counter.builder("unity.updates.sent")
+                .description("Locker status updates sent to Unity after coalescing")
+                .register(meterRegistry);
+        this.batchesSent = Counter.builder("unity.batches.sent")
+                .description("Batches of locker status updates sent to Unity")
+                .register(meterRegistry);
+        this.updatesStale = Counter.builder("unity.updates.stale")
+                .description("Locker status updates dropped because a newer version of the locker was already queued")
+                .register(meterRegistry);
+        Gauge.builder("unity.updates.coalescing.ratio", this, UnityNotificationServiceImpl::coalescingRatio)
+                .description("Updates received per update sent to Unity")
+                .register(meterRegistry);
+
+        this.flushScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "unity-coalescer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = flushInterval.toMillis();
+        this.flushScheduler.scheduleWithFixedDelay(this::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
 
     @Override
-    public void sendLockerStatus(String lockerId, boolean isLocked) {
-        try {
-            URL url = new URL(UNITY_SIMULATOR_URL + "/lockerUpdate"); // Define a specific endpoint if desired
-            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("POST");
-            conn.setRequestProperty("Content-Type", "application/json; utf-8");
-            conn.setRequestProperty("Accept", "application/json");
-            conn.setDoOutput(true);
-            conn.setConnectTimeout(5000); // 5 seconds
-            conn.setReadTimeout(5000);    // 5 seconds
-
-            Map<String, Object> payload = new HashMap<>();
-            payload.put("lockerId", lockerId);
-            payload.put("isLocked", isLocked);
-
-            ObjectMapper objectMapper = new ObjectMapper();
-            String jsonInputString = objectMapper.writeValueAsString(payload);
-
-            try(OutputStream os = conn.getOutputStream()) {
-                byte[] input = jsonInputString.getBytes("utf-8");
-                os.write(input, 0, input.length);
-            }
+    public void sendLockerStatus(String lockerId, boolean isLocked, long version) {
+        this.updatesReceived.increment();
+
+        // A toggle can reach this point after a later toggle of the same locker, even after it was flushed
+        long accepted = this.acceptedVersions.merge(lockerId, version, Math::max);
+        if (accepted != version) {
+            this.updatesStale.increment();
+            return;
+        }
+
+        // A newer state of the same locker replaces the pending one, whichever thread gets here first
+        this.pending.merge(lockerId, new LockerState(isLocked, version),
+                (queued, update) -> update.version() > queued.version() ? update : queued);
+
+        if (this.pending.size() >= this.flushSize && !this.flushScheduler.isShutdown()) {
+            this.flushScheduler.execute(this::flush);
+        }
+    }
 
-            int responseCode = conn.getResponseCode();
-            // logger.info("Unity notification sent for lockerId: {}. Response Code: {}", lockerId, responseCode);
-            // Handle response (e.g., check for 2xx success codes) if necessary
+    // Sends the pending updates as one batch
+    synchronized void flush() {
+        if (this.pending.isEmpty()) {
+            return;
+        }
 
-            conn.disconnect();
+        List<Map<String, Object>> updates = new ArrayList<>();
+        for (String lockerId : this.pending.keySet()) {
+            // remove() returns the latest state even if it changed while the batch was built
+            LockerState state = this.pending.remove(lockerId);
+            if (state != null && state.version() < this.acceptedVersions.getOrDefault(lockerId, state.version())) {
+                // Queued by a slower thread after a newer state of the locker was already flushed
+                this.updatesStale.increment();
+            } else if (state != null) {
+                Map<String, Object> update = new LinkedHashMap<>();
+                update.put("lockerId", lockerId);
+                update.put("isLocked", state.isLocked());
+                update.put("version", state.version());
+                updates.add(update);
+            }
+        }
 
-        } catch (Exception e) {
-            // logger.error("Error sending notification to Unity for lockerId: {}: {}", lockerId, e.getMessage(), e);
-            // Consider a retry mechanism or dead-letter queue for critical notifications
-            e.printStackTrace(); // Replace with robust error handling
+        if (updates.isEmpty()) {
+            return;
+        }
+        if (this.batchEndpoint) {
+            // A batch spans lockers, so batches keep their order among themselves
+            this.dispatcher.dispatchInOrder("/lockerUpdates", "/lockerUpdates", Map.of("updates", updates));
+            this.batchesSent.increment();
+        } else {
+            for (Map<String, Object> update : updates) {
+                this.dispatcher.dispatchInOrder((String) update.get("lockerId"), "/lockerUpdate", update);
+            }
         }
+        this.updatesSent.increment(updates.size());
+    }
+
+    double coalescingRatio() {
+        double sent = this.updatesSent.count();
+        return sent == 0 ? 1.0 : this.updatesReceived.count() / sent;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // The dispatcher is shut down after this bean, so the last updates are still queued for delivery
+        this.flushScheduler.shutdownNow();
+        flush();
+    }
+
+    private record LockerState(boolean isLocked, long version) {
     }
-}
\ No newline at end of file
+}
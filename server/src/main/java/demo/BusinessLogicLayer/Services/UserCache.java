@@ -0,0 +1,63 @@
+package demo.BusinessLogicLayer.Services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import demo.DataAccessLayer.Entities.UserEntity;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Process-wide cache of users keyed by their id (email/systemID).
+ * Bounded by size (W-TinyLFU eviction) and by time since the entry was loaded,
+ * so a change made by another server instance is picked up after the TTL at the latest.
+ * Hit/miss counters are published as the "cache.*" metrics with tag cache=users.
+ */
+@Component
+public class UserCache {
+
+    private final Cache<String, UserEntity> cache;
+
+    public UserCache(
+            MeterRegistry meterRegistry,
+            @Value("${users.cache.maximum-size:10000}") long maximumSize,
+            @Value("${users.cache.ttl:5m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, this.cache, "users");
+    }
+
+    // Returns the cached user or loads it; a null result from the loader is not cached
+    public UserEntity get(String userId, Function<String, UserEntity> loader) {
+        return this.cache.get(userId, loader);
+    }
+
+    // Non-loading lookup for callers that must not block, null on a miss
+    public UserEntity getIfPresent(String userId) {
+        return this.cache.getIfPresent(userId);
+    }
+
+    public void put(String userId, UserEntity user) {
+        this.cache.put(userId, user);
+    }
+
+    public void invalidate(String userId) {
+        this.cache.invalidate(userId);
+    }
+
+    public void invalidateAll() {
+        this.cache.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return this.cache.stats();
+    }
+}
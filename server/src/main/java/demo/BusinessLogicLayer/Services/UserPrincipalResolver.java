@@ -0,0 +1,72 @@
+package demo.BusinessLogicLayer.Services;
+
+import demo.BusinessLogicLayer.Exceptions.MyForbiddenException;
+import demo.DataAccessLayer.CRUDs.UserCrud;
+import demo.DataAccessLayer.Entities.UserEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Resolves the user invoking an operation.
+ * Inside an HTTP request the user is resolved at most once and kept as a request attribute,
+ * so the services called while handling the same request share the lookup.
+ * Below that, users are served from the process-wide {@link UserCache} and only read from USERS on a miss.
+ */
+@Component
+public class UserPrincipalResolver {
+
+    private static final String ATTRIBUTE_PREFIX = UserPrincipalResolver.class.getName() + ".";
+
+    private final UserCrud userCrud;
+    private final UserCache userCache;
+
+    public UserPrincipalResolver(UserCrud userCrud, UserCache userCache) {
+        this.userCrud = userCrud;
+        this.userCache = userCache;
+    }
+
+    public UserEntity resolve(String systemId, String userEmail) {
+        String userId = userEmail + "/" + systemId;
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+
+        if (requestAttributes != null
+                && requestAttributes.getAttribute(ATTRIBUTE_PREFIX + userId, RequestAttributes.SCOPE_REQUEST) instanceof UserEntity cached) {
+            return cached;
+        }
+
+        UserEntity userEntity = this.userCache.get(userId, id -> this.userCrud.findById(id).orElse(null));
+        if (userEntity == null) {
+            throw new MyForbiddenException("User with ID " + userEmail + "/" + systemId + " does not exist or credentials are invalid");
+        }
+
+        if (requestAttributes != null) {
+            requestAttributes.setAttribute(ATTRIBUTE_PREFIX + userId, userEntity, RequestAttributes.SCOPE_REQUEST);
+        }
+        return userEntity;
+    }
+
+    // Drops the user from the process-wide cache and from the current request, e.g. after it was updated
+    public void evict(String systemId, String userEmail) {
+        this.userCache.invalidate(userEmail + "/" + systemId);
+
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes != null) {
+            requestAttributes.removeAttribute(ATTRIBUTE_PREFIX + userEmail + "/" + systemId, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    // Drops every cached user, e.g. after all users were deleted
+    public void evictAll() {
+        this.userCache.invalidateAll();
+
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes != null) {
+            for (String name : requestAttributes.getAttributeNames(RequestAttributes.SCOPE_REQUEST)) {
+                if (name.startsWith(ATTRIBUTE_PREFIX)) {
+                    requestAttributes.removeAttribute(name, RequestAttributes.SCOPE_REQUEST);
+                }
+            }
+        }
+    }
+}
@@ -11,7 +11,7 @@ public interface UserService {
 
      UserBoundary createUser(NewUserBoundary user);
 
-     List<UserBoundary> getAllUsers(String systemId, String userEmail, int size, int page);
+     List<UserBoundary> getAllUsers(String systemId, String userEmail, int size, int page, String cursor);
 
      Optional<UserBoundary> login(String systemId, String userEmail);
 
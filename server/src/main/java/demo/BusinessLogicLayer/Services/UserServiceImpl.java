@@ -8,6 +8,7 @@ import demo.Enums.UserRole;
 import demo.PresentationLayer.Boundaries.NewUserBoundary;
 import demo.PresentationLayer.Boundaries.UserBoundary;
 import demo.DataAccessLayer.CRUDs.UserCrud;
+import demo.BusinessLogicLayer.Converters.CursorConverter;
 import demo.BusinessLogicLayer.Converters.UserConverter;
 import demo.DataAccessLayer.Entities.UserEntity;
 import demo.BusinessLogicLayer.Exceptions.MyForbiddenException;
@@ -25,13 +26,19 @@ public class UserServiceImpl implements UserService {
 
     private UserCrud userCrud;
     private UserConverter userConverter;
+    private UserPrincipalResolver principalResolver;
+    private CursorConverter cursorConverter;
     private String appName;
 
     public UserServiceImpl(
             UserCrud userCrud,
-            UserConverter userConverter) {
+            UserConverter userConverter,
+            UserPrincipalResolver principalResolver,
+            CursorConverter cursorConverter) {
         this.userCrud = userCrud;
         this.userConverter = userConverter;
+        this.principalResolver = principalResolver;
+        this.cursorConverter = cursorConverter;
     }
 
     @Value("${spring.application.name:dummy}")
@@ -113,20 +120,24 @@ public class UserServiceImpl implements UserService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<UserBoundary> getAllUsers(String systemId, String email, int size, int page) {
-        String userId = email + "/" + systemId;
-        Optional<UserEntity> optionalUser = this.userCrud.findById(userId);
-
-        if (optionalUser.isEmpty()) {
-            throw new MyForbiddenException("User with ID system: " + systemId + "/" + email + "does not exist or credentials are invalid");
-        }
-
-        UserEntity userEntity = optionalUser.get();
+    public List<UserBoundary> getAllUsers(String systemId, String email, int size, int page, String cursor) {
+        UserEntity userEntity = this.principalResolver.resolve(systemId, email);
         if (userEntity.getRole() != UserRole.ADMIN) {
             throw new MyForbiddenException("Only ADMIN users can retrieve all users");
         }
 
-        return this.userCrud.findAll(PageRequest.of(page, size, Sort.Direction.ASC, "lastName" , "firstName", "userId"))
+        // A cursor continues after the last user of the previous page, otherwise page and size are used
+        List<UserEntity> users;
+        if (cursor == null || cursor.isEmpty()) {
+            users = this.userCrud
+                    .findAll(PageRequest.of(page, size, Sort.Direction.ASC, "lastName" , "firstName", "userId"))
+                    .getContent();
+        } else {
+            String[] keys = this.cursorConverter.decode(cursor, 3);
+            users = this.userCrud.findAllAfter(keys[0], keys[1], keys[2], size);
+        }
+
+        return users
                 .stream()
                 .map(this.userConverter::toBoundary)
                 .toList();
@@ -135,14 +146,10 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional(readOnly = true)
     public Optional<UserBoundary> login(String systemId, String userEmail) {
-        String userId = userEmail + "/" + systemId;
-        Optional<UserEntity> optionalUser = this.userCrud.findById(userId);
-
-        if (optionalUser.isEmpty()) {
-            throw new MyForbiddenException("User with ID " + userEmail + "/" + systemId + " does not exist or credentials are invalid");
-        }
+        // Throws MyForbiddenException when the user does not exist
+        UserEntity userEntity = this.principalResolver.resolve(systemId, userEmail);
 
-        return optionalUser.map(this.userConverter::toBoundary);
+        return Optional.of(this.userConverter.toBoundary(userEntity));
     }
 
     @Override
@@ -183,20 +190,20 @@ public class UserServiceImpl implements UserService {
 
         // Save updated entity
         this.userCrud.save(existing);
+        this.principalResolver.evict(systemId, userEmail);
     }
 
     @Override
     @Transactional
     public void deleteAllUsers(String systemId, String userEmail) {
         // Authenticate and check role
-        UserBoundary userBoundary = this.login(systemId, userEmail)
-                .orElseThrow(() -> new MyNotFoundException("User not found"));
-        UserEntity userEntity = userConverter.toEntity(userBoundary);
+        UserEntity userEntity = this.principalResolver.resolve(systemId, userEmail);
         if (userEntity.getRole() != UserRole.ADMIN) {
             throw new MyForbiddenException("Only ADMIN users can delete all users");
         }
 
         this.userCrud.deleteAll();
+        this.principalResolver.evictAll();
     }
 
 
@@ -3,6 +3,6 @@ package demo.DataAccessLayer.CRUDs;
 import demo.DataAccessLayer.Entities.CommandEntity;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
-public interface CommandCrud extends MongoRepository<CommandEntity, String> {
+public interface CommandCrud extends MongoRepository<CommandEntity, String>, CommandCrudCustom {
 
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package demo.DataAccessLayer.CRUDs;
+
+import demo.DataAccessLayer.Entities.CommandEntity;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface CommandCrudCustom {
+
+    // Unordered insertMany: every document is attempted even if others fail. A duplicate id counts as already
+    // stored; returns the commands that could not be written for any other reason
+    public List<CommandEntity> insertUnordered(List<CommandEntity> commands);
+
+    // Keyset page: the commands that sort after (invocationTimestamp, commandID)
+    public List<CommandEntity> findAllAfter(Date invocationTimestamp, String commandID, int size);
+
+    // Cursor-backed stream of the commands invoked in [from, to), either bound may be null; the caller must close it
+    public Stream<CommandEntity> streamAllBetween(Date from, Date to, int batchSize);
+
+    // Deletes the commands of the given type (ignoring case) invoked before the cutoff
+    public long deleteInvokedBefore(Date before, String commandType);
+
+    // Deletes the commands invoked before the cutoff whose type is none of the given types (ignoring case)
+    public long deleteInvokedBeforeExcept(Date before, Collection<String> excludedTypes);
+}
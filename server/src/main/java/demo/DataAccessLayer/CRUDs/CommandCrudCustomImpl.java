@@ -0,0 +1,97 @@
+package demo.DataAccessLayer.CRUDs;
+
+import com.mongodb.bulk.BulkWriteError;
+import demo.DataAccessLayer.Entities.CommandEntity;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+public class CommandCrudCustomImpl implements CommandCrudCustom {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+
+    public CommandCrudCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<CommandEntity> insertUnordered(List<CommandEntity> commands) {
+        try {
+            this.mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CommandEntity.class)
+                    .insert(commands)
+                    .execute();
+            return List.of();
+        } catch (BulkOperationException e) {
+            // Each error carries the index of its document in the batch
+            List<CommandEntity> failed = new ArrayList<>();
+            for (BulkWriteError error : e.getErrors()) {
+                if (error.getCode() != DUPLICATE_KEY) {
+                    failed.add(commands.get(error.getIndex()));
+                }
+            }
+            return failed;
+        }
+    }
+
+    @Override
+    public List<CommandEntity> findAllAfter(Date invocationTimestamp, String commandID, int size) {
+        // invocationTimestamp > t OR (invocationTimestamp == t AND _id > id), served by invocation_idx
+        Criteria after = new Criteria().orOperator(
+                Criteria.where("invocationTimestamp").gt(invocationTimestamp),
+                Criteria.where("invocationTimestamp").is(invocationTimestamp).and("_id").gt(commandID));
+
+        Query query = new Query(after)
+                .with(Sort.by(Sort.Direction.ASC, "invocationTimestamp", "_id"))
+                .limit(size);
+        return this.mongoTemplate.find(query, CommandEntity.class);
+    }
+
+    @Override
+    public Stream<CommandEntity> streamAllBetween(Date from, Date to, int batchSize) {
+        Criteria range = Criteria.where("invocationTimestamp");
+        if (from != null) {
+            range = range.gte(from);
+        }
+        if (to != null) {
+            range = range.lt(to);
+        }
+
+        Query query = (from == null && to == null ? new Query() : new Query(range))
+                .with(Sort.by(Sort.Direction.ASC, "invocationTimestamp", "_id"))
+                .cursorBatchSize(batchSize);
+        return this.mongoTemplate.stream(query, CommandEntity.class);
+    }
+
+    @Override
+    public long deleteInvokedBefore(Date before, String commandType) {
+        Query query = new Query(Criteria.where("invocationTimestamp").lt(before)
+                .and("command").regex(commandTypePattern(commandType)));
+        return this.mongoTemplate.remove(query, CommandEntity.class).getDeletedCount();
+    }
+
+    @Override
+    public long deleteInvokedBeforeExcept(Date before, Collection<String> excludedTypes) {
+        Criteria criteria = Criteria.where("invocationTimestamp").lt(before);
+        if (!excludedTypes.isEmpty()) {
+            criteria = criteria.and("command").nin(excludedTypes.stream().map(this::commandTypePattern).toList());
+        }
+        return this.mongoTemplate.remove(new Query(criteria), CommandEntity.class).getDeletedCount();
+    }
+
+    // Command types are matched the way CommandServiceImpl dispatches them, case-insensitively
+    private Pattern commandTypePattern(String commandType) {
+        return Pattern.compile("^" + Pattern.quote(commandType) + "$", Pattern.CASE_INSENSITIVE);
+    }
+}
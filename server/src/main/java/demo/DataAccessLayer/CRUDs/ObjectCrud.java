@@ -2,20 +2,32 @@ package demo.DataAccessLayer.CRUDs;
 
 import demo.DataAccessLayer.Entities.ObjectEntity;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.GeoResults;
+import org.springframework.data.geo.Point;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.repository.query.Param;
 
 
-public interface ObjectCrud extends MongoRepository<ObjectEntity, String> {
+public interface ObjectCrud extends MongoRepository<ObjectEntity, String>, ObjectCrudCustom {
 
-    public List<ObjectEntity> findAllByParent_id(
+    public List<ObjectEntity> findAllByParentId(
             @Param("parentId") String parentId,
             Pageable pageable);
 
+    // Children of several parents in one query (parentId $in [...])
+    public List<ObjectEntity> findAllByParentIdInAndTypeAndStatusAndActiveTrue(
+            @Param("parentIds") Collection<String> parentIds,
+            @Param("type") String type,
+            @Param("status") String status,
+            Sort sort);
+
     public List<ObjectEntity> findAllByAlias(
             @Param("alias") String alias,
             Pageable pageable);
@@ -37,6 +49,67 @@ public interface ObjectCrud extends MongoRepository<ObjectEntity, String> {
             @Param("status") String status,
             Pageable pageable);
 
+    // createdBy is the "email/systemID" string stored by ObjectServiceImpl.createObject
+    public List<ObjectEntity> findAllByTypeAndStatusAndCreatedBy(
+            @Param("type") String type,
+            @Param("status") String status,
+            @Param("createdBy") String createdBy,
+            Pageable pageable);
+
+    // END_USER variants: the active filter is part of the query, so pages are full and use the active_* indexes
+    public List<ObjectEntity> findAllByActiveTrue(
+            Pageable pageable);
+
+    public List<ObjectEntity> findAllByParentIdAndActiveTrue(
+            @Param("parentId") String parentId,
+            Pageable pageable);
+
+    public List<ObjectEntity> findAllByAliasAndActiveTrue(
+            @Param("alias") String alias,
+            Pageable pageable);
+
+    public List<ObjectEntity> findAllByAliasLikeAndActiveTrue(
+            @Param("pattern") String pattern,
+            Pageable pageable);
+
+    public List<ObjectEntity> findAllByTypeAndActiveTrue(
+            @Param("type") String type,
+            Pageable pageable);
+
+    public List<ObjectEntity> findAllByStatusAndActiveTrue(
+            @Param("status") String status,
+            Pageable pageable);
+
+    public List<ObjectEntity> findAllByTypeAndStatusAndActiveTrue(
+            @Param("type") String type,
+            @Param("status") String status,
+            Pageable pageable);
+
+    public List<ObjectEntity> findAllByTypeAndStatusAndCreatedByAndActiveTrue(
+            @Param("type") String type,
+            @Param("status") String status,
+            @Param("createdBy") String createdBy,
+            Pageable pageable);
+
+    // $geoNear on the 2dsphere location index - results come back sorted by distance and paginated by the server.
+    // Only lockerBlocks whose availability counter is above the given value match, so blocks without an available
+    // locker are skipped by the database instead of after loading their lockers
+    public GeoResults<ObjectEntity> findAllByTypeAndStatusAndAvailableCountGreaterThanAndLocationNear(
+            @Param("type") String type,
+            @Param("status") String status,
+            @Param("availableCount") int availableCount,
+            @Param("location") Point location,
+            @Param("maxDistance") Distance maxDistance,
+            Pageable pageable);
+
+    public GeoResults<ObjectEntity> findAllByTypeAndStatusAndActiveTrueAndAvailableCountGreaterThanAndLocationNear(
+            @Param("type") String type,
+            @Param("status") String status,
+            @Param("availableCount") int availableCount,
+            @Param("location") Point location,
+            @Param("maxDistance") Distance maxDistance,
+            Pageable pageable);
+
 }
 
 
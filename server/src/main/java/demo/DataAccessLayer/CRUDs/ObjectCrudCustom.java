@@ -0,0 +1,46 @@
+package demo.DataAccessLayer.CRUDs;
+
+import demo.DataAccessLayer.Entities.ObjectEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+public interface ObjectCrudCustom {
+
+    // Keyset page: the objects matching the filter that sort after (creationTimestamp, id)
+    public List<ObjectEntity> findAllAfter(Criteria filter, Date creationTimestamp, String id, int size);
+
+    // Atomically flips objectDetails.isLocked of an active locker, increments its lockVersion and returns the
+    // updated locker, or null when no active locker with a boolean isLocked has this id
+    public ObjectEntity toggleLocked(String id);
+
+    // Applies a partial update to one object and returns how many objects matched (0 or 1)
+    public long updateById(String id, Update update);
+
+    // Applies a partial update to one object and returns it as stored afterwards, or null when it does not exist
+    public ObjectEntity findAndUpdateById(String id, Update update);
+
+    // Applies a partial update to one object and returns it as stored before, or null when it does not exist
+    public ObjectEntity findAndUpdateByIdReturningPrevious(String id, Update update);
+
+    // The stored objectDetails of one object, or null when it has none or does not exist
+    public Map<String, Object> findObjectDetailsById(String id);
+
+    // $inc of availableCount and availableBySize.<size> of one lockerBlock
+    public void incrementAvailability(String lockerBlockId, String size, int delta);
+
+    // Atomically replaces the availability counters of a lockerBlock if they still hold the expected values,
+    // returns false when they changed in between
+    public boolean replaceAvailability(String lockerBlockId,
+                                       Integer expectedCount, Map<String, Integer> expectedBySize,
+                                       int count, Map<String, Integer> bySize);
+
+    // The id, type, status, active flag, location and availability counters of every object of the given type
+    public List<ObjectEntity> findAvailabilityByType(String type);
+
+    // Number of children matching the filter per parent id and per value of the given objectDetails field
+    public Map<String, Map<Object, Long>> countChildrenByParentAndDetail(Criteria childFilter, String detail);
+}
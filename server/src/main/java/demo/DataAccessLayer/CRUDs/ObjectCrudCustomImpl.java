@@ -0,0 +1,136 @@
+package demo.DataAccessLayer.CRUDs;
+
+import demo.DataAccessLayer.Entities.ObjectEntity;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.BooleanOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.Fields;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ObjectCrudCustomImpl implements ObjectCrudCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public ObjectCrudCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<ObjectEntity> findAllAfter(Criteria filter, Date creationTimestamp, String id, int size) {
+        // creationTimestamp > t OR (creationTimestamp == t AND _id > id), served by the (..., creationTimestamp, _id) indexes
+        Criteria after = new Criteria().orOperator(
+                Criteria.where("creationTimestamp").gt(creationTimestamp),
+                Criteria.where("creationTimestamp").is(creationTimestamp).and("_id").gt(id));
+
+        Query query = new Query(new Criteria().andOperator(filter, after))
+                .with(Sort.by(Sort.Direction.ASC, "creationTimestamp", "_id"))
+                .limit(size);
+        return this.mongoTemplate.find(query, ObjectEntity.class);
+    }
+
+    @Override
+    public ObjectEntity toggleLocked(String id) {
+        Query lockerQuery = new Query(Criteria.where("_id").is(id)
+                .and("type").is("locker")
+                .and("active").is(true)
+                .and("objectDetails.isLocked").in(true, false));
+
+        // Pipeline update: the new value is computed from the stored one, so the flip is a single atomic write.
+        // lockVersion is bumped in the same write, so versions follow the order the toggles were applied in
+        AggregationUpdate flip = AggregationUpdate.update()
+                .set("objectDetails.isLocked").toValue(BooleanOperators.Not.not("objectDetails.isLocked"))
+                .set("lockVersion").toValue(ArithmeticOperators.Add.valueOf(
+                        ConditionalOperators.ifNull("lockVersion").then(0L)).add(1L));
+
+        return this.mongoTemplate.findAndModify(
+                lockerQuery, flip, FindAndModifyOptions.options().returnNew(true), ObjectEntity.class);
+    }
+
+    @Override
+    public long updateById(String id, Update update) {
+        return this.mongoTemplate
+                .updateFirst(new Query(Criteria.where("_id").is(id)), update, ObjectEntity.class)
+                .getMatchedCount();
+    }
+
+    @Override
+    public ObjectEntity findAndUpdateById(String id, Update update) {
+        return this.mongoTemplate.findAndModify(
+                new Query(Criteria.where("_id").is(id)), update, FindAndModifyOptions.options().returnNew(true), ObjectEntity.class);
+    }
+
+    @Override
+    public ObjectEntity findAndUpdateByIdReturningPrevious(String id, Update update) {
+        return this.mongoTemplate.findAndModify(
+                new Query(Criteria.where("_id").is(id)), update, FindAndModifyOptions.options().returnNew(false), ObjectEntity.class);
+    }
+
+    @Override
+    public void incrementAvailability(String lockerBlockId, String size, int delta) {
+        Update update = new Update()
+                .inc("availableCount", delta)
+                .inc("availableBySize." + size, delta);
+        this.mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(lockerBlockId).and("type").is("lockerBlock")), update, ObjectEntity.class);
+    }
+
+    @Override
+    public boolean replaceAvailability(String lockerBlockId,
+                                       Integer expectedCount, Map<String, Integer> expectedBySize,
+                                       int count, Map<String, Integer> bySize) {
+        // Embedded documents compare field by field in stored order, which the expected map was read in
+        Query unchanged = new Query(Criteria.where("_id").is(lockerBlockId)
+                .and("availableCount").is(expectedCount)
+                .and("availableBySize").is(expectedBySize));
+        Update update = new Update()
+                .set("availableCount", count)
+                .set("availableBySize", bySize);
+        return this.mongoTemplate.updateFirst(unchanged, update, ObjectEntity.class).getMatchedCount() == 1;
+    }
+
+    @Override
+    public Map<String, Object> findObjectDetailsById(String id) {
+        Query query = new Query(Criteria.where("_id").is(id));
+        query.fields().include("objectDetails");
+        ObjectEntity object = this.mongoTemplate.findOne(query, ObjectEntity.class);
+        return object == null ? null : object.getObjectDetails();
+    }
+
+    @Override
+    public List<ObjectEntity> findAvailabilityByType(String type) {
+        Query query = new Query(Criteria.where("type").is(type));
+        query.fields().include("type", "status", "active", "location", "availableCount", "availableBySize");
+        return this.mongoTemplate.find(query, ObjectEntity.class);
+    }
+
+    @Override
+    public Map<String, Map<Object, Long>> countChildrenByParentAndDetail(Criteria childFilter, String detail) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(new Criteria().andOperator(childFilter, Criteria.where("parentId").ne(null))),
+                Aggregation.group(Fields.from(
+                        Fields.field("parentId"),
+                        Fields.field(detail, "objectDetails." + detail))).count().as("count"));
+
+        // Grouping by two fields gives _id: {parentId, <detail>}
+        Map<String, Map<Object, Long>> counts = new HashMap<>();
+        for (Document group : this.mongoTemplate.aggregate(aggregation, ObjectEntity.class, Document.class)) {
+            Document id = group.get("_id", Document.class);
+            counts.computeIfAbsent(id.getString("parentId"), parentId -> new HashMap<>())
+                    .put(id.get(detail), ((Number) group.get("count")).longValue());
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,88 @@
+package demo.DataAccessLayer.CRUDs;
+
+import demo.DataAccessLayer.Entities.ObjectEntity;
+
+import java.util.Collection;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.GeoResult;
+import org.springframework.data.geo.Point;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Flux;
+
+// Non-blocking counterpart of the ObjectCrud finders used by the reactive endpoints ("reactive" profile)
+public interface ReactiveObjectCrud extends ReactiveMongoRepository<ObjectEntity, String> {
+
+    // Children of several parents in one query (parentId $in [...])
+    public Flux<ObjectEntity> findAllByParentIdInAndTypeAndStatusAndActiveTrue(
+            @Param("parentIds") Collection<String> parentIds,
+            @Param("type") String type,
+            @Param("status") String status,
+            Sort sort);
+
+    public Flux<ObjectEntity> findAllByAlias(
+            @Param("alias") String alias,
+            Pageable pageable);
+
+    public Flux<ObjectEntity> findAllByAliasLike(
+            @Param("pattern") String pattern,
+            Pageable pageable);
+
+    public Flux<ObjectEntity> findAllByType(
+            @Param("type") String type,
+            Pageable pageable);
+
+    public Flux<ObjectEntity> findAllByStatus(
+            @Param("status") String status,
+            Pageable pageable);
+
+    public Flux<ObjectEntity> findAllByTypeAndStatus(
+            @Param("type") String type,
+            @Param("status") String status,
+            Pageable pageable);
+
+    // END_USER variants: the active filter is part of the query, so pages are full and use the active_* indexes
+    public Flux<ObjectEntity> findAllByAliasAndActiveTrue(
+            @Param("alias") String alias,
+            Pageable pageable);
+
+    public Flux<ObjectEntity> findAllByAliasLikeAndActiveTrue(
+            @Param("pattern") String pattern,
+            Pageable pageable);
+
+    public Flux<ObjectEntity> findAllByTypeAndActiveTrue(
+            @Param("type") String type,
+            Pageable pageable);
+
+    public Flux<ObjectEntity> findAllByStatusAndActiveTrue(
+            @Param("status") String status,
+            Pageable pageable);
+
+    public Flux<ObjectEntity> findAllByTypeAndStatusAndActiveTrue(
+            @Param("type") String type,
+            @Param("status") String status,
+            Pageable pageable);
+
+    // $geoNear on the 2dsphere location index - results come back sorted by distance and paginated by the server,
+    // lockerBlocks without an available locker are skipped through their availability counter
+    public Flux<GeoResult<ObjectEntity>> findAllByTypeAndStatusAndAvailableCountGreaterThanAndLocationNear(
+            @Param("type") String type,
+            @Param("status") String status,
+            @Param("availableCount") int availableCount,
+            @Param("location") Point location,
+            @Param("maxDistance") Distance maxDistance,
+            Pageable pageable);
+
+    public Flux<GeoResult<ObjectEntity>> findAllByTypeAndStatusAndActiveTrueAndAvailableCountGreaterThanAndLocationNear(
+            @Param("type") String type,
+            @Param("status") String status,
+            @Param("availableCount") int availableCount,
+            @Param("location") Point location,
+            @Param("maxDistance") Distance maxDistance,
+            Pageable pageable);
+
+}
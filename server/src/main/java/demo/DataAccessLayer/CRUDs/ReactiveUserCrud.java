@@ -0,0 +1,9 @@
+package demo.DataAccessLayer.CRUDs;
+
+import demo.DataAccessLayer.Entities.UserEntity;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+// Non-blocking USERS lookups for the reactive endpoints ("reactive" profile)
+public interface ReactiveUserCrud extends ReactiveMongoRepository<UserEntity, String> {
+
+}
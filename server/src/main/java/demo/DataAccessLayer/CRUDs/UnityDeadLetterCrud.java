@@ -0,0 +1,8 @@
+package demo.DataAccessLayer.CRUDs;
+
+import demo.DataAccessLayer.Entities.UnityDeadLetterEntity;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface UnityDeadLetterCrud extends MongoRepository<UnityDeadLetterEntity, String> {
+
+}
@@ -3,6 +3,6 @@ package demo.DataAccessLayer.CRUDs;
 import demo.DataAccessLayer.Entities.UserEntity;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
-public interface UserCrud extends MongoRepository<UserEntity, String> {
+public interface UserCrud extends MongoRepository<UserEntity, String>, UserCrudCustom {
 
 }
\ No newline at end of file
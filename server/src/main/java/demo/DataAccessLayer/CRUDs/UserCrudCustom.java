@@ -0,0 +1,11 @@
+package demo.DataAccessLayer.CRUDs;
+
+import demo.DataAccessLayer.Entities.UserEntity;
+
+import java.util.List;
+
+public interface UserCrudCustom {
+
+    // Keyset page: the users that sort after (lastName, firstName, userId)
+    public List<UserEntity> findAllAfter(String lastName, String firstName, String userId, int size);
+}
@@ -0,0 +1,32 @@
+package demo.DataAccessLayer.CRUDs;
+
+import demo.DataAccessLayer.Entities.UserEntity;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+
+public class UserCrudCustomImpl implements UserCrudCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public UserCrudCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<UserEntity> findAllAfter(String lastName, String firstName, String userId, int size) {
+        // Lexicographic "after" on (lastName, firstName, _id), served by name_idx
+        Criteria after = new Criteria().orOperator(
+                Criteria.where("lastName").gt(lastName),
+                Criteria.where("lastName").is(lastName).and("firstName").gt(firstName),
+                Criteria.where("lastName").is(lastName).and("firstName").is(firstName).and("_id").gt(userId));
+
+        Query query = new Query(after)
+                .with(Sort.by(Sort.Direction.ASC, "lastName", "firstName", "_id"))
+                .limit(size);
+        return this.mongoTemplate.find(query, UserEntity.class);
+    }
+}
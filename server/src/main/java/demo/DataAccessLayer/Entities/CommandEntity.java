@@ -2,6 +2,7 @@
 package demo.DataAccessLayer.Entities;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 
@@ -9,6 +10,7 @@ import java.util.Date;
 import java.util.Map;
 
 @Document(collection = "COMMAND")
+@CompoundIndex(name = "invocation_idx", def = "{'invocationTimestamp': 1, '_id': 1}")
 public class CommandEntity {
     @Id
     private String commandID;
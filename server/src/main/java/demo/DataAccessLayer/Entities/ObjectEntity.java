@@ -1,13 +1,36 @@
 package demo.DataAccessLayer.Entities;
 
     import org.springframework.data.annotation.Id;
-    import org.springframework.data.mongodb.core.mapping.DBRef;
+    import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+    import org.springframework.data.mongodb.core.index.CompoundIndex;
+    import org.springframework.data.mongodb.core.index.CompoundIndexes;
+    import org.springframework.data.mongodb.core.index.GeoSpatialIndexType;
+    import org.springframework.data.mongodb.core.index.GeoSpatialIndexed;
     import org.springframework.data.mongodb.core.mapping.Document;
 
     import java.util.Date;
     import java.util.Map;
 
+    // Every finder sorts on (creationTimestamp, _id); each index has the finder's equality fields first,
+    // followed by the sort fields, and the END_USER variants are prefixed with active
     @Document(collection = "OBJECTS")
+    @CompoundIndexes({
+            @CompoundIndex(name = "creation_idx", def = "{'creationTimestamp': 1, '_id': 1}"),
+            @CompoundIndex(name = "active_creation_idx", def = "{'active': 1, 'creationTimestamp': 1, '_id': 1}"),
+            @CompoundIndex(name = "type_creation_idx", def = "{'type': 1, 'creationTimestamp': 1, '_id': 1}"),
+            @CompoundIndex(name = "active_type_creation_idx", def = "{'active': 1, 'type': 1, 'creationTimestamp': 1, '_id': 1}"),
+            @CompoundIndex(name = "status_creation_idx", def = "{'status': 1, 'creationTimestamp': 1, '_id': 1}"),
+            @CompoundIndex(name = "active_status_creation_idx", def = "{'active': 1, 'status': 1, 'creationTimestamp': 1, '_id': 1}"),
+            @CompoundIndex(name = "type_status_creation_idx", def = "{'type': 1, 'status': 1, 'creationTimestamp': 1, '_id': 1}"),
+            @CompoundIndex(name = "active_type_status_creation_idx", def = "{'active': 1, 'type': 1, 'status': 1, 'creationTimestamp': 1, '_id': 1}"),
+            @CompoundIndex(name = "type_status_created_by_creation_idx", def = "{'type': 1, 'status': 1, 'createdBy': 1, 'creationTimestamp': 1, '_id': 1}"),
+            @CompoundIndex(name = "active_type_status_created_by_creation_idx", def = "{'active': 1, 'type': 1, 'status': 1, 'createdBy': 1, 'creationTimestamp': 1, '_id': 1}"),
+            @CompoundIndex(name = "alias_creation_idx", def = "{'alias': 1, 'creationTimestamp': 1, '_id': 1}"),
+            @CompoundIndex(name = "active_alias_creation_idx", def = "{'active': 1, 'alias': 1, 'creationTimestamp': 1, '_id': 1}"),
+            @CompoundIndex(name = "parent_creation_idx", def = "{'parentId': 1, 'creationTimestamp': 1, '_id': 1}"),
+            @CompoundIndex(name = "active_parent_creation_idx", def = "{'active': 1, 'parentId': 1, 'creationTimestamp': 1, '_id': 1}"),
+            @CompoundIndex(name = "parent_type_status_active_idx", def = "{'parentId': 1, 'type': 1, 'status': 1, 'active': 1, 'creationTimestamp': 1, '_id': 1}")
+    })
     public class ObjectEntity {
         @Id
         private String id;
@@ -17,11 +40,25 @@ package demo.DataAccessLayer.Entities;
         private String status;
         private Boolean active;
         private Date creationTimestamp;
+        // "email/systemID" of the creator, indexed through the *_created_by_* compound indexes
         private String createdBy;
         private Map<String, Object> objectDetails; // Using the same converter as MessageEntity
 
-        @DBRef
-        private ObjectEntity parent;
+        // GeoJSON copy of objectDetails.latitude/longitude, used by $geoNear queries
+        @GeoSpatialIndexed(type = GeoSpatialIndexType.GEO_2DSPHERE)
+        private GeoJsonPoint location;
+
+        // Plain id of the parent object (replaces the former @DBRef parent, so reading a child never loads its parent)
+        // Indexed through the parent_* compound indexes
+        private String parentId;
+
+        // Lockerblocks only: how many of their child lockers are available, in total and per locker size.
+        // Maintained with $inc by ObjectServiceImpl and repaired by LockerAvailabilityReconciler
+        private Integer availableCount;
+        private Map<String, Integer> availableBySize;
+
+        // Lockers only: incremented with every toggle of objectDetails.isLocked, so Unity can order the updates
+        private Long lockVersion;
 
         public ObjectEntity() {
         }
@@ -99,12 +136,44 @@ package demo.DataAccessLayer.Entities;
             this.objectDetails = objectDetails;
         }
 
-        public ObjectEntity getParent() {
-            return parent;
+        public GeoJsonPoint getLocation() {
+            return location;
+        }
+
+        public void setLocation(GeoJsonPoint location) {
+            this.location = location;
+        }
+
+        public String getParentId() {
+            return parentId;
+        }
+
+        public void setParentId(String parentId) {
+            this.parentId = parentId;
+        }
+
+        public Integer getAvailableCount() {
+            return availableCount;
+        }
+
+        public void setAvailableCount(Integer availableCount) {
+            this.availableCount = availableCount;
+        }
+
+        public Map<String, Integer> getAvailableBySize() {
+            return availableBySize;
+        }
+
+        public void setAvailableBySize(Map<String, Integer> availableBySize) {
+            this.availableBySize = availableBySize;
+        }
+
+        public Long getLockVersion() {
+            return lockVersion;
         }
 
-        public void setParent(ObjectEntity parent) {
-            this.parent = parent;
+        public void setLockVersion(Long lockVersion) {
+            this.lockVersion = lockVersion;
         }
 
         @Override
@@ -118,6 +187,8 @@ package demo.DataAccessLayer.Entities;
                     ", creationTimestamp=" + creationTimestamp +
                     ", createdBy=" + createdBy +
                     ", objectDetails=" + objectDetails +
+                    ", parentId=" + parentId +
+                    ", availableCount=" + availableCount +
                     '}';
         }
     }
\ No newline at end of file
@@ -0,0 +1,80 @@
+package demo.DataAccessLayer.Entities;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+@Document(collection = "UNITY_DEAD_LETTERS")
+public class UnityDeadLetterEntity {
+    @Id
+    private String id;
+    private String path; // The simulator endpoint the notification was sent to
+    private String payload; // The JSON body of the notification
+    private int attempts; // How many times it was sent before giving up
+    private String lastError;
+    private Date failedTimestamp;
+
+    public UnityDeadLetterEntity() {
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public Date getFailedTimestamp() {
+        return failedTimestamp;
+    }
+
+    public void setFailedTimestamp(Date failedTimestamp) {
+        this.failedTimestamp = failedTimestamp;
+    }
+
+    @Override
+    public String toString() {
+        return "UnityDeadLetterEntity{" +
+                "id='" + id + '\'' +
+                ", path='" + path + '\'' +
+                ", payload='" + payload + '\'' +
+                ", attempts=" + attempts +
+                ", lastError='" + lastError + '\'' +
+                ", failedTimestamp=" + failedTimestamp +
+                '}';
+    }
+}
@@ -2,10 +2,12 @@ package demo.DataAccessLayer.Entities;
 
 import demo.Enums.UserRole;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 
 @Document(collection = "USERS")
+@CompoundIndex(name = "name_idx", def = "{'lastName': 1, 'firstName': 1, '_id': 1}")
 public class UserEntity {
     @Id
     private String userId;
@@ -0,0 +1,375 @@
+package demo.DataAccessLayer.Profiling;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import jakarta.annotation.PreDestroy;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Driver-level profile of the queries sent to MongoDB, registered as a CommandListener on the Mongo client.
+ * Each data command is reduced to a query shape (collection, command, filter/sort/pipeline with every value
+ * replaced by "?"), and per shape the profiler keeps the latency histogram, documents and reply bytes returned,
+ * and which service method issued it. Reply bytes are read from the driver's raw reply; a reply the driver
+ * already decoded is re-encoded only for reply-size-sample-rate of the commands and counted scaled up. The issuing
+ * method is looked up on the stack for every execution of a shape until it has one, then for origin-sample-rate of
+ * them, so the origins count a sample of the executions. getMore batches are counted under the shape that opened the cursor; an
+ * open cursor is forgotten when exhausted, killed or failed, and otherwise once idle for cursor-idle-timeout
+ * (a cursor abandoned without killCursors, or timed out on the server), with at most max-open-cursors tracked.
+ * A shape is explained (queryPlanner verbosity, off the calling thread) when first seen and then for
+ * explain-sample-rate of its executions, and COLLSCAN plans are flagged.
+ */
+@Component
+public class MongoQueryProfiler implements CommandListener, MongoClientSettingsBuilderCustomizer {
+
+    private static final Set<String> PROFILED_COMMANDS = Set.of(
+            "find", "aggregate", "count", "distinct", "findAndModify", "update", "delete", "insert", "getMore");
+    private static final Set<String> EXPLAINABLE_COMMANDS = Set.of(
+            "find", "aggregate", "count", "distinct", "findAndModify", "update", "delete");
+    // Session and transport fields that cannot be repeated inside an explain
+    private static final Set<String> NON_EXPLAINABLE_FIELDS = Set.of("lsid", "txnNumber", "autocommit", "startTransaction");
+    private static final BsonString PLACEHOLDER = new BsonString("?");
+
+    // cursorId is the cursor continued by a getMore, null for other commands
+    private record PendingCommand(QueryShapeStats stats, String origin, Long cursorId) {
+    }
+
+    private final Log log = LogFactory.getLog(MongoQueryProfiler.class);
+
+    private final ObjectProvider<MongoClient> mongoClient;
+    private final boolean enabled;
+    private final double explainSampleRate;
+    private final double originSampleRate;
+    private final double replySizeSampleRate;
+    private final int maxShapes;
+
+    private final Map<String, QueryShapeStats> shapes = new ConcurrentHashMap<>();
+    private final Map<Integer, PendingCommand> pending = new ConcurrentHashMap<>();
+    private final Cache<Long, QueryShapeStats> openCursors;
+    private final ThreadPoolExecutor explainer;
+
+    public MongoQueryProfiler(
+            ObjectProvider<MongoClient> mongoClient,
+            @Value("${mongo.profiler.enabled:true}") boolean enabled,
+            @Value("${mongo.profiler.explain-sample-rate:0.01}") double explainSampleRate,
+            @Value("${mongo.profiler.origin-sample-rate:0.01}") double originSampleRate,
+            @Value("${mongo.profiler.reply-size-sample-rate:0.01}") double replySizeSampleRate,
+            @Value("${mongo.profiler.max-shapes:1000}") int maxShapes,
+            @Value("${mongo.profiler.max-open-cursors:10000}") long maxOpenCursors,
+            @Value("${mongo.profiler.cursor-idle-timeout:10m}") Duration cursorIdleTimeout) {
+        this.mongoClient = mongoClient;
+        this.enabled = enabled;
+        this.explainSampleRate = explainSampleRate;
+        this.originSampleRate = originSampleRate;
+        this.replySizeSampleRate = replySizeSampleRate;
+        this.maxShapes = maxShapes;
+        this.openCursors = Caffeine.newBuilder()
+                .maximumSize(maxOpenCursors)
+                .expireAfterAccess(cursorIdleTimeout)
+                .build();
+
+        // Explains are best effort: when the queue is full the sample is skipped
+        this.explainer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(100), runnable -> {
+            Thread thread = new Thread(runnable, "mongo-explain");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void customize(MongoClientSettings.Builder builder) {
+        if (this.enabled) {
+            builder.addCommandListener(this);
+        }
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        String commandName = event.getCommandName();
+        if ("killCursors".equals(commandName)) {
+            forgetKilledCursors(event.getCommand());
+            return;
+        }
+        if (!PROFILED_COMMANDS.contains(commandName)) {
+            return;
+        }
+
+        BsonDocument command = event.getCommand();
+        QueryShapeStats stats;
+        Long cursorId = null;
+        if ("getMore".equals(commandName)) {
+            cursorId = command.getInt64("getMore").getValue();
+            stats = this.openCursors.getIfPresent(cursorId);
+        } else {
+            String collection = command.get(commandName).isString() ? command.getString(commandName).getValue() : "";
+            String shape = shapeOf(commandName, command);
+            stats = this.shapes.get(collection + " " + commandName + " " + shape);
+            if (stats == null && this.shapes.size() < this.maxShapes) {
+                stats = this.shapes.computeIfAbsent(collection + " " + commandName + " " + shape,
+                        key -> new QueryShapeStats(collection, commandName, shape));
+            }
+            if (stats != null && EXPLAINABLE_COMMANDS.contains(commandName)
+                    && (stats.claimFirstExplain() || ThreadLocalRandom.current().nextDouble() < this.explainSampleRate)) {
+                scheduleExplain(stats, event.getDatabaseName(), command);
+            }
+        }
+
+        if (stats != null) {
+            // Walking the stack costs more than the rest of the bookkeeping, so it is done for a sample only
+            String origin = !stats.hasOrigins() || ThreadLocalRandom.current().nextDouble() < this.originSampleRate
+                    ? originOfCall()
+                    : null;
+            this.pending.put(event.getRequestId(), new PendingCommand(stats, origin, cursorId));
+        }
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        PendingCommand command = this.pending.remove(event.getRequestId());
+        if (command == null) {
+            return;
+        }
+
+        BsonDocument response = event.getResponse();
+        long bytes = replyBytes(response);
+        command.stats().record(command.origin(), event.getElapsedTime(TimeUnit.NANOSECONDS),
+                documentsIn(response), bytes, false);
+
+        // Later getMore batches of an open cursor are counted under the shape that opened it
+        if (response.isDocument("cursor")) {
+            BsonDocument cursor = response.getDocument("cursor");
+            long cursorId = cursor.getInt64("id").getValue();
+            if (cursorId != 0) {
+                this.openCursors.put(cursorId, command.stats());
+            } else if (command.cursorId() != null) {
+                this.openCursors.invalidate(command.cursorId());
+            }
+        }
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        PendingCommand command = this.pending.remove(event.getRequestId());
+        if (command != null) {
+            command.stats().record(command.origin(), event.getElapsedTime(TimeUnit.NANOSECONDS), 0, 0, true);
+            if (command.cursorId() != null) {
+                this.openCursors.invalidate(command.cursorId());
+            }
+        }
+    }
+
+    // Cursors closed before they were exhausted, e.g. a stream closed early or a find with a limit
+    private void forgetKilledCursors(BsonDocument command) {
+        for (BsonValue cursorId : command.getArray("cursors", new BsonArray())) {
+            if (cursorId.isInt64()) {
+                this.openCursors.invalidate(cursorId.asInt64().getValue());
+            }
+        }
+    }
+
+    // Shapes ordered by the total time spent in them
+    public List<QueryShapeStats> snapshot() {
+        List<QueryShapeStats> snapshot = new ArrayList<>(this.shapes.values());
+        snapshot.sort(Comparator.comparingLong(QueryShapeStats::getTotalNanos).reversed());
+        return snapshot;
+    }
+
+    public void reset() {
+        this.shapes.clear();
+        this.openCursors.invalidateAll();
+    }
+
+    // The filter, sort and pipeline of the command with every value replaced by "?"
+    static String shapeOf(String commandName, BsonDocument command) {
+        BsonDocument shape = new BsonDocument();
+        switch (commandName) {
+            case "find":
+                shape.append("filter", normalize(command.get("filter", new BsonDocument())));
+                if (command.containsKey("sort")) {
+                    shape.append("sort", command.get("sort"));
+                }
+                break;
+            case "aggregate":
+                BsonArray pipeline = new BsonArray();
+                for (BsonValue stage : command.getArray("pipeline", new BsonArray())) {
+                    pipeline.add(stage.isDocument() && stage.asDocument().containsKey("$sort") ? stage : normalize(stage));
+                }
+                shape.append("pipeline", pipeline);
+                break;
+            case "count":
+                shape.append("query", normalize(command.get("query", new BsonDocument())));
+                break;
+            case "distinct":
+                shape.append("key", command.get("key", PLACEHOLDER));
+                shape.append("query", normalize(command.get("query", new BsonDocument())));
+                break;
+            case "findAndModify":
+                shape.append("query", normalize(command.get("query", new BsonDocument())));
+                shape.append("update", normalize(command.get("update", new BsonDocument())));
+                break;
+            case "update":
+                BsonArray updates = command.getArray("updates", new BsonArray());
+                if (!updates.isEmpty() && updates.get(0).isDocument()) {
+                    shape.append("q", normalize(updates.get(0).asDocument().get("q", new BsonDocument())));
+                    shape.append("u", normalize(updates.get(0).asDocument().get("u", new BsonDocument())));
+                }
+                break;
+            case "delete":
+                BsonArray deletes = command.getArray("deletes", new BsonArray());
+                if (!deletes.isEmpty() && deletes.get(0).isDocument()) {
+                    shape.append("q", normalize(deletes.get(0).asDocument().get("q", new BsonDocument())));
+                }
+                break;
+            default:
+                break;
+        }
+        return shape.toJson();
+    }
+
+    // Keeps field names and operators; arrays of documents ($or, $and, pipelines) are normalized element-wise
+    private static BsonValue normalize(BsonValue value) {
+        if (value.isDocument()) {
+            BsonDocument normalized = new BsonDocument();
+            for (Map.Entry<String, BsonValue> field : value.asDocument().entrySet()) {
+                normalized.append(field.getKey(), normalize(field.getValue()));
+            }
+            return normalized;
+        }
+        if (value.isArray() && !value.asArray().isEmpty()
+                && value.asArray().stream().allMatch(BsonValue::isDocument)) {
+            BsonArray normalized = new BsonArray();
+            value.asArray().forEach(element -> normalized.add(normalize(element)));
+            return normalized;
+        }
+        return PLACEHOLDER;
+    }
+
+    // The size of a raw reply is read from its buffer; a decoded one is encoded again for a sample only, whose size
+    // is scaled up so the total stays an estimate of all replies
+    private long replyBytes(BsonDocument response) {
+        if (response instanceof RawBsonDocument raw) {
+            return raw.getByteBuffer().remaining();
+        }
+        if (this.replySizeSampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= this.replySizeSampleRate) {
+            return 0;
+        }
+        long bytes = new RawBsonDocument(response, new BsonDocumentCodec()).getByteBuffer().remaining();
+        return Math.round(bytes / Math.min(this.replySizeSampleRate, 1.0));
+    }
+
+    private static long documentsIn(BsonDocument response) {
+        if (response.isDocument("cursor")) {
+            BsonDocument cursor = response.getDocument("cursor");
+            BsonArray batch = cursor.containsKey("firstBatch") ? cursor.getArray("firstBatch") : cursor.getArray("nextBatch", new BsonArray());
+            return batch.size();
+        }
+        if (response.containsKey("value")) {
+            return response.get("value").isNull() ? 0 : 1;
+        }
+        if (response.isArray("values")) {
+            return response.getArray("values").size();
+        }
+        if (response.isNumber("n")) {
+            return response.getNumber("n").longValue();
+        }
+        return 0;
+    }
+
+    // The first application frame outside the data access layer, e.g. ObjectServiceImpl.getObjectById
+    private static String originOfCall() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith("demo.")
+                        && !frame.getClassName().startsWith("demo.DataAccessLayer."))
+                .findFirst()
+                .map(frame -> {
+                    String className = frame.getClassName();
+                    return className.substring(className.lastIndexOf('.') + 1) + "." + frame.getMethodName();
+                })
+                .orElse(Thread.currentThread().getName()));
+    }
+
+    private void scheduleExplain(QueryShapeStats stats, String databaseName, BsonDocument command) {
+        // The event's command is only valid during the callback, the explain works on a copy
+        BsonDocument explained = new BsonDocument();
+        for (Map.Entry<String, BsonValue> field : command.clone().entrySet()) {
+            if (!field.getKey().startsWith("$") && !NON_EXPLAINABLE_FIELDS.contains(field.getKey())) {
+                explained.append(field.getKey(), field.getValue());
+            }
+        }
+
+        try {
+            this.explainer.execute(() -> explain(stats, databaseName, explained));
+        } catch (RejectedExecutionException e) {
+            // explainer busy or shut down, this sample is skipped
+        }
+    }
+
+    private void explain(QueryShapeStats stats, String databaseName, BsonDocument command) {
+        try {
+            BsonDocument result = this.mongoClient.getObject().getDatabase(databaseName).runCommand(
+                    new BsonDocument("explain", command).append("verbosity", new BsonString("queryPlanner")),
+                    BsonDocument.class);
+
+            List<String> stages = new ArrayList<>();
+            collectWinningPlanStages(result, false, stages);
+            boolean collscan = stages.stream().anyMatch(stage -> stage.startsWith("COLLSCAN"));
+            if (collscan && !Boolean.TRUE.equals(stats.getCollscan())) {
+                log.warn("COLLSCAN plan for " + stats.getCollection() + " " + stats.getCommand() + " " + stats.getShape()
+                        + " issued by " + stats.getOrigins().keySet());
+            }
+            stats.explained(collscan, String.join(" > ", stages));
+        } catch (RuntimeException e) {
+            log.debug("Could not explain " + stats.getCollection() + " " + stats.getCommand() + ": " + e.getMessage());
+        }
+    }
+
+    // Stage names of every winningPlan in the explain output, root first, e.g. FETCH > IXSCAN(creation_idx)
+    private static void collectWinningPlanStages(BsonValue value, boolean inWinningPlan, List<String> stages) {
+        if (value.isDocument()) {
+            BsonDocument document = value.asDocument();
+            if (inWinningPlan && document.isString("stage")) {
+                String stage = document.getString("stage").getValue();
+                stages.add(document.isString("indexName") ? stage + "(" + document.getString("indexName").getValue() + ")" : stage);
+            }
+            for (Map.Entry<String, BsonValue> field : document.entrySet()) {
+                collectWinningPlanStages(field.getValue(), inWinningPlan || "winningPlan".equals(field.getKey()), stages);
+            }
+        } else if (value.isArray()) {
+            value.asArray().forEach(element -> collectWinningPlanStages(element, inWinningPlan, stages));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.explainer.shutdownNow();
+    }
+}
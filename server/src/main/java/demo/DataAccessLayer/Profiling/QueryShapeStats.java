@@ -0,0 +1,148 @@
+package demo.DataAccessLayer.Profiling;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Counters of one normalized query shape, updated by MongoQueryProfiler from the driver threads
+public class QueryShapeStats {
+
+    // Upper bounds of the latency histogram buckets in milliseconds, the last bucket is unbounded
+    static final long[] LATENCY_BUCKETS_MILLIS = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000};
+
+    private final String collection;
+    private final String command;
+    private final String shape;
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder documents = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final AtomicLongArray latencyHistogram = new AtomicLongArray(LATENCY_BUCKETS_MILLIS.length + 1);
+    private final Map<String, LongAdder> origins = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean explainClaimed = new AtomicBoolean();
+    private volatile Boolean collscan;
+    private volatile String planSummary;
+    private volatile Date lastExplained;
+
+    QueryShapeStats(String collection, String command, String shape) {
+        this.collection = collection;
+        this.command = command;
+        this.shape = shape;
+    }
+
+    void record(String origin, long elapsedNanos, long documentCount, long byteCount, boolean failed) {
+        this.count.increment();
+        if (failed) {
+            this.failures.increment();
+        }
+        this.documents.add(documentCount);
+        this.bytes.add(byteCount);
+        this.totalNanos.addAndGet(elapsedNanos);
+        this.maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+        this.latencyHistogram.incrementAndGet(bucketOf(elapsedNanos / 1_000_000));
+        if (origin != null) {
+            this.origins.computeIfAbsent(origin, key -> new LongAdder()).increment();
+        }
+    }
+
+    private static int bucketOf(long millis) {
+        for (int bucket = 0; bucket < LATENCY_BUCKETS_MILLIS.length; bucket++) {
+            if (millis < LATENCY_BUCKETS_MILLIS[bucket]) {
+                return bucket;
+            }
+        }
+        return LATENCY_BUCKETS_MILLIS.length;
+    }
+
+    // True for the first caller only, so a new shape is explained once
+    boolean claimFirstExplain() {
+        return this.explainClaimed.compareAndSet(false, true);
+    }
+
+    // Until a shape has an origin every execution looks one up, afterwards only a sample does
+    boolean hasOrigins() {
+        return !this.origins.isEmpty();
+    }
+
+    void explained(boolean collscan, String planSummary) {
+        this.collscan = collscan;
+        this.planSummary = planSummary;
+        this.lastExplained = new Date();
+    }
+
+    public String getCollection() {
+        return collection;
+    }
+
+    public String getCommand() {
+        return command;
+    }
+
+    public String getShape() {
+        return shape;
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    public long getDocuments() {
+        return documents.sum();
+    }
+
+    public long getBytes() {
+        return bytes.sum();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.get();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    // Bucket label ("<1ms" ... "<1000ms", ">=1000ms") to the number of executions in it
+    public Map<String, Long> getLatencyHistogram() {
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        for (int bucket = 0; bucket < LATENCY_BUCKETS_MILLIS.length; bucket++) {
+            histogram.put("<" + LATENCY_BUCKETS_MILLIS[bucket] + "ms", latencyHistogram.get(bucket));
+        }
+        histogram.put(">=" + LATENCY_BUCKETS_MILLIS[LATENCY_BUCKETS_MILLIS.length - 1] + "ms",
+                latencyHistogram.get(LATENCY_BUCKETS_MILLIS.length));
+        return histogram;
+    }
+
+    // Calling method (Class.method) to the number of executions it issued
+    public Map<String, Long> getOrigins() {
+        Map<String, Long> snapshot = new LinkedHashMap<>();
+        origins.forEach((origin, originCount) -> snapshot.put(origin, originCount.sum()));
+        return snapshot;
+    }
+
+    // Null until the shape has been explained
+    public Boolean getCollscan() {
+        return collscan;
+    }
+
+    public String getPlanSummary() {
+        return planSummary;
+    }
+
+    public Date getLastExplained() {
+        return lastExplained;
+    }
+}
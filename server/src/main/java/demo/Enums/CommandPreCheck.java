@@ -0,0 +1,6 @@
+package demo.Enums;
+
+// Checks the command handler registry runs before a handler, as declared by the handler
+public enum CommandPreCheck {
+    TARGET_ACTIVE
+}
@@ -0,0 +1,6 @@
+package demo.Enums;
+
+// How an invoked command is written to the COMMAND history
+public enum JournalPolicy {
+    SYNC,ASYNC,SAMPLED
+}
@@ -0,0 +1,141 @@
+package demo.Initializers;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import demo.BusinessLogicLayer.Converters.ObjectConverter;
+import demo.BusinessLogicLayer.Services.LockerBlockChangedEvent;
+import demo.BusinessLogicLayer.Services.LockerBlockIndex;
+import demo.DataAccessLayer.Entities.ObjectEntity;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One-shot backfill of the GeoJSON {@code location} of lockerBlocks stored before the field existed.
+ * Runs in the background once the application is ready: every lockerBlock without a {@code location} whose
+ * {@code objectDetails.latitude/longitude} are valid coordinates gets the point the $geoNear queries need, and
+ * is put into the LockerBlockIndex. Blocks with missing or invalid coordinates are left alone and counted.
+ */
+@Component
+public class LocationMigrator {
+
+    private final Log log = LogFactory.getLog(LocationMigrator.class);
+    private final MongoTemplate mongoTemplate;
+    private final ObjectConverter converter;
+    private final LockerBlockIndex lockerBlockIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+
+    public LocationMigrator(
+            MongoTemplate mongoTemplate,
+            ObjectConverter converter,
+            LockerBlockIndex lockerBlockIndex,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${objects.location-migration.batch-size:500}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.converter = converter;
+        this.lockerBlockIndex = lockerBlockIndex;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startMigration() {
+        Thread migrationThread = new Thread(this::migrate, "location-migrator");
+        migrationThread.setDaemon(true);
+        migrationThread.start();
+    }
+
+    void migrate() {
+        MongoCollection<Document> objects = this.mongoTemplate.getCollection(
+                this.mongoTemplate.getCollectionName(ObjectEntity.class));
+        Bson withoutLocation = Filters.and(
+                Filters.eq("type", "lockerBlock"),
+                Filters.exists("location", false));
+        List<WriteModel<Document>> batch = new ArrayList<>(this.batchSize);
+        List<ObjectEntity> migratedBlocks = new ArrayList<>(this.batchSize);
+        long migrated = 0;
+        long skipped = 0;
+
+        try (MongoCursor<Document> cursor = objects.find(withoutLocation)
+                .projection(Projections.include("objectDetails", "status", "active", "availableCount"))
+                .batchSize(this.batchSize)
+                .iterator()) {
+            while (cursor.hasNext()) {
+                Document document = cursor.next();
+                GeoJsonPoint location = this.converter.toLocation(document.get("objectDetails", Map.class));
+                if (location == null) {
+                    skipped++;
+                    continue;
+                }
+
+                // GeoJSON order is (longitude, latitude); the existence check keeps a location written meanwhile
+                batch.add(new UpdateOneModel<>(
+                        Filters.and(Filters.eq("_id", document.get("_id")), Filters.exists("location", false)),
+                        Updates.set("location", new Document("type", "Point")
+                                .append("coordinates", List.of(location.getX(), location.getY())))));
+                migratedBlocks.add(toEntity(document, location));
+
+                if (batch.size() >= this.batchSize) {
+                    migrated += flush(objects, batch, migratedBlocks);
+                    log.info("Backfilled the location of " + migrated + " lockerBlocks so far");
+                }
+            }
+            migrated += flush(objects, batch, migratedBlocks);
+        } catch (Exception e) {
+            log.error("Location migration stopped after " + migrated + " lockerBlocks: " + e.getMessage(), e);
+            return;
+        }
+
+        if (migrated > 0) {
+            log.info("Location migration completed, " + migrated + " lockerBlocks migrated");
+        }
+        if (skipped > 0) {
+            log.warn(skipped + " lockerBlocks have no valid objectDetails.latitude/longitude and stay out of nearby searches");
+        }
+    }
+
+    private long flush(MongoCollection<Document> objects, List<WriteModel<Document>> batch,
+                       List<ObjectEntity> migratedBlocks) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        long modified = objects.bulkWrite(batch, new BulkWriteOptions().ordered(false)).getModifiedCount();
+        for (ObjectEntity lockerBlock : migratedBlocks) {
+            this.lockerBlockIndex.put(lockerBlock);
+            this.eventPublisher.publishEvent(new LockerBlockChangedEvent(lockerBlock.getId()));
+        }
+        batch.clear();
+        migratedBlocks.clear();
+        return modified;
+    }
+
+    private static ObjectEntity toEntity(Document document, GeoJsonPoint location) {
+        ObjectEntity lockerBlock = new ObjectEntity();
+        lockerBlock.setId(document.get("_id").toString());
+        lockerBlock.setType("lockerBlock");
+        lockerBlock.setStatus(document.getString("status"));
+        lockerBlock.setActive(document.getBoolean("active"));
+        lockerBlock.setAvailableCount(document.getInteger("availableCount"));
+        lockerBlock.setLocation(location);
+        return lockerBlock;
+    }
+}
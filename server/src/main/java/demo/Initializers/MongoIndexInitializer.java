@@ -0,0 +1,136 @@
+package demo.Initializers;
+
+import demo.DataAccessLayer.Entities.CommandEntity;
+import demo.DataAccessLayer.Entities.ObjectEntity;
+import demo.DataAccessLayer.Entities.UserEntity;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Creates the indexes declared on the entities before the application starts serving requests,
+ * logging the progress of each build, and then checks that every query shape issued by the CRUDs
+ * has an index starting with its equality fields followed by its sort fields.
+ * With mongo.indexes.on-missing=fail a failed build or an unsupported query shape stops the startup,
+ * otherwise it is logged as a warning.
+ */
+@Component
+public class MongoIndexInitializer implements SmartInitializingSingleton {
+
+    // Query shapes issued by the CRUD finders: equality fields and sort fields
+    private record QueryShape(Class<?> entityClass, String finder, Set<String> equalityFields, List<String> sortFields) {
+    }
+
+    private static final List<String> BY_CREATION = List.of("creationTimestamp", "_id");
+
+    // findAllByAliasLike is not listed: an unanchored regex cannot be served by an index prefix
+    private static final List<QueryShape> QUERY_SHAPES = List.of(
+            new QueryShape(ObjectEntity.class, "findAll", Set.of(), BY_CREATION),
+            new QueryShape(ObjectEntity.class, "findAllByType", Set.of("type"), BY_CREATION),
+            new QueryShape(ObjectEntity.class, "findAllByStatus", Set.of("status"), BY_CREATION),
+            new QueryShape(ObjectEntity.class, "findAllByTypeAndStatus", Set.of("type", "status"), BY_CREATION),
+            new QueryShape(ObjectEntity.class, "findAllByTypeAndStatusAndCreatedBy", Set.of("type", "status", "createdBy"), BY_CREATION),
+            new QueryShape(ObjectEntity.class, "findAllByAlias", Set.of("alias"), BY_CREATION),
+            new QueryShape(ObjectEntity.class, "findAllByParentId", Set.of("parentId"), BY_CREATION),
+            new QueryShape(ObjectEntity.class, "findAllByParentIdInAndTypeAndStatusAndActiveTrue",
+                    Set.of("parentId", "type", "status", "active"), BY_CREATION),
+            new QueryShape(ObjectEntity.class, "findAllByActiveTrue", Set.of("active"), BY_CREATION),
+            new QueryShape(ObjectEntity.class, "findAllByTypeAndActiveTrue", Set.of("active", "type"), BY_CREATION),
+            new QueryShape(ObjectEntity.class, "findAllByStatusAndActiveTrue", Set.of("active", "status"), BY_CREATION),
+            new QueryShape(ObjectEntity.class, "findAllByTypeAndStatusAndActiveTrue", Set.of("active", "type", "status"), BY_CREATION),
+            new QueryShape(ObjectEntity.class, "findAllByTypeAndStatusAndCreatedByAndActiveTrue",
+                    Set.of("active", "type", "status", "createdBy"), BY_CREATION),
+            new QueryShape(ObjectEntity.class, "findAllByAliasAndActiveTrue", Set.of("active", "alias"), BY_CREATION),
+            new QueryShape(ObjectEntity.class, "findAllByParentIdAndActiveTrue", Set.of("active", "parentId"), BY_CREATION),
+            new QueryShape(CommandEntity.class, "findAll", Set.of(), List.of("invocationTimestamp", "_id")),
+            new QueryShape(UserEntity.class, "findAll", Set.of(), List.of("lastName", "firstName", "_id"))
+    );
+
+    private final Log log = LogFactory.getLog(MongoIndexInitializer.class);
+    private final MongoTemplate mongoTemplate;
+    private final boolean failOnMissing;
+
+    public MongoIndexInitializer(
+            MongoTemplate mongoTemplate,
+            @Value("${mongo.indexes.on-missing:warn}") String onMissing) {
+        this.mongoTemplate = mongoTemplate;
+        this.failOnMissing = "fail".equalsIgnoreCase(onMissing);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        createIndexes(ObjectEntity.class);
+        createIndexes(CommandEntity.class);
+        createIndexes(UserEntity.class);
+        verifyQueryShapes();
+    }
+
+    private void createIndexes(Class<?> entityClass) {
+        MongoMappingContext mappingContext = (MongoMappingContext) this.mongoTemplate.getConverter().getMappingContext();
+        IndexResolver indexResolver = new MongoPersistentEntityIndexResolver(mappingContext);
+        IndexOperations indexOperations = this.mongoTemplate.indexOps(entityClass);
+        String collection = this.mongoTemplate.getCollectionName(entityClass);
+
+        List<IndexDefinition> indexDefinitions = new ArrayList<>();
+        indexResolver.resolveIndexFor(entityClass).forEach(indexDefinitions::add);
+
+        int built = 0;
+        for (IndexDefinition indexDefinition : indexDefinitions) {
+            built++;
+            log.info("Building index " + built + "/" + indexDefinitions.size() + " on " + collection + ": " + indexDefinition.getIndexKeys());
+            long start = System.currentTimeMillis();
+            try {
+                String name = indexOperations.ensureIndex(indexDefinition);
+                log.info("Index " + name + " on " + collection + " ready after " + (System.currentTimeMillis() - start) + " ms");
+            } catch (RuntimeException e) {
+                handleProblem("Could not build index " + indexDefinition.getIndexKeys() + " on " + collection + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private void verifyQueryShapes() {
+        for (QueryShape shape : QUERY_SHAPES) {
+            List<IndexInfo> indexes = this.mongoTemplate.indexOps(shape.entityClass()).getIndexInfo();
+            boolean supported = indexes.stream().anyMatch(index -> supports(index, shape));
+            if (!supported) {
+                handleProblem("No index supports " + this.mongoTemplate.getCollectionName(shape.entityClass()) + "." + shape.finder()
+                        + " (equality " + shape.equalityFields() + ", sort " + shape.sortFields() + ")", null);
+            }
+        }
+    }
+
+    // The index keys must start with the equality fields (in any order) followed by the sort fields
+    private boolean supports(IndexInfo index, QueryShape shape) {
+        List<String> keys = index.getIndexFields().stream().map(IndexField::getKey).toList();
+        int equalityCount = shape.equalityFields().size();
+        if (keys.size() < equalityCount + shape.sortFields().size()) {
+            return false;
+        }
+        if (!new HashSet<>(keys.subList(0, equalityCount)).equals(shape.equalityFields())) {
+            return false;
+        }
+        return keys.subList(equalityCount, equalityCount + shape.sortFields().size()).equals(shape.sortFields());
+    }
+
+    private void handleProblem(String message, RuntimeException cause) {
+        if (this.failOnMissing) {
+            throw new IllegalStateException(message, cause);
+        }
+        log.warn(message);
+    }
+}
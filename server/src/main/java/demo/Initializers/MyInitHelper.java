@@ -176,7 +176,6 @@ package demo.Initializers;
                   log.info("Created LockerBlock: ID=" + createdLockerBlock.getObjectID().getID() + ", Name=" + blockName);
 
                   int numLockersInBlock = 5 + random.nextInt(6); // 5 to 10 lockers
-                  int availableCountInBlock = 0;
 
                   for (int j = 0; j < numLockersInBlock; j++) {
                       int lockerNumber = (i * 100) + j + 1;
@@ -184,10 +183,6 @@ package demo.Initializers;
                       String[] possibleStatuses = {"available", "available", "available", "OutOfOrder"};
                       String lockerStatus = possibleStatuses[random.nextInt(possibleStatuses.length)];
 
-                      if ("available".equals(lockerStatus)) {
-                          availableCountInBlock++;
-                      }
-
                       ObjectBoundary lockerBoundary = new ObjectBoundary();
                       lockerBoundary.setType("locker");
                       lockerBoundary.setAlias("Locker " + lockerNumber);
@@ -212,19 +207,7 @@ package demo.Initializers;
                       );
                       log.info("  Bound Locker ID=" + createdLocker.getObjectID().getID() + " to LockerBlock ID=" + createdLockerBlock.getObjectID().getID());
                   }
-
-                  createdLockerBlock.getObjectDetails().put("availableCount", availableCountInBlock);
-                  ObjectBoundary updateBlockPayload = new ObjectBoundary();
-                  updateBlockPayload.setType(createdLockerBlock.getType());
-                  updateBlockPayload.setAlias(createdLockerBlock.getAlias());
-                  updateBlockPayload.setStatus(createdLockerBlock.getStatus());
-                  updateBlockPayload.setObjectDetails(createdLockerBlock.getObjectDetails());
-                  updateBlockPayload.setActive(createdLockerBlock.getActive());
-
-                  objectService.updateObject(appName, createdLockerBlock.getObjectID().getID(),
-                                             operatorUser.getUserId().getSystemID(), operatorUser.getUserId().getEmail(),
-                                             updateBlockPayload, false);
-                  log.info("Updated LockerBlock ID=" + createdLockerBlock.getObjectID().getID() + " with availableCount=" + availableCountInBlock);
+                  // availableCount/availableBySize of the block were counted up by bindObjects
               }
               return allCreatedLockers;
           }
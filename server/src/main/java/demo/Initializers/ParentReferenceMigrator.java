@@ -0,0 +1,108 @@
+package demo.Initializers;
+
+import com.mongodb.DBRef;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import demo.DataAccessLayer.Entities.ObjectEntity;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One-shot migration of OBJECTS documents written with the former {@code @DBRef parent} field.
+ * Runs in the background once the application is ready: every document that still has a
+ * {@code parent} reference gets {@code parentId} set to the referenced id and the reference removed.
+ * Documents already migrated are not matched, so later startups find nothing to do.
+ */
+@Component
+public class ParentReferenceMigrator {
+
+    private final Log log = LogFactory.getLog(ParentReferenceMigrator.class);
+    private final MongoTemplate mongoTemplate;
+    private final int batchSize;
+
+    public ParentReferenceMigrator(
+            MongoTemplate mongoTemplate,
+            @Value("${objects.parent-migration.batch-size:500}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startMigration() {
+        Thread migrationThread = new Thread(this::migrate, "parent-reference-migrator");
+        migrationThread.setDaemon(true);
+        migrationThread.start();
+    }
+
+    void migrate() {
+        MongoCollection<Document> objects = this.mongoTemplate.getCollection(
+                this.mongoTemplate.getCollectionName(ObjectEntity.class));
+        Bson legacyParent = Filters.exists("parent", true);
+        List<WriteModel<Document>> batch = new ArrayList<>(this.batchSize);
+        long migrated = 0;
+
+        try (MongoCursor<Document> cursor = objects.find(legacyParent)
+                .projection(Projections.include("parent"))
+                .batchSize(this.batchSize)
+                .iterator()) {
+            while (cursor.hasNext()) {
+                Document document = cursor.next();
+                Object parentId = referencedId(document.get("parent"));
+
+                Bson update = parentId == null
+                        ? Updates.unset("parent")
+                        : Updates.combine(Updates.set("parentId", parentId.toString()), Updates.unset("parent"));
+                batch.add(new UpdateOneModel<>(Filters.eq("_id", document.get("_id")), update));
+
+                if (batch.size() >= this.batchSize) {
+                    migrated += flush(objects, batch);
+                    log.info("Migrated parent references of " + migrated + " objects so far");
+                }
+            }
+            migrated += flush(objects, batch);
+        } catch (Exception e) {
+            log.error("Parent reference migration stopped after " + migrated + " objects: " + e.getMessage(), e);
+            return;
+        }
+
+        if (migrated > 0) {
+            log.info("Parent reference migration completed, " + migrated + " objects migrated");
+        }
+    }
+
+    private long flush(MongoCollection<Document> objects, List<WriteModel<Document>> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        long modified = objects.bulkWrite(batch, new BulkWriteOptions().ordered(false)).getModifiedCount();
+        batch.clear();
+        return modified;
+    }
+
+    // A DBRef is read either as com.mongodb.DBRef or as a plain {$ref, $id} document depending on the codec
+    private Object referencedId(Object parent) {
+        if (parent instanceof DBRef dbRef) {
+            return dbRef.getId();
+        }
+        if (parent instanceof Document document) {
+            return document.get("$id");
+        }
+        return null;
+    }
+}
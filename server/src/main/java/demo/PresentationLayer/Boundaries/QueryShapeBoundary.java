@@ -0,0 +1,158 @@
+package demo.PresentationLayer.Boundaries;
+
+import java.util.Date;
+import java.util.Map;
+
+public class QueryShapeBoundary {
+    private String collection;
+    private String command;
+    private String shape;
+    private Map<String, Long> origins; // Calling service method to the number of executions it issued
+    private long count;
+    private long failures;
+    private double totalMillis;
+    private double meanMillis;
+    private double maxMillis;
+    private Map<String, Long> latencyHistogram;
+    private long documentsReturned;
+    private long bytesReturned;
+    private Boolean collscan; // Null until the shape has been explained
+    private String planSummary;
+    private Date lastExplained;
+
+    public QueryShapeBoundary() {
+    }
+
+    public String getCollection() {
+        return collection;
+    }
+
+    public void setCollection(String collection) {
+        this.collection = collection;
+    }
+
+    public String getCommand() {
+        return command;
+    }
+
+    public void setCommand(String command) {
+        this.command = command;
+    }
+
+    public String getShape() {
+        return shape;
+    }
+
+    public void setShape(String shape) {
+        this.shape = shape;
+    }
+
+    public Map<String, Long> getOrigins() {
+        return origins;
+    }
+
+    public void setOrigins(Map<String, Long> origins) {
+        this.origins = origins;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public long getFailures() {
+        return failures;
+    }
+
+    public void setFailures(long failures) {
+        this.failures = failures;
+    }
+
+    public double getTotalMillis() {
+        return totalMillis;
+    }
+
+    public void setTotalMillis(double totalMillis) {
+        this.totalMillis = totalMillis;
+    }
+
+    public double getMeanMillis() {
+        return meanMillis;
+    }
+
+    public void setMeanMillis(double meanMillis) {
+        this.meanMillis = meanMillis;
+    }
+
+    public double getMaxMillis() {
+        return maxMillis;
+    }
+
+    public void setMaxMillis(double maxMillis) {
+        this.maxMillis = maxMillis;
+    }
+
+    public Map<String, Long> getLatencyHistogram() {
+        return latencyHistogram;
+    }
+
+    public void setLatencyHistogram(Map<String, Long> latencyHistogram) {
+        this.latencyHistogram = latencyHistogram;
+    }
+
+    public long getDocumentsReturned() {
+        return documentsReturned;
+    }
+
+    public void setDocumentsReturned(long documentsReturned) {
+        this.documentsReturned = documentsReturned;
+    }
+
+    public long getBytesReturned() {
+        return bytesReturned;
+    }
+
+    public void setBytesReturned(long bytesReturned) {
+        this.bytesReturned = bytesReturned;
+    }
+
+    public Boolean getCollscan() {
+        return collscan;
+    }
+
+    public void setCollscan(Boolean collscan) {
+        this.collscan = collscan;
+    }
+
+    public String getPlanSummary() {
+        return planSummary;
+    }
+
+    public void setPlanSummary(String planSummary) {
+        this.planSummary = planSummary;
+    }
+
+    public Date getLastExplained() {
+        return lastExplained;
+    }
+
+    public void setLastExplained(Date lastExplained) {
+        this.lastExplained = lastExplained;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryShapeBoundary{" +
+                "collection='" + collection + '\'' +
+                ", command='" + command + '\'' +
+                ", shape='" + shape + '\'' +
+                ", origins=" + origins +
+                ", count=" + count +
+                ", totalMillis=" + totalMillis +
+                ", collscan=" + collscan +
+                '}';
+    }
+}
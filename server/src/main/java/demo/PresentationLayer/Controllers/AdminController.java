@@ -1,14 +1,28 @@
 package demo.PresentationLayer.Controllers;
 
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import demo.PresentationLayer.Boundaries.QueryShapeBoundary;
 import demo.PresentationLayer.Boundaries.UserBoundary;
+import demo.BusinessLogicLayer.Converters.CursorConverter;
 import demo.BusinessLogicLayer.Services.ObjectService;
+import demo.BusinessLogicLayer.Services.QueryProfileService;
 import demo.BusinessLogicLayer.Services.UserService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.ScopeMetadata;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 
 import demo.PresentationLayer.Boundaries.CommandBoundary;
 import demo.BusinessLogicLayer.Services.CommandService;
@@ -17,17 +31,34 @@ import demo.BusinessLogicLayer.Services.CommandService;
 @RequestMapping(path = "/ambient-intelligence/admin")
 public class AdminController {
 
+    private static final int EXPORT_CHUNK_BYTES = 64 * 1024;
+
     private UserService userService;
     private CommandService commandService;
     private ObjectService objectService;
+    private CursorConverter cursorConverter;
+    private ObjectMapper objectMapper;
+    private QueryProfileService queryProfileService;
+    private Duration exportTimeout;
 
     public AdminController(
             UserService userService,
             CommandService commandService,
-            ObjectService objectService) {
+            ObjectService objectService,
+            CursorConverter cursorConverter,
+            ObjectMapper objectMapper,
+            QueryProfileService queryProfileService) {
         this.userService = userService;
         this.commandService = commandService;
         this.objectService = objectService;
+        this.cursorConverter = cursorConverter;
+        this.objectMapper = objectMapper;
+        this.queryProfileService = queryProfileService;
+    }
+
+    @Value("${commands.export.timeout:30m}")
+    public void setExportTimeout(Duration exportTimeout) {
+        this.exportTimeout = exportTimeout;
     }
 
     // Delete all users in the system
@@ -62,28 +93,91 @@ public class AdminController {
     @GetMapping(
             path = "/users",
             produces = MediaType.APPLICATION_JSON_VALUE)
-    public UserBoundary[] getAllUsers(
+    public ResponseEntity<UserBoundary[]> getAllUsers(
             @RequestParam("userSystemID") String systemID,
             @RequestParam("userEmail") String email,
             @RequestParam(value = "size", required = false, defaultValue = "10") int size,
-            @RequestParam(value = "page", required = false, defaultValue = "0") int page) {
+            @RequestParam(value = "page", required = false, defaultValue = "0") int page,
+            @RequestParam(value = "cursor", required = false) String cursor) {
 
-        List<UserBoundary> users = this.userService.getAllUsers(systemID, email, size, page);
-        return users.toArray(new UserBoundary[0]);
+        List<UserBoundary> users = this.userService.getAllUsers(systemID, email, size, page, cursor);
+        return NextCursorResponse.of(users.toArray(new UserBoundary[0]), this.cursorConverter.nextUserCursor(users, size));
     }
 
     // Export all Commands history
     @GetMapping(
             path = "/commands",
             produces = MediaType.APPLICATION_JSON_VALUE)
-    public CommandBoundary[] getAllCommands(
+    public ResponseEntity<CommandBoundary[]> getAllCommands(
             @RequestParam("userSystemID") String systemID,
             @RequestParam("userEmail") String email,
             @RequestParam(value = "size", required = false, defaultValue = "10") int size,
-            @RequestParam(value = "page", required = false, defaultValue = "0") int page) {
+            @RequestParam(value = "page", required = false, defaultValue = "0") int page,
+            @RequestParam(value = "cursor", required = false) String cursor) {
+
+        List<CommandBoundary> commands = this.commandService.getAllCommandsHistory(systemID, email, size, page, cursor);
+        return NextCursorResponse.of(commands.toArray(new CommandBoundary[0]), this.cursorConverter.nextCommandCursor(commands, size));
+
+    }
+
+    // Stream the Commands history as newline-delimited JSON, optionally limited to [from, to)
+    @GetMapping(
+            path = "/commands/export",
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseBodyEmitter exportCommands(
+            @RequestParam("userSystemID") String systemID,
+            @RequestParam("userEmail") String email,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date to) {
+
+        // Permission and range are checked here, so failures are reported before the response starts
+        Stream<CommandBoundary> commands = this.commandService.streamCommandsHistory(systemID, email, from, to);
 
-        List<CommandBoundary> commands = this.commandService.getAllCommandsHistory(systemID, email, size, page);
-        return commands.toArray(new CommandBoundary[0]);
+        // The export has its own timeout instead of the request-wide async timeout, and is written by its own
+        // virtual thread in chunks of about EXPORT_CHUNK_BYTES
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(this.exportTimeout.toMillis());
+        Thread.ofVirtual().name("commands-export").start(() -> {
+            try (commands) {
+                ByteArrayOutputStream chunk = new ByteArrayOutputStream(EXPORT_CHUNK_BYTES);
+                Iterator<CommandBoundary> iterator = commands.iterator();
+                while (iterator.hasNext()) {
+                    chunk.write(this.objectMapper.writeValueAsBytes(iterator.next()));
+                    chunk.write('\n');
+                    if (chunk.size() >= EXPORT_CHUNK_BYTES) {
+                        emitter.send(chunk.toByteArray(), MediaType.APPLICATION_NDJSON);
+                        chunk.reset();
+                    }
+                }
+                if (chunk.size() > 0) {
+                    emitter.send(chunk.toByteArray(), MediaType.APPLICATION_NDJSON);
+                }
+                emitter.complete();
+            } catch (Exception e) {
+                // Also reached after the timeout or a client disconnect, when the emitter no longer accepts data
+                emitter.completeWithError(e);
+            }
+        });
+        return emitter;
+    }
+
+    // MongoDB query shapes with their latency, volume, calling service methods and plan, most expensive first
+    @GetMapping(
+            path = "/mongo/queries",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public QueryShapeBoundary[] getQueryShapes(
+            @RequestParam("userSystemID") String systemID,
+            @RequestParam("userEmail") String email) {
+
+        return this.queryProfileService.getQueryShapes(systemID, email).toArray(new QueryShapeBoundary[0]);
+    }
+
+    // Start a new profiling window
+    @DeleteMapping(path = "/mongo/queries")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void resetQueryShapes(
+            @RequestParam("userSystemID") String systemID,
+            @RequestParam("userEmail") String email) {
 
+        this.queryProfileService.resetQueryShapes(systemID, email);
     }
-}
\ No newline at end of file
+}
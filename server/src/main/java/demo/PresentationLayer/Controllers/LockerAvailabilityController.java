@@ -0,0 +1,30 @@
+package demo.PresentationLayer.Controllers;
+
+import demo.BusinessLogicLayer.Services.LockerAvailabilityStreamService;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping(path = "ambient-intelligence/lockers")
+public class LockerAvailabilityController {
+    private final LockerAvailabilityStreamService streamService;
+
+    public LockerAvailabilityController(LockerAvailabilityStreamService streamService) {
+        this.streamService = streamService;
+    }
+
+    // Same parameters as the getAvailableLockers command attributes, radius in km; the map subscribes once
+    // and receives a "snapshot" event followed by "changes" events instead of polling the command
+    @GetMapping(
+            path = "/available/stream",
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAvailableLockers(
+            @RequestParam(name = "latitude", required = true) double latitude,
+            @RequestParam(name = "longitude", required = true) double longitude,
+            @RequestParam(name = "radius", required = false, defaultValue = "5.0") double radius,
+            @RequestParam(name = "userSystemID", required = true) String userSystemID,
+            @RequestParam(name = "userEmail", required = true) String userEmail) {
+        return this.streamService.subscribe(latitude, longitude, radius, userSystemID, userEmail);
+    }
+}
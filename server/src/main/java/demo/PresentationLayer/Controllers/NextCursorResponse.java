@@ -0,0 +1,20 @@
+package demo.PresentationLayer.Controllers;
+
+import org.springframework.http.ResponseEntity;
+
+// Builds list responses that carry the cursor of the next page in a header, absent on the last page
+final class NextCursorResponse {
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private NextCursorResponse() {
+    }
+
+    static <T> ResponseEntity<T> of(T body, String nextCursor) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (nextCursor != null) {
+            response.header(NEXT_CURSOR_HEADER, nextCursor);
+        }
+        return response.body(body);
+    }
+}
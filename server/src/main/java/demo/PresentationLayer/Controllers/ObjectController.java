@@ -2,16 +2,23 @@ package demo.PresentationLayer.Controllers;
 
 import demo.PresentationLayer.Boundaries.ObjectBoundary;
 import demo.BusinessLogicLayer.Services.ObjectService;
+import demo.BusinessLogicLayer.Converters.CursorConverter;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Map;
+
 @RestController
 @RequestMapping(path = { "ambient-intelligence/objects" })
 public class ObjectController {
     private ObjectService objectService;
+    private CursorConverter cursorConverter;
 
-    public ObjectController(ObjectService objectService) {
+    public ObjectController(ObjectService objectService, CursorConverter cursorConverter) {
         this.objectService = objectService;
+        this.cursorConverter = cursorConverter;
     }
 
     @PostMapping(
@@ -23,15 +30,16 @@ public class ObjectController {
     }
 
     @GetMapping(produces = { MediaType.APPLICATION_JSON_VALUE })
-    public ObjectBoundary[] getAllObjects(
+    public ResponseEntity<ObjectBoundary[]> getAllObjects(
             @RequestParam(name = "userSystemID", required = true) String userSystemID,
             @RequestParam(name = "userEmail", required = true) String userEmail,
             @RequestParam(name = "size", required = false, defaultValue = "5") Integer size,
-            @RequestParam(name = "page", required = false, defaultValue = "0") Integer page) {
+            @RequestParam(name = "page", required = false, defaultValue = "0") Integer page,
+            @RequestParam(name = "cursor", required = false) String cursor) {
 
-        return this.objectService
-                .getAllObjects(userSystemID, userEmail, size, page)
-                .toArray(new ObjectBoundary[0]);
+        List<ObjectBoundary> objects = this.objectService
+                .getAllObjects(userSystemID, userEmail, size, page, cursor);
+        return NextCursorResponse.of(objects.toArray(new ObjectBoundary[0]), this.cursorConverter.nextObjectCursor(objects, size));
     }
 
     @GetMapping(
@@ -62,4 +70,17 @@ public class ObjectController {
         this.objectService.updateObject(systemID, objectID, userSystemID, userEmail, update,false);
     }
 
-}
\ No newline at end of file
+    // JSON Merge Patch (RFC 7386): only the fields present in the body are changed, null removes a field
+    @PatchMapping(
+            path = { "/{systemID}/{objectID}" },
+            consumes = { "application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE })
+    public void patchObject(
+            @PathVariable("systemID") String systemID,
+            @PathVariable("objectID") String objectID,
+            @RequestParam(name = "userSystemID", required = true) String userSystemID,
+            @RequestParam(name = "userEmail", required = true) String userEmail,
+            @RequestBody Map<String, Object> patch) {
+        this.objectService.patchObject(systemID, objectID, userSystemID, userEmail, patch);
+    }
+
+}
@@ -5,16 +5,22 @@ import demo.PresentationLayer.Boundaries.ObjectBoundary;
 import demo.BusinessLogicLayer.Exceptions.MyNotFoundException;
 import demo.DataAccessLayer.IDs.ObjectID;
 import demo.BusinessLogicLayer.Services.ObjectService;
+import demo.BusinessLogicLayer.Converters.CursorConverter;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 
 @RestController
 @RequestMapping(path = { "/objects" })
 public class RelationController {
     private ObjectService objects;
-    public RelationController(ObjectService objects) {
+    private CursorConverter cursorConverter;
+    public RelationController(ObjectService objects, CursorConverter cursorConverter) {
         this.objects = objects;
+        this.cursorConverter = cursorConverter;
     }
 
     @PutMapping(path = { "/{parentSystemID}/{parentObjectID}/children" }, consumes = { MediaType.APPLICATION_JSON_VALUE })
@@ -55,15 +61,16 @@ public class RelationController {
     @GetMapping(
             path = { "/{parentSystemID}/{parentObjectID}/children" },
             produces = { MediaType.APPLICATION_JSON_VALUE })
-    public ObjectBoundary[] getRelatedObjects(
+    public ResponseEntity<ObjectBoundary[]> getRelatedObjects(
             @PathVariable("parentSystemID") String systemID,
             @PathVariable("parentObjectID") String parentObjectID,
             @RequestParam(name = "userSystemID", required = true) String userSystemID,
             @RequestParam(name = "userEmail", required = true) String userEmail,
             @RequestParam(name = "size", required = false, defaultValue = "5") Integer size,
-            @RequestParam(name = "page", required = false, defaultValue = "0") Integer page) {
-        return this.objects
-                .getChildren(systemID, parentObjectID, userSystemID, userEmail, size, page)
-                .toArray(new ObjectBoundary[0]);
+            @RequestParam(name = "page", required = false, defaultValue = "0") Integer page,
+            @RequestParam(name = "cursor", required = false) String cursor) {
+        List<ObjectBoundary> objects = this.objects
+                .getChildren(systemID, parentObjectID, userSystemID, userEmail, size, page, cursor);
+        return NextCursorResponse.of(objects.toArray(new ObjectBoundary[0]), this.cursorConverter.nextObjectCursor(objects, size));
     }
 }
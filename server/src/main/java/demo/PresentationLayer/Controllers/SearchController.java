@@ -3,91 +3,102 @@ package demo.PresentationLayer.Controllers;
 
 import demo.PresentationLayer.Boundaries.ObjectBoundary;
 import demo.BusinessLogicLayer.Services.ObjectService;
+import demo.BusinessLogicLayer.Converters.CursorConverter;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping(path = "ambient-intelligence/objects")
 public class SearchController {
     private final ObjectService objectService;
+    private final CursorConverter cursorConverter;
 
-    public SearchController(ObjectService objectService) {
+    public SearchController(ObjectService objectService, CursorConverter cursorConverter) {
         this.objectService = objectService;
+        this.cursorConverter = cursorConverter;
     }
 
     @GetMapping(
             path = "/search/byAlias/{alias}",
             produces = MediaType.APPLICATION_JSON_VALUE)
-    public ObjectBoundary[] searchObjectsByExactAlias(
+    public ResponseEntity<ObjectBoundary[]> searchObjectsByExactAlias(
             @PathVariable("alias") String alias,
             @RequestParam(name = "userSystemID", required = true) String userSystemID,
             @RequestParam(name = "userEmail", required = true) String userEmail,
             @RequestParam(name = "size", required = false, defaultValue = "5") Integer size,
-            @RequestParam(name = "page", required = false, defaultValue = "0") Integer page) {
+            @RequestParam(name = "page", required = false, defaultValue = "0") Integer page,
+            @RequestParam(name = "cursor", required = false) String cursor) {
 
-        return this.objectService
-                .searchObjectsByExactAlias(alias, userSystemID, userEmail, size, page)
-                .toArray(new ObjectBoundary[0]);
+        List<ObjectBoundary> objects = this.objectService
+                .searchObjectsByExactAlias(alias, userSystemID, userEmail, size, page, cursor);
+        return NextCursorResponse.of(objects.toArray(new ObjectBoundary[0]), this.cursorConverter.nextObjectCursor(objects, size));
     }
 
     @GetMapping(
             path = "/search/byAliasPattern/{pattern}",
             produces = MediaType.APPLICATION_JSON_VALUE)
-    public ObjectBoundary[] searchObjectsByAliasPattern(
+    public ResponseEntity<ObjectBoundary[]> searchObjectsByAliasPattern(
             @PathVariable("pattern") String pattern,
             @RequestParam(name = "userSystemID", required = true) String userSystemID,
             @RequestParam(name = "userEmail", required = true) String userEmail,
             @RequestParam(name = "size", required = false, defaultValue = "5") Integer size,
-            @RequestParam(name = "page", required = false, defaultValue = "0") Integer page) {
+            @RequestParam(name = "page", required = false, defaultValue = "0") Integer page,
+            @RequestParam(name = "cursor", required = false) String cursor) {
 
-        return this.objectService
-                .searchObjectsByAliasPattern(pattern, userSystemID, userEmail, size, page)
-                .toArray(new ObjectBoundary[0]);
+        List<ObjectBoundary> objects = this.objectService
+                .searchObjectsByAliasPattern(pattern, userSystemID, userEmail, size, page, cursor);
+        return NextCursorResponse.of(objects.toArray(new ObjectBoundary[0]), this.cursorConverter.nextObjectCursor(objects, size));
     }
 
     @GetMapping(
             path = "/search/byType/{type}",
             produces = MediaType.APPLICATION_JSON_VALUE)
-    public ObjectBoundary[] searchObjectsByType(
+    public ResponseEntity<ObjectBoundary[]> searchObjectsByType(
             @PathVariable("type") String type,
             @RequestParam(name = "userSystemID", required = true) String userSystemID,
             @RequestParam(name = "userEmail", required = true) String userEmail,
             @RequestParam(name = "size", required = false, defaultValue = "5") Integer size,
-            @RequestParam(name = "page", required = false, defaultValue = "0") Integer page) {
+            @RequestParam(name = "page", required = false, defaultValue = "0") Integer page,
+            @RequestParam(name = "cursor", required = false) String cursor) {
 
-        return this.objectService
-                .searchObjectsByType(type, userSystemID, userEmail, size, page)
-                .toArray(new ObjectBoundary[0]);
+        List<ObjectBoundary> objects = this.objectService
+                .searchObjectsByType(type, userSystemID, userEmail, size, page, cursor);
+        return NextCursorResponse.of(objects.toArray(new ObjectBoundary[0]), this.cursorConverter.nextObjectCursor(objects, size));
     }
 
     @GetMapping(
             path = "/search/byStatus/{status}",
             produces = MediaType.APPLICATION_JSON_VALUE)
-    public ObjectBoundary[] searchObjectsByStatus(
+    public ResponseEntity<ObjectBoundary[]> searchObjectsByStatus(
             @PathVariable("status") String status,
             @RequestParam(name = "userSystemID", required = true) String userSystemID,
             @RequestParam(name = "userEmail", required = true) String userEmail,
             @RequestParam(name = "size", required = false, defaultValue = "5") Integer size,
-            @RequestParam(name = "page", required = false, defaultValue = "0") Integer page) {
+            @RequestParam(name = "page", required = false, defaultValue = "0") Integer page,
+            @RequestParam(name = "cursor", required = false) String cursor) {
 
-        return this.objectService
-                .searchObjectsByStatus(status, userSystemID, userEmail, size, page)
-                .toArray(new ObjectBoundary[0]);
+        List<ObjectBoundary> objects = this.objectService
+                .searchObjectsByStatus(status, userSystemID, userEmail, size, page, cursor);
+        return NextCursorResponse.of(objects.toArray(new ObjectBoundary[0]), this.cursorConverter.nextObjectCursor(objects, size));
     }
 
     @GetMapping(
             path = "/search/byTypeAndStatus/{type}/{status}",
             produces = MediaType.APPLICATION_JSON_VALUE)
-    public ObjectBoundary[] searchObjectsByTypeAndStatus(
+    public ResponseEntity<ObjectBoundary[]> searchObjectsByTypeAndStatus(
             @PathVariable("type") String type,
             @PathVariable("status") String status,
             @RequestParam(name = "userSystemID", required = true) String userSystemID,
             @RequestParam(name = "userEmail", required = true) String userEmail,
             @RequestParam(name = "size", required = false, defaultValue = "5") Integer size,
-            @RequestParam(name = "page", required = false, defaultValue = "0") Integer page) {
+            @RequestParam(name = "page", required = false, defaultValue = "0") Integer page,
+            @RequestParam(name = "cursor", required = false) String cursor) {
 
-        return this.objectService
-                .searchObjectsByTypeAndStatus(type, status, userSystemID, userEmail, size, page)
-                .toArray(new ObjectBoundary[0]);
+        List<ObjectBoundary> objects = this.objectService
+                .searchObjectsByTypeAndStatus(type, status, userSystemID, userEmail, size, page, cursor);
+        return NextCursorResponse.of(objects.toArray(new ObjectBoundary[0]), this.cursorConverter.nextObjectCursor(objects, size));
     }
 }
\ No newline at end of file
@@ -0,0 +1,116 @@
+package demo.PresentationLayer.Reactive;
+
+import demo.BusinessLogicLayer.Exceptions.MyInvalidInputException;
+import demo.BusinessLogicLayer.Services.ReactiveObjectService;
+import demo.PresentationLayer.Boundaries.ObjectBoundary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Handler functions of the reactive search and availability endpoints.
+ * Results are written as they arrive from the database: as a JSON array by default, or as one JSON object per
+ * line when the client accepts application/x-ndjson. Demand follows the client's reads, so a slow map view
+ * does not make the server buffer its page.
+ */
+@Component
+@Profile("reactive")
+public class ReactiveSearchHandler {
+
+    private final ReactiveObjectService objectService;
+
+    public ReactiveSearchHandler(ReactiveObjectService objectService) {
+        this.objectService = objectService;
+    }
+
+    public Mono<ServerResponse> searchObjectsByExactAlias(ServerRequest request) {
+        return respond(request, this.objectService.searchObjectsByExactAlias(
+                request.pathVariable("alias"),
+                requiredParam(request, "userSystemID"),
+                requiredParam(request, "userEmail"),
+                intParam(request, "size", 5),
+                intParam(request, "page", 0)));
+    }
+
+    public Mono<ServerResponse> searchObjectsByAliasPattern(ServerRequest request) {
+        return respond(request, this.objectService.searchObjectsByAliasPattern(
+                request.pathVariable("pattern"),
+                requiredParam(request, "userSystemID"),
+                requiredParam(request, "userEmail"),
+                intParam(request, "size", 5),
+                intParam(request, "page", 0)));
+    }
+
+    public Mono<ServerResponse> searchObjectsByType(ServerRequest request) {
+        return respond(request, this.objectService.searchObjectsByType(
+                request.pathVariable("type"),
+                requiredParam(request, "userSystemID"),
+                requiredParam(request, "userEmail"),
+                intParam(request, "size", 5),
+                intParam(request, "page", 0)));
+    }
+
+    public Mono<ServerResponse> searchObjectsByStatus(ServerRequest request) {
+        return respond(request, this.objectService.searchObjectsByStatus(
+                request.pathVariable("status"),
+                requiredParam(request, "userSystemID"),
+                requiredParam(request, "userEmail"),
+                intParam(request, "size", 5),
+                intParam(request, "page", 0)));
+    }
+
+    public Mono<ServerResponse> searchObjectsByTypeAndStatus(ServerRequest request) {
+        return respond(request, this.objectService.searchObjectsByTypeAndStatus(
+                request.pathVariable("type"),
+                request.pathVariable("status"),
+                requiredParam(request, "userSystemID"),
+                requiredParam(request, "userEmail"),
+                intParam(request, "size", 5),
+                intParam(request, "page", 0)));
+    }
+
+    // Same parameters as the getAvailableLockers command attributes, radius in km
+    public Mono<ServerResponse> getAvailableLockers(ServerRequest request) {
+        return respond(request, this.objectService.getAvailableLockers(
+                doubleParam(request, "latitude"),
+                doubleParam(request, "longitude"),
+                request.queryParam("radius").map(radius -> doubleParam(request, "radius")).orElse(5.0),
+                requiredParam(request, "userSystemID"),
+                requiredParam(request, "userEmail"),
+                intParam(request, "size", 20),
+                intParam(request, "page", 0),
+                request.queryParam("includeLockers").map(Boolean::parseBoolean).orElse(true)));
+    }
+
+    private Mono<ServerResponse> respond(ServerRequest request, Flux<ObjectBoundary> objects) {
+        MediaType contentType = request.headers().accept().contains(MediaType.APPLICATION_NDJSON)
+                ? MediaType.APPLICATION_NDJSON
+                : MediaType.APPLICATION_JSON;
+        return ServerResponse.ok().contentType(contentType).body(objects, ObjectBoundary.class);
+    }
+
+    private static String requiredParam(ServerRequest request, String name) {
+        return request.queryParam(name)
+                .orElseThrow(() -> new MyInvalidInputException("Missing request parameter " + name));
+    }
+
+    private static int intParam(ServerRequest request, String name, int defaultValue) {
+        try {
+            return request.queryParam(name).map(Integer::parseInt).orElse(defaultValue);
+        } catch (NumberFormatException e) {
+            throw new MyInvalidInputException("Request parameter " + name + " must be a number");
+        }
+    }
+
+    private static double doubleParam(ServerRequest request, String name) {
+        try {
+            return Double.parseDouble(requiredParam(request, name));
+        } catch (NumberFormatException e) {
+            throw new MyInvalidInputException("Invalid location parameters. Latitude and longitude are required as numbers");
+        }
+    }
+}
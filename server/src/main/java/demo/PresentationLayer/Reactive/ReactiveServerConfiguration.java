@@ -0,0 +1,105 @@
+package demo.PresentationLayer.Reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The "reactive" profile: the read-heavy search and availability endpoints are also served by a Reactor Netty
+ * server on reactive.server.port, next to the Spring MVC endpoints on server.port.
+ * A few event-loop threads (reactive.server.event-loop-threads, default one per core) multiplex every connection,
+ * so tens of thousands of concurrent map-view polls cost sockets and buffers instead of threads.
+ * The paths are the ones of SearchController, plus GET /ambient-intelligence/lockers/available for the
+ * getAvailableLockers command. Pages are selected with page/size; a streamed body has no next-cursor header.
+ */
+@Configuration(proxyBeanMethods = false)
+@Profile("reactive")
+public class ReactiveServerConfiguration {
+
+    private final Log log = LogFactory.getLog(ReactiveServerConfiguration.class);
+
+    @Bean(destroyMethod = "dispose")
+    public LoopResources reactiveServerLoops(
+            @Value("${reactive.server.event-loop-threads:0}") int eventLoopThreads) {
+        int threads = eventLoopThreads > 0 ? eventLoopThreads : Runtime.getRuntime().availableProcessors();
+        return LoopResources.create("reactive-http", 1, threads, true);
+    }
+
+    @Bean(destroyMethod = "disposeNow")
+    public DisposableServer reactiveServer(
+            ReactiveSearchHandler searchHandler,
+            ObjectMapper objectMapper,
+            LoopResources reactiveServerLoops,
+            @Value("${reactive.server.port:8086}") int port) {
+        // Same JSON mapping as the MVC endpoints
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .build();
+        HttpHandler httpHandler = RouterFunctions.toHttpHandler(routes(searchHandler), strategies);
+
+        DisposableServer server = HttpServer.create()
+                .port(port)
+                .runOn(reactiveServerLoops)
+                .handle(new ReactorHttpHandlerAdapter(httpHandler))
+                .bindNow();
+        log.info("Reactive endpoints listening on port " + server.port());
+        return server;
+    }
+
+    static RouterFunction<ServerResponse> routes(ReactiveSearchHandler searchHandler) {
+        return RouterFunctions.route()
+                .path("/ambient-intelligence", api -> api
+                        .GET("/objects/search/byAlias/{alias}", searchHandler::searchObjectsByExactAlias)
+                        .GET("/objects/search/byAliasPattern/{pattern}", searchHandler::searchObjectsByAliasPattern)
+                        .GET("/objects/search/byType/{type}", searchHandler::searchObjectsByType)
+                        .GET("/objects/search/byStatus/{status}", searchHandler::searchObjectsByStatus)
+                        .GET("/objects/search/byTypeAndStatus/{type}/{status}", searchHandler::searchObjectsByTypeAndStatus)
+                        .GET("/lockers/available", searchHandler::getAvailableLockers))
+                // Errors thrown by the handlers or signalled by the streams get the status of their @ResponseStatus
+                .filter((request, next) -> Mono.defer(() -> next.handle(request))
+                        .onErrorResume(error -> errorResponse(request, error)))
+                .build();
+    }
+
+    private static Mono<ServerResponse> errorResponse(ServerRequest request, Throwable error) {
+        ResponseStatus responseStatus = AnnotatedElementUtils.findMergedAnnotation(error.getClass(), ResponseStatus.class);
+        if (responseStatus == null) {
+            return Mono.error(error);
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", responseStatus.code().value());
+        body.put("error", responseStatus.code().getReasonPhrase());
+        body.put("message", error.getMessage());
+        body.put("path", request.path());
+        return ServerResponse.status(responseStatus.code())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body);
+    }
+}
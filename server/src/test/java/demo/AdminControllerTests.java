@@ -5,6 +5,8 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import org.springframework.core.ParameterizedTypeReference;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import demo.Enums.UserRole;
 import demo.PresentationLayer.Boundaries.*;
 import org.junit.jupiter.api.AfterEach;
@@ -384,6 +386,146 @@ public class AdminControllerTests {
 
         // Optionally, check that the commands are in the expected order or have expected content
     }
+    @Test
+    @DisplayName("Test Journaled Commands Are Visible In The History Right Away")
+    public void testJournaledCommandsAreVisibleInHistory() {
+        // GIVEN: an echo command, which the journal writes behind the response
+        CommandBoundary command = new CommandBoundary();
+        command.setCommand("echo");
+        command.setTargetObject(Map.of("id", Map.of("objectId", "*")));
+        command.setInvokedBy(Map.of("userId", this.regularUser.getUserId()));
+        command.setCommandAttributes(Map.of("msg", "journaled"));
+        commandsClient.post()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(command)
+                .retrieve()
+                .body(new ParameterizedTypeReference<List<Object>>() {});
+
+        // WHEN: Admin reads the history immediately
+        CommandBoundary[] history = adminClient.get()
+                .uri("/commands?userSystemID={sysId}&userEmail={email}&size=10&page=0",
+                        adminUser.getUserId().getSystemID(),
+                        adminUser.getUserId().getEmail())
+                .retrieve()
+                .body(CommandBoundary[].class);
+
+        // THEN: the command is there, with a server assigned id and timestamp
+        assertThat(history).hasSize(1);
+        assertThat(history[0].getCommandAttributes()).containsEntry("msg", "journaled");
+        assertThat(history[0].getCommandID().getCommandID()).isNotNull();
+        assertThat(history[0].getInvocationTimestamp()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Test Export Commands as NDJSON")
+    public void testExportCommandsAsNdjson() throws Exception {
+        // GIVEN: a few commands in the history
+        int numCommands = 3;
+        for (int i = 0; i < numCommands; i++) {
+            CommandBoundary command = new CommandBoundary();
+            command.setCommand("echo");
+            command.setTargetObject(Map.of("id", Map.of("objectId", "*")));
+            command.setInvokedBy(Map.of("userId", this.regularUser.getUserId()));
+            command.setCommandAttributes(Map.of("msg", "export" + i));
+            commandsClient.post()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(command)
+                    .retrieve()
+                    .body(new ParameterizedTypeReference<List<Object>>() {});
+        }
+
+        // WHEN: Admin exports the history
+        String export = adminClient.get()
+                .uri("/commands/export?userSystemID={sysId}&userEmail={email}",
+                        adminUser.getUserId().getSystemID(),
+                        adminUser.getUserId().getEmail())
+                .accept(MediaType.APPLICATION_NDJSON)
+                .retrieve()
+                .body(String.class);
+
+        // THEN: every line is one command, in invocation order
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<String> lines = export.lines().toList();
+        assertThat(lines).hasSize(numCommands);
+        for (int i = 0; i < numCommands; i++) {
+            CommandBoundary command = objectMapper.readValue(lines.get(i), CommandBoundary.class);
+            assertThat(command.getCommandAttributes()).containsEntry("msg", "export" + i);
+        }
+
+        // AND: a range ending before the first command is empty
+        String emptyExport = adminClient.get()
+                .uri("/commands/export?userSystemID={sysId}&userEmail={email}&to={to}",
+                        adminUser.getUserId().getSystemID(),
+                        adminUser.getUserId().getEmail(),
+                        "2000-01-01T00:00:00Z")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .retrieve()
+                .body(String.class);
+        assertThat(emptyExport == null ? "" : emptyExport).isEmpty();
+    }
+
+    @Test
+    @DisplayName("test Export Commands Fails for Non-ADMIN")
+    public void testExportCommandsFailsForNonAdmin() {
+        assertThatThrownBy(() -> adminClient.get()
+                .uri("/commands/export?userSystemID={sysId}&userEmail={email}",
+                        this.regularUser.getUserId().getSystemID(),
+                        this.regularUser.getUserId().getEmail())
+                .accept(MediaType.APPLICATION_NDJSON)
+                .retrieve()
+                .body(String.class))
+                .isInstanceOf(HttpClientErrorException.class)
+                .hasFieldOrPropertyWithValue("statusCode", HttpStatus.FORBIDDEN);
+    }
+
+    @Test
+    @DisplayName("Test Query Profile Attributes Queries To Service Methods")
+    public void testQueryProfileAttributesQueries() {
+        // GIVEN: a fresh profiling window
+        adminClient.delete()
+                .uri("/mongo/queries?userSystemID={sysId}&userEmail={email}",
+                        adminUser.getUserId().getSystemID(),
+                        adminUser.getUserId().getEmail())
+                .retrieve()
+                .toBodilessEntity();
+
+        // WHEN: Admin reads a page of users and then the query profile
+        adminClient.get()
+                .uri("/users?userSystemID={sysId}&userEmail={email}&page=0&size=10",
+                        adminUser.getUserId().getSystemID(),
+                        adminUser.getUserId().getEmail())
+                .retrieve()
+                .body(UserBoundary[].class);
+        QueryShapeBoundary[] shapes = adminClient.get()
+                .uri("/mongo/queries?userSystemID={sysId}&userEmail={email}",
+                        adminUser.getUserId().getSystemID(),
+                        adminUser.getUserId().getEmail())
+                .retrieve()
+                .body(QueryShapeBoundary[].class);
+
+        // THEN: the USERS page query is listed with the service method that issued it
+        assertThat(shapes)
+                .filteredOn(shape -> "USERS".equals(shape.getCollection()) && "find".equals(shape.getCommand()))
+                .anySatisfy(shape -> {
+                    assertThat(shape.getOrigins()).containsKey("UserServiceImpl.getAllUsers");
+                    assertThat(shape.getCount()).isPositive();
+                    assertThat(shape.getShape()).doesNotContain(ADMIN_EMAIL);
+                });
+    }
+
+    @Test
+    @DisplayName("test Query Profile Fails for Non-ADMIN")
+    public void testQueryProfileFailsForNonAdmin() {
+        assertThatThrownBy(() -> adminClient.get()
+                .uri("/mongo/queries?userSystemID={sysId}&userEmail={email}",
+                        this.regularUser.getUserId().getSystemID(),
+                        this.regularUser.getUserId().getEmail())
+                .retrieve()
+                .body(QueryShapeBoundary[].class))
+                .isInstanceOf(HttpClientErrorException.class)
+                .hasFieldOrPropertyWithValue("statusCode", HttpStatus.FORBIDDEN);
+    }
+
     @Test
     @DisplayName("test Get All Commands Fails for Non-ADMIN")
     public void testGetAllCommandsFailsForNonAdmin() throws Exception {
@@ -4,21 +4,38 @@ import demo.Enums.UserRole;
 import demo.PresentationLayer.Boundaries.*;
 import demo.DataAccessLayer.IDs.UserID;
 
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.BsonValue;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClient;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.fail;
@@ -44,6 +61,46 @@ public class CommandControllerTests {
     private UserBoundary end_user;
     private UserBoundary adminUser;
 
+    @Autowired
+    private MongoCommandCounter mongoCommandCounter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Counts the commands the Mongo driver sends, per command name and collection
+    static class MongoCommandCounter implements CommandListener {
+        private final Map<String, AtomicInteger> counts = new ConcurrentHashMap<>();
+
+        @Override
+        public void commandStarted(CommandStartedEvent event) {
+            BsonValue collection = event.getCommand().get(event.getCommandName());
+            String key = event.getCommandName() + " " + (collection != null && collection.isString() ? collection.asString().getValue() : "");
+            counts.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+        }
+
+        int count(String commandName, String collection) {
+            AtomicInteger count = counts.get(commandName + " " + collection);
+            return count == null ? 0 : count.get();
+        }
+
+        void reset() {
+            counts.clear();
+        }
+    }
+
+    @TestConfiguration
+    static class MongoCommandCounterConfiguration {
+        @Bean
+        MongoCommandCounter mongoCommandCounter() {
+            return new MongoCommandCounter();
+        }
+
+        @Bean
+        MongoClientSettingsBuilderCustomizer mongoCommandCounterCustomizer(MongoCommandCounter mongoCommandCounter) {
+            return builder -> builder.addCommandListener(mongoCommandCounter);
+        }
+    }
+
     @LocalServerPort
     public void setPort(int port) {
         this.port = port;
@@ -222,4 +279,210 @@ public class CommandControllerTests {
                 .isInstanceOf(HttpClientErrorException.class)
                 .hasFieldOrPropertyWithValue("statusCode", HttpStatus.NOT_FOUND);
     }
-}
\ No newline at end of file
+
+    private ObjectBoundary createObjectAsOperator(String type, String status, Map<String, Object> objectDetails) {
+        ObjectBoundary object = new ObjectBoundary();
+        object.setType(type);
+        object.setAlias(type + " " + System.nanoTime());
+        object.setStatus(status);
+        object.setActive(true);
+        object.setCreatedBy(Map.of("userId", this.operatorUser.getUserId()));
+        object.setObjectDetails(new HashMap<>(objectDetails));
+
+        return objectsClient.post()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(object)
+                .retrieve()
+                .body(ObjectBoundary.class);
+    }
+
+    private CommandBoundary changeLockerStatusCommand(ObjectBoundary locker, ObjectBoundary reservation) {
+        CommandBoundary command = new CommandBoundary();
+        command.setCommand("changeLockerStatus");
+        command.setTargetObject(Map.of("id", Map.of("objectId", locker.getObjectID().getID(), "systemID", this.appName)));
+        command.setInvokedBy(Map.of("userId", this.end_user.getUserId()));
+        command.setCommandAttributes(Map.of("reservationId", reservation.getObjectID().getID()));
+        return command;
+    }
+
+    // Success: the caller is loaded from USERS once per changeLockerStatus request
+    @Test
+    @DisplayName("Invoke changeLockerStatus loads the invoking user once")
+    public void testChangeLockerStatusLoadsInvokingUserOnce() {
+        ObjectBoundary locker = createObjectAsOperator("locker", "available", Map.of("isLocked", false));
+        ObjectBoundary reservation = createObjectAsOperator("reservation", "active", Map.of("lockerId", locker.getObjectID().getID()));
+
+        this.mongoCommandCounter.reset();
+
+        List<Object> result = commandsClient.post()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(changeLockerStatusCommand(locker, reservation))
+                .retrieve()
+                .body(List.class);
+
+        assertThat(result).hasSize(1);
+        assertThat(((Map<?, ?>) ((Map<?, ?>) result.get(0)).get("objectDetails")).get("isLocked")).isEqualTo(true);
+        assertThat(this.mongoCommandCounter.count("find", "USERS")).isEqualTo(1);
+    }
+
+    // Success: once resolved, the invoking user is served from the user cache
+    @Test
+    @DisplayName("Invoke command twice reads the invoking user from USERS only once")
+    public void testRepeatedCommandsUseCachedUser() {
+        CommandBoundary command = new CommandBoundary();
+        command.setCommand("echo");
+        command.setTargetObject(Map.of("id", Map.of("objectId", "*")));
+        command.setInvokedBy(Map.of("userId", this.end_user.getUserId()));
+        command.setCommandAttributes(Map.of("message", "Hello Cache"));
+
+        this.mongoCommandCounter.reset();
+
+        commandsClient.post().contentType(MediaType.APPLICATION_JSON).body(command).retrieve().body(List.class);
+        commandsClient.post().contentType(MediaType.APPLICATION_JSON).body(command).retrieve().body(List.class);
+
+        assertThat(this.mongoCommandCounter.count("find", "USERS")).isEqualTo(1);
+    }
+
+    // Success: get returns the object loaded by its TARGET_ACTIVE pre-check without reading it again
+    @Test
+    @DisplayName("Invoke get reads the target object once and is timed by its handler")
+    public void testGetCommandReadsTargetOnce() {
+        ObjectBoundary locker = createObjectAsOperator("locker", "available", Map.of("isLocked", false));
+
+        CommandBoundary command = new CommandBoundary();
+        command.setCommand("get");
+        command.setTargetObject(Map.of("id", Map.of("objectId", locker.getObjectID().getID(), "systemID", this.appName)));
+        command.setInvokedBy(Map.of("userId", this.end_user.getUserId()));
+        command.setCommandAttributes(Map.of());
+
+        long timedBefore = this.meterRegistry.timer("commands.handler.latency", "command", "get").count();
+        this.mongoCommandCounter.reset();
+
+        List<Object> result = commandsClient.post()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(command)
+                .retrieve()
+                .body(List.class);
+
+        assertThat(result).hasSize(1);
+        assertThat(((Map<?, ?>) result.get(0)).get("alias")).isEqualTo(locker.getAlias());
+        assertThat(this.mongoCommandCounter.count("find", "OBJECTS")).isEqualTo(1);
+        assertThat(this.meterRegistry.timer("commands.handler.latency", "command", "get").count() - timedBefore).isEqualTo(1);
+    }
+
+    // Success: getReservationsByStatus pages through the target user's reservations only
+    @Test
+    @DisplayName("Invoke getReservationsByStatus returns one page of the target user's reservations")
+    public void testGetReservationsByStatusPagesTargetUserReservations() {
+        // GIVEN three reservations of the operator and one of another operator
+        ObjectBoundary locker = createObjectAsOperator("locker", "available", Map.of("isLocked", true));
+        List<String> ownReservations = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ownReservations.add(createObjectAsOperator("reservation", "active",
+                    Map.of("lockerId", locker.getObjectID().getID())).getObjectID().getID());
+        }
+        UserBoundary otherOperator = usersClient.post().contentType(MediaType.APPLICATION_JSON)
+                .body(new NewUserBoundary("other.operator.cmd@example.com", UserRole.OPERATOR,
+                        new UserNameBoundary("Other", "Operator"), "op_cmd_avatar.png"))
+                .retrieve().body(UserBoundary.class);
+        ObjectBoundary otherReservation = new ObjectBoundary();
+        otherReservation.setType("reservation");
+        otherReservation.setAlias("reservation " + System.nanoTime());
+        otherReservation.setStatus("active");
+        otherReservation.setActive(true);
+        otherReservation.setCreatedBy(Map.of("userId", otherOperator.getUserId()));
+        otherReservation.setObjectDetails(new HashMap<>(Map.of("lockerId", locker.getObjectID().getID())));
+        objectsClient.post().contentType(MediaType.APPLICATION_JSON).body(otherReservation).retrieve().toBodilessEntity();
+
+        // WHEN the end user asks for the operator's active reservations two at a time
+        List<Object> firstPage = getReservationsByStatus(locker, 2, 0);
+        List<Object> secondPage = getReservationsByStatus(locker, 2, 1);
+
+        // THEN the two pages hold exactly the operator's three reservations
+        List<Object> returned = new ArrayList<>(firstPage);
+        returned.addAll(secondPage);
+        assertThat(firstPage).hasSize(2);
+        assertThat(secondPage).hasSize(1);
+        assertThat(returned)
+                .extracting(entry -> ((Map<?, ?>) entry).get("reservationId"))
+                .containsExactlyInAnyOrderElementsOf(ownReservations);
+
+        // AND without paging attributes all of them come back in one page, as before paging existed
+        assertThat(getReservationsByStatus(locker, null, null))
+                .extracting(entry -> ((Map<?, ?>) entry).get("reservationId"))
+                .containsExactlyInAnyOrderElementsOf(ownReservations);
+    }
+
+    // size and page are left out of the attributes when null
+    private List<Object> getReservationsByStatus(ObjectBoundary target, Integer size, Integer page) {
+        CommandBoundary command = new CommandBoundary();
+        command.setCommand("getReservationsByStatus");
+        command.setTargetObject(Map.of("id", Map.of("objectId", target.getObjectID().getID(), "systemID", this.appName)));
+        command.setInvokedBy(Map.of("userId", this.end_user.getUserId()));
+        Map<String, Object> attributes = new HashMap<>(Map.of(
+                "email", this.operatorUser.getUserId().getEmail(),
+                "systemID", this.operatorUser.getUserId().getSystemID(),
+                "status", "active"));
+        if (size != null) {
+            attributes.put("size", size);
+        }
+        if (page != null) {
+            attributes.put("page", page);
+        }
+        command.setCommandAttributes(attributes);
+
+        return commandsClient.post()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(command)
+                .retrieve()
+                .body(List.class);
+    }
+
+    // Success: concurrent toggles of one locker are all applied, none cancels another
+    @Test
+    @DisplayName("Invoke changeLockerStatus concurrently applies every toggle")
+    public void testConcurrentChangeLockerStatusNeverLosesAToggle() throws Exception {
+        ObjectBoundary locker = createObjectAsOperator("locker", "available", Map.of("isLocked", false));
+        ObjectBoundary reservation = createObjectAsOperator("reservation", "active", Map.of("lockerId", locker.getObjectID().getID()));
+        CommandBoundary command = changeLockerStatusCommand(locker, reservation);
+
+        int toggles = 25;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < toggles; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                List<?> result = commandsClient.post()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(command)
+                        .retrieve()
+                        .body(List.class);
+                return (Boolean) ((Map<?, ?>) ((Map<?, ?>) result.get(0)).get("objectDetails")).get("isLocked");
+            }));
+        }
+
+        this.mongoCommandCounter.reset();
+        start.countDown();
+
+        int lockedResponses = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(30, TimeUnit.SECONDS)) {
+                lockedResponses++;
+            }
+        }
+        executor.shutdown();
+
+        // Each toggle saw a distinct state: starting unlocked, half of them (rounded up) locked the locker
+        assertThat(lockedResponses).isEqualTo((toggles + 1) / 2);
+        assertThat(this.mongoCommandCounter.count("findAndModify", "OBJECTS")).isEqualTo(toggles);
+
+        ObjectBoundary stored = objectsClient.get()
+                .uri("/{systemID}/{objectID}?userSystemID={userSysId}&userEmail={userEmail}",
+                        locker.getObjectID().getSystemID(), locker.getObjectID().getID(),
+                        this.operatorUser.getUserId().getSystemID(), this.operatorUser.getUserId().getEmail())
+                .retrieve()
+                .body(ObjectBoundary.class);
+        assertThat(stored.getObjectDetails().get("isLocked")).isEqualTo(toggles % 2 == 1);
+    }
+}
@@ -0,0 +1,113 @@
+package demo;
+
+import demo.BusinessLogicLayer.Services.CommandJournal;
+import demo.DataAccessLayer.CRUDs.CommandCrud;
+import demo.DataAccessLayer.Entities.CommandEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "commands.journal.default-policy=ASYNC",
+                "commands.journal.sync=create",
+                "commands.journal.flush-interval=1h"
+        })
+public class CommandJournalTests {
+
+    @Autowired
+    private CommandJournal commandJournal;
+
+    @Autowired
+    private CommandCrud commandCrud;
+
+    @BeforeEach
+    public void setUp() {
+        this.commandJournal.flush();
+        this.commandCrud.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Test A Duplicate Command Does Not Discard The Rest Of Its Batch")
+    public void testDuplicateDoesNotDiscardBatch() {
+        // GIVEN: a command id that is already stored
+        this.commandCrud.insert(command("client-id", "echo", "first"));
+
+        // WHEN: a batch holding that id between two new commands is written
+        this.commandJournal.record(command("before-duplicate", "echo", "before"));
+        this.commandJournal.record(command("client-id", "echo", "second"));
+        this.commandJournal.record(command("after-duplicate", "echo", "after"));
+        this.commandJournal.flush();
+
+        // THEN: the new commands are stored and the duplicate counts as already written
+        assertThat(this.commandCrud.findAll())
+                .extracting(CommandEntity::getCommandID)
+                .containsExactlyInAnyOrder("client-id", "before-duplicate", "after-duplicate");
+        assertThat(this.commandCrud.findById("client-id").orElseThrow().getCommandAttributes())
+                .containsEntry("message", "first");
+    }
+
+    @Test
+    @DisplayName("Test A Duplicate Synchronous Command Is Not An Error")
+    public void testDuplicateSyncCommandIsIgnored() {
+        // GIVEN: a command id that is already stored
+        this.commandCrud.insert(command("client-create", "create", "first"));
+
+        // WHEN: a SYNC command reuses it
+        this.commandJournal.record(command("client-create", "create", "second"));
+
+        // THEN: nothing is thrown and the stored command is kept
+        assertThat(this.commandCrud.findAll()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Test A Batch Larger Than The Batch Size Is Written Completely")
+    public void testLargeBatchIsWritten() {
+        // GIVEN: more buffered commands than one insert takes, with a duplicate in the first batch
+        this.commandCrud.insert(command("cmd-7", "echo", "stored"));
+        for (int i = 0; i < 450; i++) {
+            this.commandJournal.record(command("cmd-" + i, "echo", "message " + i));
+        }
+
+        // WHEN: the journal is flushed
+        this.commandJournal.flush();
+
+        // THEN: every command is stored once
+        List<CommandEntity> stored = this.commandCrud.findAll();
+        assertThat(stored).hasSize(450);
+    }
+
+    @Test
+    @DisplayName("Test The Reader Flush Writes The Commands Recorded Before It")
+    public void testReaderFlushWritesRecordedCommands() {
+        // GIVEN: buffered commands over more than one batch
+        for (int i = 0; i < 250; i++) {
+            this.commandJournal.record(command("read-" + i, "echo", "message " + i));
+        }
+
+        // WHEN: a reader of the history flushes the journal
+        boolean complete = this.commandJournal.flushRecorded();
+
+        // THEN: every command recorded before is stored and the flush reports it as complete
+        assertThat(complete).isTrue();
+        assertThat(this.commandCrud.count()).isEqualTo(250);
+    }
+
+    private CommandEntity command(String id, String type, String message) {
+        CommandEntity command = new CommandEntity();
+        command.setCommandID(id);
+        command.setCommand(type);
+        command.setInvocationTimestamp(new Date());
+        command.setCommandAttributes(Map.of("message", message));
+        return command;
+    }
+}
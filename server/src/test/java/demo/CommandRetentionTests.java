@@ -0,0 +1,64 @@
+package demo;
+
+import demo.BusinessLogicLayer.Services.CommandRetention;
+import demo.DataAccessLayer.CRUDs.CommandCrud;
+import demo.DataAccessLayer.Entities.CommandEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "commands.retention.default=30d",
+                "commands.retention.by-type=echo:1h",
+                "commands.retention.interval=1h"
+        })
+public class CommandRetentionTests {
+
+    @Autowired
+    private CommandRetention commandRetention;
+
+    @Autowired
+    private CommandCrud commandCrud;
+
+    @BeforeEach
+    public void setUp() {
+        this.commandCrud.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Test Commands Are Pruned By The Retention Of Their Type")
+    public void testCommandsArePrunedByType() {
+        // GIVEN: commands on both sides of the echo (1h) and default (30d) retentions
+        this.commandCrud.insert(command("old-echo", "echo", Duration.ofHours(2)));
+        this.commandCrud.insert(command("old-echo-mixed-case", "ECHO", Duration.ofHours(2)));
+        this.commandCrud.insert(command("new-echo", "echo", Duration.ofMinutes(5)));
+        this.commandCrud.insert(command("recent-create", "create", Duration.ofDays(2)));
+        this.commandCrud.insert(command("old-create", "create", Duration.ofDays(40)));
+
+        // WHEN: the retention job runs
+        long deleted = this.commandRetention.prune();
+
+        // THEN: only the commands past their retention are gone
+        assertThat(deleted).isEqualTo(3);
+        assertThat(this.commandCrud.findAll())
+                .extracting(CommandEntity::getCommandID)
+                .containsExactlyInAnyOrder("new-echo", "recent-create");
+    }
+
+    private CommandEntity command(String id, String type, Duration age) {
+        CommandEntity command = new CommandEntity();
+        command.setCommandID(id);
+        command.setCommand(type);
+        command.setInvocationTimestamp(new Date(System.currentTimeMillis() - age.toMillis()));
+        return command;
+    }
+}
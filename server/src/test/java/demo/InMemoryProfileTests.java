@@ -0,0 +1,75 @@
+package demo;
+
+import demo.BusinessLogicLayer.Services.UserService;
+import demo.DataAccessLayer.CRUDs.ObjectCrud;
+import demo.DataAccessLayer.Entities.ObjectEntity;
+import demo.Enums.UserRole;
+import demo.PresentationLayer.Boundaries.NewUserBoundary;
+import demo.PresentationLayer.Boundaries.UserBoundary;
+import demo.PresentationLayer.Boundaries.UserNameBoundary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs without a MongoDB: the "inmemory" profile backs the CRUDs with an in-process server
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("inmemory")
+public class InMemoryProfileTests {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ObjectCrud objectCrud;
+
+    @BeforeEach
+    public void setUp() {
+        this.objectCrud.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Test Users Are Stored In The In-Memory Profile")
+    public void testUsersAreStored() {
+        UserBoundary created = this.userService.createUser(new NewUserBoundary(
+                "inmemory@example.com", UserRole.END_USER, new UserNameBoundary("In", "Memory"), "avatar.png"));
+
+        Optional<UserBoundary> loggedIn = this.userService.login(
+                created.getUserId().getSystemID(), created.getUserId().getEmail());
+
+        assertThat(loggedIn).isPresent();
+        assertThat(loggedIn.get().getUsername().getLast()).isEqualTo("Memory");
+    }
+
+    @Test
+    @DisplayName("Test Derived Finders Page And Sort In The In-Memory Profile")
+    public void testDerivedFindersPageAndSort() {
+        for (int i = 0; i < 7; i++) {
+            ObjectEntity locker = new ObjectEntity();
+            locker.setId("locker-" + i);
+            locker.setType(i % 2 == 0 ? "locker" : "lockerBlock");
+            locker.setAlias("Locker " + i);
+            locker.setStatus("available");
+            locker.setActive(true);
+            locker.setCreationTimestamp(new Date(1_700_000_000_000L + i));
+            this.objectCrud.save(locker);
+        }
+
+        List<ObjectEntity> secondPage = this.objectCrud.findAllByType(
+                "locker", PageRequest.of(1, 2, Sort.Direction.DESC, "creationTimestamp", "id"));
+
+        assertThat(secondPage)
+                .extracting(ObjectEntity::getId)
+                .containsExactly("locker-2", "locker-0");
+    }
+}
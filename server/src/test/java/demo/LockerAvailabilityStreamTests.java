@@ -0,0 +1,125 @@
+package demo;
+
+import demo.BusinessLogicLayer.Services.LockerAvailabilityReconciler;
+import demo.DataAccessLayer.CRUDs.ObjectCrud;
+import demo.PresentationLayer.Boundaries.ObjectBoundary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static demo.LockerTestSupport.coordinates;
+import static demo.LockerTestSupport.id;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "lockers.availability.push-interval=100ms",
+                "lockers.availability.reconcile-interval=1h"
+        })
+public class LockerAvailabilityStreamTests {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectCrud objectCrud;
+
+    @Autowired
+    private LockerAvailabilityReconciler reconciler;
+
+    @Autowired
+    private LockerTestSupport lockers;
+
+    private CompletableFuture<HttpResponse<Stream<String>>> stream;
+
+    @BeforeEach
+    public void setUp() {
+        this.objectCrud.deleteAll();
+        this.reconciler.reconcile();
+        this.lockers.createOperator();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (this.stream != null) {
+            this.stream.cancel(true);
+        }
+    }
+
+    @Test
+    @DisplayName("Test A Subscriber Receives The Snapshot And Then The Availability Changes")
+    public void testSnapshotThenChanges() throws Exception {
+        // GIVEN: a block with an available locker inside the subscribed radius
+        ObjectBoundary existing = this.lockers.create("lockerBlock", "available", coordinates(32.0800, 34.7800));
+        this.lockers.bind(existing, this.lockers.create("locker", "available", new HashMap<>(Map.of("size", "small"))));
+
+        // WHEN: a client subscribes around it
+        BlockingQueue<String> events = subscribe(32.0750, 34.7800, 5);
+
+        // THEN: the snapshot has the block
+        assertThat(nextEvent(events, "snapshot")).contains(id(existing));
+
+        // AND WHEN: a new block gets an available locker and a block outside the radius too
+        ObjectBoundary added = this.lockers.create("lockerBlock", "available", coordinates(32.0900, 34.7800));
+        ObjectBoundary addedLocker = this.lockers.create("locker", "available", new HashMap<>(Map.of("size", "large")));
+        this.lockers.bind(added, addedLocker);
+        ObjectBoundary outside = this.lockers.create("lockerBlock", "available", coordinates(32.5000, 34.7800));
+        this.lockers.bind(outside, this.lockers.create("locker", "available", new HashMap<>(Map.of("size", "small"))));
+
+        // THEN: only the block inside the radius is pushed
+        String changes = nextEvent(events, "changes");
+        assertThat(changes).contains(id(added)).doesNotContain(id(outside));
+
+        // AND WHEN: its only locker is taken
+        this.lockers.patch(addedLocker, Map.of("status", "reserved"));
+
+        // THEN: the block is reported as removed
+        assertThat(nextEvent(events, "changes")).contains("\"removed\":[\"" + id(added) + "\"]");
+    }
+
+    // Opens the stream and returns its "event:<name>|<data>" entries as they arrive
+    private BlockingQueue<String> subscribe(double latitude, double longitude, double radiusKm) {
+        BlockingQueue<String> events = new LinkedBlockingQueue<>();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + this.port
+                        + "/ambient-intelligence/lockers/available/stream?latitude=" + latitude + "&longitude=" + longitude
+                        + "&radius=" + radiusKm + "&userSystemID=" + this.lockers.operatorSystemId() + "&userEmail=" + this.lockers.operatorEmail()))
+                .header("Accept", "text/event-stream")
+                .build();
+        this.stream = HttpClient.newHttpClient().sendAsync(request, HttpResponse.BodyHandlers.ofLines());
+        this.stream.thenAccept(response -> {
+            String[] name = {null};
+            response.body().forEach(line -> {
+                if (line.startsWith("event:")) {
+                    name[0] = line.substring("event:".length());
+                } else if (line.startsWith("data:") && name[0] != null) {
+                    events.add(name[0] + "|" + line.substring("data:".length()));
+                    name[0] = null;
+                }
+            });
+        });
+        return events;
+    }
+
+    private static String nextEvent(BlockingQueue<String> events, String name) throws InterruptedException {
+        String event = events.poll(10, TimeUnit.SECONDS);
+        assertThat(event).as("a %s event", name).isNotNull().startsWith(name + "|");
+        return event;
+    }
+}
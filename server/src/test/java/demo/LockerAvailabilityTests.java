@@ -0,0 +1,84 @@
+package demo;
+
+import demo.BusinessLogicLayer.Services.LockerAvailabilityReconciler;
+import demo.DataAccessLayer.CRUDs.ObjectCrud;
+import demo.PresentationLayer.Boundaries.ObjectBoundary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static demo.LockerTestSupport.coordinates;
+import static demo.LockerTestSupport.id;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "lockers.availability.reconcile-interval=1h")
+public class LockerAvailabilityTests {
+
+    @Autowired
+    private ObjectCrud objectCrud;
+
+    @Autowired
+    private LockerAvailabilityReconciler reconciler;
+
+    @Autowired
+    private LockerTestSupport lockers;
+
+    @BeforeEach
+    public void setUp() {
+        this.objectCrud.deleteAll();
+        this.lockers.createOperator();
+    }
+
+    @Test
+    @DisplayName("Test Block Counters Follow The Status And Active Flag Of Its Lockers")
+    public void testCountersFollowLockerChanges() {
+        // GIVEN: a block with an available small locker, an available large locker and one out of order
+        ObjectBoundary block = this.lockers.create("lockerBlock", "available", coordinates(32.1, 34.8));
+        ObjectBoundary small = this.lockers.bind(block, this.lockers.create("locker", "available", new HashMap<>(Map.of("size", "small"))));
+        ObjectBoundary large = this.lockers.bind(block, this.lockers.create("locker", "available", new HashMap<>(Map.of("size", "Large"))));
+        this.lockers.bind(block, this.lockers.create("locker", "OutOfOrder", new HashMap<>(Map.of("size", "small"))));
+
+        assertThat(this.lockers.details(block)).containsEntry("availableCount", 2)
+                .containsEntry("availableBySize", Map.of("small", 1, "large", 1));
+
+        // WHEN: the small locker is reserved through updateObject and the large one is deactivated by a patch
+        small.setStatus("reserved");
+        this.lockers.update(small);
+        this.lockers.patch(large, Map.of("active", false));
+
+        // THEN: the block has no available locker left
+        assertThat(this.lockers.details(block)).containsEntry("availableCount", 0);
+
+        // AND WHEN: the large locker is activated again
+        this.lockers.patch(large, Map.of("active", true));
+
+        // THEN: it counts again
+        assertThat(this.lockers.details(block)).containsEntry("availableCount", 1)
+                .containsEntry("availableBySize", Map.of("small", 0, "large", 1));
+    }
+
+    @Test
+    @DisplayName("Test Reconciliation Repairs Counters That Drifted")
+    public void testReconciliationRepairsDrift() {
+        // GIVEN: a block with one available locker whose counters were changed behind the service's back
+        ObjectBoundary block = this.lockers.create("lockerBlock", "available", coordinates(32.1, 34.8));
+        this.lockers.bind(block, this.lockers.create("locker", "available", new HashMap<>(Map.of("size", "medium"))));
+        this.objectCrud.incrementAvailability(id(block), "small", 3);
+
+        // WHEN: the reconciliation job runs
+        int repaired = this.reconciler.reconcile();
+
+        // THEN: the counters match the lockers again, and a second run finds nothing to repair
+        assertThat(repaired).isEqualTo(1);
+        assertThat(this.lockers.details(block)).containsEntry("availableCount", 1)
+                .containsEntry("availableBySize", Map.of("medium", 1));
+        assertThat(this.reconciler.reconcile()).isZero();
+    }
+}
@@ -0,0 +1,166 @@
+package demo;
+
+import demo.BusinessLogicLayer.Services.LockerAvailabilityReconciler;
+import demo.BusinessLogicLayer.Services.LockerBlockIndex;
+import demo.BusinessLogicLayer.Services.ObjectService;
+import demo.DataAccessLayer.CRUDs.ObjectCrud;
+import demo.DataAccessLayer.Entities.ObjectEntity;
+import demo.PresentationLayer.Boundaries.ObjectBoundary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static demo.LockerTestSupport.id;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "lockers.availability.reconcile-interval=1h")
+public class LockerBlockIndexTests {
+
+    @Autowired
+    private ObjectService objectService;
+
+    @Autowired
+    private ObjectCrud objectCrud;
+
+    @Autowired
+    private LockerAvailabilityReconciler reconciler;
+
+    @Autowired
+    private LockerBlockIndex lockerBlockIndex;
+
+    @Autowired
+    private LockerTestSupport lockers;
+
+    @BeforeEach
+    public void setUp() {
+        this.objectCrud.deleteAll();
+        this.lockers.createOperator();
+        // Loads the index from the (now empty) collection
+        this.reconciler.reconcile();
+    }
+
+    @Test
+    @DisplayName("Test Nearby Blocks Are Served From The Spatial Index Nearest First")
+    public void testNearbyBlocksNearestFirst() {
+        // GIVEN: three blocks with an available locker at about 0.6, 1.1 and 2.2 km, one empty block and one 20 km away
+        ObjectBoundary near = this.lockers.blockWithLocker(32.0805, 34.7800, "available");
+        ObjectBoundary middle = this.lockers.blockWithLocker(32.0850, 34.7800, "available");
+        ObjectBoundary far = this.lockers.blockWithLocker(32.0950, 34.7800, "available");
+        this.lockers.blockWithLocker(32.0810, 34.7810, "OutOfOrder");
+        this.lockers.blockWithLocker(32.2550, 34.7800, "available");
+
+        // WHEN: the blocks within 5 km of the query point are searched
+        assertThat(this.lockerBlockIndex.isReady()).isTrue();
+        List<ObjectBoundary> firstPage = search(5, 2, 0);
+        List<ObjectBoundary> secondPage = search(5, 2, 1);
+
+        // THEN: the blocks with an available locker come nearest first, with their distance, over both pages
+        assertThat(firstPage).extracting(block -> block.getObjectID().getID())
+                .containsExactly(id(near), id(middle));
+        assertThat(secondPage).extracting(block -> block.getObjectID().getID())
+                .containsExactly(id(far));
+        assertThat((Double) firstPage.get(0).getObjectDetails().get("distanceKm")).isBetween(0.5, 0.7);
+        assertThat(firstPage.get(0).getObjectDetails()).containsEntry("availableCount", 1);
+    }
+
+    @Test
+    @DisplayName("Test The Spatial Index Follows Moved And Emptied Blocks")
+    public void testIndexFollowsWrites() {
+        // GIVEN: two blocks with an available locker
+        ObjectBoundary near = this.lockers.blockWithLocker(32.0805, 34.7800, "available");
+        ObjectBoundary far = this.lockers.blockWithLocker(32.0950, 34.7800, "available");
+
+        // WHEN: the far block is moved next to the query point and the near block's locker is taken
+        this.lockers.patch(far, Map.of("objectDetails", Map.of("latitude", 32.0801)));
+        ObjectBoundary locker = this.lockers.firstChild(near);
+        this.lockers.patch(locker, Map.of("status", "reserved"));
+
+        // THEN: only the moved block is found, and so it is after a rebuild from the database
+        assertThat(search(5, 10, 0)).extracting(block -> block.getObjectID().getID()).containsExactly(id(far));
+        this.reconciler.reconcile();
+        assertThat(search(5, 10, 0)).extracting(block -> block.getObjectID().getID()).containsExactly(id(far));
+    }
+
+    @Test
+    @DisplayName("Test Writes Made While The Index Is Rebuilt Are Kept")
+    public void testWritesDuringRebuildAreKept() {
+        // GIVEN: a block with an available locker, and the blocks read for a rebuild as reconcile() reads them
+        ObjectBoundary emptied = this.lockers.blockWithLocker(32.0805, 34.7800, "available");
+        this.lockerBlockIndex.beginRebuild();
+        List<ObjectEntity> snapshot = this.objectCrud.findAvailabilityByType("lockerBlock");
+
+        // WHEN: a block is created and the first block's locker is taken before the rebuild swaps the grid
+        ObjectBoundary created = this.lockers.blockWithLocker(32.0850, 34.7800, "available");
+        ObjectBoundary locker = this.lockers.firstChild(emptied);
+        this.lockers.patch(locker, Map.of("status", "reserved"));
+        this.lockerBlockIndex.rebuild(snapshot);
+        this.lockerBlockIndex.endRebuild();
+
+        // THEN: the index holds the new block and the emptied block's counter, not the snapshot's
+        assertThat(search(5, 10, 0)).extracting(block -> block.getObjectID().getID()).containsExactly(id(created));
+    }
+
+    @Test
+    @DisplayName("Test Blocks Created While reconcile() Runs Stay In The Index")
+    public void testBlocksCreatedDuringReconcileStay() throws Exception {
+        // GIVEN: the reconciliation running over and over in the background
+        AtomicBoolean creating = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> reconciling = executor.submit(() -> {
+            while (creating.get()) {
+                this.reconciler.reconcile();
+            }
+        });
+
+        // WHEN: blocks are created meanwhile
+        List<String> created = new ArrayList<>();
+        try {
+            for (int i = 0; i < 20; i++) {
+                created.add(id(this.lockers.blockWithLocker(32.0760 + i * 0.001, 34.7800, "available")));
+            }
+        } finally {
+            creating.set(false);
+            reconciling.get(30, TimeUnit.SECONDS);
+            executor.shutdown();
+        }
+
+        // THEN: every block is found, none was dropped by a rebuild from an older snapshot
+        assertThat(search(5, 50, 0)).extracting(block -> block.getObjectID().getID())
+                .containsExactlyInAnyOrderElementsOf(created);
+    }
+
+    @Test
+    @DisplayName("Test A Block Made Available By Another Instance Is Found After Its Change Is Applied")
+    public void testChangesOfOtherInstancesAreApplied() {
+        // GIVEN: an indexed block whose only locker is reserved
+        ObjectBoundary block = this.lockers.blockWithLocker(32.0805, 34.7800, "reserved");
+        assertThat(search(5, 10, 0)).isEmpty();
+
+        // WHEN: another instance frees a locker, which this index only learns through the change stream
+        ObjectEntity stored = this.objectCrud.findById(id(block)).orElseThrow();
+        stored.setAvailableCount(1);
+        this.objectCrud.save(stored);
+        this.lockerBlockIndex.refresh(this.objectCrud.findById(id(block)).orElseThrow());
+
+        // THEN: the block is found without waiting for a rebuild
+        assertThat(search(5, 10, 0)).extracting(found -> found.getObjectID().getID()).containsExactly(id(block));
+    }
+
+    private List<ObjectBoundary> search(double radiusKm, int size, int page) {
+        return this.objectService.searchAvailableLockerBlocksNear(32.0750, 34.7800, radiusKm,
+                this.lockers.operatorSystemId(), this.lockers.operatorEmail(), size, page);
+    }
+}
@@ -0,0 +1,114 @@
+package demo;
+
+import demo.BusinessLogicLayer.Services.ObjectService;
+import demo.BusinessLogicLayer.Services.UserService;
+import demo.DataAccessLayer.CRUDs.UserCrud;
+import demo.DataAccessLayer.IDs.UserID;
+import demo.Enums.UserRole;
+import demo.PresentationLayer.Boundaries.NewUserBoundary;
+import demo.PresentationLayer.Boundaries.ObjectBoundary;
+import demo.PresentationLayer.Boundaries.UserNameBoundary;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Builds lockerBlocks and lockers through ObjectService for the locker availability tests
+ * (LockerAvailabilityTests, LockerBlockIndexTests, LockerAvailabilityStreamTests).
+ * Every object is created and bound by one OPERATOR, see createOperator().
+ */
+@Component
+public class LockerTestSupport {
+
+    private static final String OPERATOR_EMAIL = "locker.operator@example.com";
+
+    private final ObjectService objectService;
+    private final UserService userService;
+    private final UserCrud userCrud;
+    private final String appName;
+
+    public LockerTestSupport(ObjectService objectService, UserService userService, UserCrud userCrud,
+                             @Value("${spring.application.name:defaultApp}") String appName) {
+        this.objectService = objectService;
+        this.userService = userService;
+        this.userCrud = userCrud;
+        this.appName = appName;
+    }
+
+    // Called before each test: other test classes may have deleted all the users meanwhile
+    public void createOperator() {
+        if (!this.userCrud.existsById(OPERATOR_EMAIL + "/" + this.appName)) {
+            this.userService.createUser(new NewUserBoundary(OPERATOR_EMAIL, UserRole.OPERATOR,
+                    new UserNameBoundary("Locker", "Operator"), "avatar.png"));
+        }
+    }
+
+    public UserID operator() {
+        return new UserID(OPERATOR_EMAIL, this.appName);
+    }
+
+    public String appName() {
+        return this.appName;
+    }
+
+    public String operatorSystemId() {
+        return operator().getSystemID();
+    }
+
+    public String operatorEmail() {
+        return operator().getEmail();
+    }
+
+    public ObjectBoundary create(String type, String status, Map<String, Object> objectDetails) {
+        ObjectBoundary object = new ObjectBoundary();
+        object.setType(type);
+        object.setAlias(type + " " + System.nanoTime());
+        object.setStatus(status);
+        object.setActive(true);
+        object.setCreatedBy(Map.of("userId", operator()));
+        object.setObjectDetails(objectDetails);
+        return this.objectService.createObject(object, false);
+    }
+
+    // Binds the locker to the block and returns the locker
+    public ObjectBoundary bind(ObjectBoundary block, ObjectBoundary locker) {
+        this.objectService.bindObjects(this.appName, id(block), this.appName, id(locker), operatorSystemId(), operatorEmail());
+        return locker;
+    }
+
+    // A block at the coordinates holding one small locker in lockerStatus
+    public ObjectBoundary blockWithLocker(double latitude, double longitude, String lockerStatus) {
+        ObjectBoundary block = create("lockerBlock", "available", coordinates(latitude, longitude));
+        bind(block, create("locker", lockerStatus, new HashMap<>(Map.of("size", "small"))));
+        return block;
+    }
+
+    public void patch(ObjectBoundary object, Map<String, Object> patch) {
+        this.objectService.patchObject(this.appName, id(object), operatorSystemId(), operatorEmail(), patch);
+    }
+
+    public void update(ObjectBoundary object) {
+        this.objectService.updateObject(this.appName, id(object), operatorSystemId(), operatorEmail(), object, false);
+    }
+
+    public ObjectBoundary firstChild(ObjectBoundary block) {
+        return this.objectService.getChildren(this.appName, id(block), operatorSystemId(), operatorEmail(), 1, 0, null).get(0);
+    }
+
+    // The objectDetails as stored now, including the availability counters of a block
+    public Map<String, Object> details(ObjectBoundary object) {
+        return this.objectService.getObjectById(this.appName, id(object), operatorSystemId(), operatorEmail())
+                .orElseThrow()
+                .getObjectDetails();
+    }
+
+    public static Map<String, Object> coordinates(double latitude, double longitude) {
+        return new HashMap<>(Map.of("latitude", latitude, "longitude", longitude));
+    }
+
+    public static String id(ObjectBoundary object) {
+        return object.getObjectID().getID();
+    }
+}
@@ -15,10 +15,14 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClient;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -208,6 +212,50 @@ public class ObjectControllerTests {
         assertThat(activeObjects.length).isEqualTo(expectedActiveCount);
     }
     
+    @Test
+    @DisplayName("Test Get All Objects by Cursor Matches Page Order")
+    public void testGetAllObjectsByCursorMatchesPageOrder() {
+        for (int i = 0; i < 5; i++) {
+            objectsClient.post().contentType(MediaType.APPLICATION_JSON).body(createSampleObjectBoundary(this.operatorUser.getUserId(), true)).retrieve().body(ObjectBoundary.class);
+        }
+
+        ObjectBoundary[] allObjects = objectsClient.get()
+                .uri("?userSystemID={sysId}&userEmail={email}&size=10&page=0",
+                        this.operatorUser.getUserId().getSystemID(), this.operatorUser.getUserId().getEmail())
+                .retrieve()
+                .body(ObjectBoundary[].class);
+
+        // WHEN walking the same objects two at a time by following the next cursor
+        List<String> walkedIds = new ArrayList<>();
+        String cursor = null;
+        do {
+            ResponseEntity<ObjectBoundary[]> response = objectsClient.get()
+                    .uri("?userSystemID={sysId}&userEmail={email}&size=2" + (cursor == null ? "" : "&cursor=" + cursor),
+                            this.operatorUser.getUserId().getSystemID(), this.operatorUser.getUserId().getEmail())
+                    .retrieve()
+                    .toEntity(ObjectBoundary[].class);
+            for (ObjectBoundary object : response.getBody()) {
+                walkedIds.add(object.getObjectID().getID());
+            }
+            cursor = response.getHeaders().getFirst("X-Next-Cursor");
+        } while (cursor != null);
+
+        assertThat(walkedIds).containsExactly(
+                Arrays.stream(allObjects).map(object -> object.getObjectID().getID()).toArray(String[]::new));
+    }
+
+    @Test
+    @DisplayName("Test Get All Objects With Invalid Cursor Fails")
+    public void testGetAllObjectsWithInvalidCursorFails() {
+        assertThatThrownBy(() -> objectsClient.get()
+                .uri("?userSystemID={sysId}&userEmail={email}&size=2&cursor=not-a-cursor",
+                        this.operatorUser.getUserId().getSystemID(), this.operatorUser.getUserId().getEmail())
+                .retrieve()
+                .body(ObjectBoundary[].class))
+                .isInstanceOf(HttpClientErrorException.class)
+                .hasFieldOrPropertyWithValue("statusCode", HttpStatus.BAD_REQUEST);
+    }
+
     @Test
     @DisplayName("Test Get All Objects by ADMIN Fails")
     public void testGetAllObjectsByAdminFails() {
@@ -286,6 +334,124 @@ public class ObjectControllerTests {
         assertThat(updatedObject.getStatus()).isEqualTo("UpdatedStatus");
     }
     
+    @Test
+    @DisplayName("Test Patch Object Changes Only The Given Fields")
+    public void testPatchObjectChangesOnlyGivenFields() {
+        ObjectBoundary newObject = createSampleObjectBoundary(this.operatorUser.getUserId(), true);
+        newObject.setObjectDetails(new HashMap<>(Map.of(
+                "size", "M",
+                "note", "remove me",
+                "dimensions", Map.of("width", 40, "height", 60))));
+        ObjectBoundary originalObject = objectsClient.post().contentType(MediaType.APPLICATION_JSON).body(newObject).retrieve().body(ObjectBoundary.class);
+
+        Map<String, Object> patch = new HashMap<>();
+        patch.put("status", "PatchedStatus");
+        Map<String, Object> detailsPatch = new HashMap<>();
+        detailsPatch.put("note", null);
+        detailsPatch.put("dimensions", Map.of("depth", 50));
+        patch.put("objectDetails", detailsPatch);
+
+        objectsClient.patch()
+                .uri("/{systemID}/{objectID}?userSystemID={userSysId}&userEmail={userEmail}",
+                        originalObject.getObjectID().getSystemID(), originalObject.getObjectID().getID(),
+                        this.operatorUser.getUserId().getSystemID(), this.operatorUser.getUserId().getEmail())
+                .contentType(MediaType.valueOf("application/merge-patch+json"))
+                .body(patch)
+                .retrieve()
+                .toBodilessEntity();
+
+        ObjectBoundary patchedObject = objectsClient.get()
+                .uri("/{systemID}/{objectID}?userSystemID={userSysId}&userEmail={userEmail}",
+                        originalObject.getObjectID().getSystemID(), originalObject.getObjectID().getID(),
+                        this.operatorUser.getUserId().getSystemID(), this.operatorUser.getUserId().getEmail())
+                .retrieve()
+                .body(ObjectBoundary.class);
+
+        assertThat(patchedObject.getStatus()).isEqualTo("PatchedStatus");
+        assertThat(patchedObject.getAlias()).isEqualTo(originalObject.getAlias());
+        assertThat(patchedObject.getType()).isEqualTo(originalObject.getType());
+        assertThat(patchedObject.getActive()).isTrue();
+        assertThat(patchedObject.getObjectDetails())
+                .containsEntry("size", "M")
+                .doesNotContainKey("note")
+                .containsEntry("dimensions", Map.of("width", 40, "height", 60, "depth", 50));
+    }
+
+    @Test
+    @DisplayName("Test Patch Object Replaces A Stored Scalar With A Nested Object")
+    public void testPatchObjectReplacesScalarWithObject() {
+        // GIVEN: an object whose objectDetails.size is a string
+        ObjectBoundary newObject = createSampleObjectBoundary(this.operatorUser.getUserId(), true);
+        newObject.setObjectDetails(new HashMap<>(Map.of("size", "small", "color", "red")));
+        ObjectBoundary originalObject = objectsClient.post().contentType(MediaType.APPLICATION_JSON).body(newObject).retrieve().body(ObjectBoundary.class);
+
+        // WHEN: size is patched with an object, one of whose members is null
+        Map<String, Object> sizePatch = new HashMap<>();
+        sizePatch.put("a", 1);
+        sizePatch.put("b", null);
+        patchObjectDetails(originalObject, Map.of("size", sizePatch));
+
+        // THEN: size becomes that object without the null member, the rest is kept
+        assertThat(getObjectDetails(originalObject))
+                .containsEntry("size", Map.of("a", 1))
+                .containsEntry("color", "red");
+    }
+
+    @Test
+    @DisplayName("Test Patch Object Stores An Empty Nested Object")
+    public void testPatchObjectStoresEmptyObject() {
+        // GIVEN: an object with a nested object and without the field x
+        ObjectBoundary newObject = createSampleObjectBoundary(this.operatorUser.getUserId(), true);
+        newObject.setObjectDetails(new HashMap<>(Map.of("dimensions", Map.of("width", 40))));
+        ObjectBoundary originalObject = objectsClient.post().contentType(MediaType.APPLICATION_JSON).body(newObject).retrieve().body(ObjectBoundary.class);
+
+        // WHEN: x and the existing nested object are patched with empty objects
+        patchObjectDetails(originalObject, Map.of("x", Map.of(), "dimensions", Map.of()));
+
+        // THEN: x is stored as an empty object and the existing one is left as it was
+        assertThat(getObjectDetails(originalObject))
+                .containsEntry("x", Map.of())
+                .containsEntry("dimensions", Map.of("width", 40));
+    }
+
+    private void patchObjectDetails(ObjectBoundary object, Map<String, Object> detailsPatch) {
+        objectsClient.patch()
+                .uri("/{systemID}/{objectID}?userSystemID={userSysId}&userEmail={userEmail}",
+                        object.getObjectID().getSystemID(), object.getObjectID().getID(),
+                        this.operatorUser.getUserId().getSystemID(), this.operatorUser.getUserId().getEmail())
+                .contentType(MediaType.valueOf("application/merge-patch+json"))
+                .body(Map.of("objectDetails", detailsPatch))
+                .retrieve()
+                .toBodilessEntity();
+    }
+
+    private Map<String, Object> getObjectDetails(ObjectBoundary object) {
+        return objectsClient.get()
+                .uri("/{systemID}/{objectID}?userSystemID={userSysId}&userEmail={userEmail}",
+                        object.getObjectID().getSystemID(), object.getObjectID().getID(),
+                        this.operatorUser.getUserId().getSystemID(), this.operatorUser.getUserId().getEmail())
+                .retrieve()
+                .body(ObjectBoundary.class)
+                .getObjectDetails();
+    }
+
+    @Test
+    @DisplayName("Test Patch Object Fails by END_USER")
+    public void testPatchObjectFailsByEndUser() {
+        ObjectBoundary originalObject = objectsClient.post().contentType(MediaType.APPLICATION_JSON).body(createSampleObjectBoundary(this.operatorUser.getUserId(), true)).retrieve().body(ObjectBoundary.class);
+
+        assertThatThrownBy(() -> objectsClient.patch()
+                .uri("/{systemID}/{objectID}?userSystemID={userSysId}&userEmail={userEmail}",
+                        originalObject.getObjectID().getSystemID(), originalObject.getObjectID().getID(),
+                        this.endUser.getUserId().getSystemID(), this.endUser.getUserId().getEmail())
+                .contentType(MediaType.valueOf("application/merge-patch+json"))
+                .body(Map.of("status", "AttemptedStatus"))
+                .retrieve()
+                .toBodilessEntity())
+                .isInstanceOf(HttpClientErrorException.class)
+                .hasFieldOrPropertyWithValue("statusCode", HttpStatus.FORBIDDEN);
+    }
+
     @Test
     @DisplayName("Test Update Object Fails by END_USER")
     public void testUpdateObjectFailsByEndUser() {
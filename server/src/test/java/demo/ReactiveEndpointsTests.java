@@ -0,0 +1,129 @@
+package demo;
+
+import demo.BusinessLogicLayer.Services.ObjectService;
+import demo.BusinessLogicLayer.Services.UserService;
+import demo.DataAccessLayer.CRUDs.ObjectCrud;
+import demo.Enums.UserRole;
+import demo.PresentationLayer.Boundaries.NewUserBoundary;
+import demo.PresentationLayer.Boundaries.ObjectBoundary;
+import demo.PresentationLayer.Boundaries.UserBoundary;
+import demo.PresentationLayer.Boundaries.UserNameBoundary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+import reactor.netty.DisposableServer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "reactive.server.port=0")
+@ActiveProfiles("reactive")
+public class ReactiveEndpointsTests {
+
+    @Autowired
+    private DisposableServer reactiveServer;
+
+    @Value("${spring.application.name:defaultApp}")
+    private String appName;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ObjectService objectService;
+
+    @Autowired
+    private ObjectCrud objectCrud;
+
+    private RestClient searchClient;
+    private UserBoundary operator;
+    private UserBoundary admin;
+
+    @BeforeEach
+    public void setUp() {
+        this.searchClient = RestClient.create("http://localhost:" + this.reactiveServer.port() + "/ambient-intelligence/objects/search");
+        this.objectCrud.deleteAll();
+        this.operator = user("reactive.operator@example.com", UserRole.OPERATOR);
+        this.admin = user("reactive.admin@example.com", UserRole.ADMIN);
+    }
+
+    // Success: a search over the reactive server returns the same objects as the MVC one
+    @Test
+    @DisplayName("Test Search By Type On The Reactive Server")
+    public void testSearchByType() {
+        createObject("reactiveType", "first");
+        createObject("reactiveType", "second");
+        createObject("otherType", "third");
+
+        ObjectBoundary[] objects = this.searchClient.get()
+                .uri("/byType/{type}?userSystemID={sysId}&userEmail={email}&size=10",
+                        "reactiveType", this.operator.getUserId().getSystemID(), this.operator.getUserId().getEmail())
+                .retrieve()
+                .body(ObjectBoundary[].class);
+
+        assertThat(objects).extracting(ObjectBoundary::getAlias).containsExactlyInAnyOrder("first", "second");
+    }
+
+    // Success: with Accept application/x-ndjson every object is written on its own line
+    @Test
+    @DisplayName("Test Search Streams NDJSON On Request")
+    public void testSearchStreamsNdjson() {
+        createObject("reactiveType", "first");
+        createObject("reactiveType", "second");
+
+        String body = this.searchClient.get()
+                .uri("/byType/{type}?userSystemID={sysId}&userEmail={email}",
+                        "reactiveType", this.operator.getUserId().getSystemID(), this.operator.getUserId().getEmail())
+                .accept(MediaType.APPLICATION_NDJSON)
+                .retrieve()
+                .body(String.class);
+
+        assertThat(body.trim().split("\n")).hasSize(2);
+    }
+
+    // Failure: ADMIN has no access to objects, as on the MVC endpoints
+    @Test
+    @DisplayName("Test Search As Admin Is Forbidden On The Reactive Server")
+    public void testSearchAsAdminIsForbidden() {
+        assertThatThrownBy(() -> this.searchClient.get()
+                .uri("/byType/{type}?userSystemID={sysId}&userEmail={email}",
+                        "reactiveType", this.admin.getUserId().getSystemID(), this.admin.getUserId().getEmail())
+                .retrieve()
+                .body(ObjectBoundary[].class))
+                .isInstanceOf(HttpClientErrorException.class)
+                .hasFieldOrPropertyWithValue("statusCode", HttpStatus.FORBIDDEN);
+    }
+
+    private UserBoundary user(String email, UserRole role) {
+        try {
+            return this.userService.createUser(new NewUserBoundary(email, role, new UserNameBoundary("Reactive", "User"), "avatar.png"));
+        } catch (RuntimeException e) {
+            // created by an earlier test
+            return this.userService.login(this.appName, email).orElseThrow();
+        }
+    }
+
+    private void createObject(String type, String alias) {
+        ObjectBoundary object = new ObjectBoundary();
+        object.setType(type);
+        object.setAlias(alias);
+        object.setStatus("available");
+        object.setActive(true);
+        object.setCreatedBy(Map.of("userId", this.operator.getUserId()));
+        object.setObjectDetails(new HashMap<>());
+        this.objectService.createObject(object, false);
+    }
+}
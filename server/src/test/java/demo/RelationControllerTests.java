@@ -9,13 +9,20 @@ import demo.PresentationLayer.Boundaries.UserNameBoundary;
 import demo.DataAccessLayer.IDs.ObjectID;
 // =========================================================
 import demo.DataAccessLayer.IDs.UserID;
+import demo.Initializers.ParentReferenceMigrator;
+import com.mongodb.DBRef;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Updates;
+import org.bson.Document;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.web.client.HttpClientErrorException;
@@ -45,6 +52,12 @@ public class RelationControllerTests {
     private UserBoundary operatorUser;
     private UserBoundary endUser;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ParentReferenceMigrator parentReferenceMigrator;
+
     // ============ UPDATE 2: Added ChildIdWrapper class to match controller structure ============
     public static class ChildIdWrapper {
         private ObjectID childId;
@@ -291,4 +304,46 @@ public class RelationControllerTests {
         assertThat(childrenForEndUser[0].getObjectID().getID()).isEqualTo(childActive.getObjectID().getID());
         assertThat(childrenForEndUser[0].getActive()).isTrue();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Test Child Stored With A Legacy DBRef Parent Is Served Through Its Raw Parent Id")
+    public void testLegacyDBRefChildIsMigratedToParentId() throws InterruptedException {
+        // GIVEN a child written before parentId existed, holding its parent as a @DBRef
+        ObjectBoundary parentObject = createObjectViaObjectController(this.operatorUser.getUserId(), "ParentLegacyRel", true);
+        ObjectBoundary childObject = createObjectViaObjectController(this.operatorUser.getUserId(), "ChildLegacyRel", true);
+        String parentId = parentObject.getObjectID().getID();
+        this.mongoTemplate.getCollection("OBJECTS").updateOne(
+                Filters.eq("_id", childObject.getObjectID().getID()),
+                Updates.combine(
+                        Updates.unset("parentId"),
+                        Updates.set("parent", new DBRef("OBJECTS", parentId))));
+
+        // WHEN the migration runs
+        this.parentReferenceMigrator.startMigration();
+
+        // THEN the referenced id is copied from the reference itself, without the parent being loaded,
+        // and the child is found through it
+        long deadline = System.currentTimeMillis() + 10_000;
+        Document child;
+        do {
+            Thread.sleep(50);
+            child = this.mongoTemplate.getCollection("OBJECTS")
+                    .find(Filters.eq("_id", childObject.getObjectID().getID()))
+                    .first();
+        } while (child != null && child.containsKey("parent") && System.currentTimeMillis() < deadline);
+
+        assertThat(child).isNotNull();
+        assertThat(child.containsKey("parent")).isFalse();
+        assertThat(child.getString("parentId")).isEqualTo(parentId);
+
+        ObjectBoundary[] children = relationClient.get()
+                .uri("/{parentSystemID}/{parentObjectID}/children?userSystemID={userSysId}&userEmail={userEmail}",
+                        parentObject.getObjectID().getSystemID(), parentId,
+                        this.operatorUser.getUserId().getSystemID(), this.operatorUser.getUserId().getEmail())
+                .retrieve()
+                .body(ObjectBoundary[].class);
+
+        assertThat(children).isNotNull().hasSize(1);
+        assertThat(children[0].getObjectID().getID()).isEqualTo(childObject.getObjectID().getID());
+    }
+}
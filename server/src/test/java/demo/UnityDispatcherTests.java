@@ -0,0 +1,238 @@
+package demo;
+
+import com.sun.net.httpserver.HttpServer;
+import demo.BusinessLogicLayer.Services.UnityDispatcher;
+import demo.BusinessLogicLayer.Services.UnityNotificationService;
+import demo.DataAccessLayer.CRUDs.UnityDeadLetterCrud;
+import demo.DataAccessLayer.Entities.UnityDeadLetterEntity;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "unity.dispatcher.max-attempts=3",
+                "unity.dispatcher.initial-backoff=20ms",
+                "unity.coalescing.flush-size=3",
+                "unity.coalescing.flush-interval=1h",
+                "unity.coalescing.batch-endpoint=true"
+        })
+public class UnityDispatcherTests {
+
+    // Local stand-in for the Unity simulator: answers with the queued status codes, then 200
+    private static final HttpServer simulator;
+    private static final BlockingQueue<String> receivedBodies = new LinkedBlockingQueue<>();
+    private static final BlockingQueue<Integer> plannedStatuses = new LinkedBlockingQueue<>();
+    private static final AtomicInteger requestCount = new AtomicInteger();
+
+    static {
+        try {
+            simulator = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        simulator.createContext("/", exchange -> {
+            requestCount.incrementAndGet();
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            // An unreachable locker: every update of it fails
+            Integer status = body.contains("\"lockerId\":\"failing\"") ? Integer.valueOf(503) : plannedStatuses.poll();
+            if (status == null) {
+                status = 200;
+                receivedBodies.add(exchange.getRequestURI().getPath() + " " + body);
+            }
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        simulator.start();
+    }
+
+    @DynamicPropertySource
+    static void simulatorProperties(DynamicPropertyRegistry registry) {
+        registry.add("unity.simulator.url", () -> "http://localhost:" + simulator.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopSimulator() {
+        simulator.stop(0);
+    }
+
+    @Autowired
+    private UnityDispatcher dispatcher;
+
+    @Autowired
+    private UnityDeadLetterCrud deadLetterCrud;
+
+    @Autowired
+    private UnityNotificationService unityNotificationService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setUp() {
+        receivedBodies.clear();
+        plannedStatuses.clear();
+        requestCount.set(0);
+        this.deadLetterCrud.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Test Notification Is Delivered Without Blocking The Caller")
+    public void testNotificationIsDelivered() throws Exception {
+        this.dispatcher.dispatch("/lockerUpdate", Map.of("lockerId", "locker-1", "isLocked", true));
+
+        String received = receivedBodies.poll(5, TimeUnit.SECONDS);
+        assertThat(received).startsWith("/lockerUpdate ");
+        assertThat(received).contains("\"lockerId\":\"locker-1\"").contains("\"isLocked\":true");
+    }
+
+    @Test
+    @DisplayName("Test Failed Notification Is Retried")
+    public void testFailedNotificationIsRetried() throws Exception {
+        plannedStatuses.add(503);
+        plannedStatuses.add(500);
+
+        this.dispatcher.dispatch("/lockerUpdate", Map.of("lockerId", "locker-2", "isLocked", false));
+
+        String received = receivedBodies.poll(5, TimeUnit.SECONDS);
+        assertThat(received).contains("\"lockerId\":\"locker-2\"");
+        assertThat(requestCount.get()).isEqualTo(3);
+        assertThat(this.deadLetterCrud.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Test Notification Is Dead-Lettered After The Last Attempt")
+    public void testNotificationIsDeadLettered() throws Exception {
+        plannedStatuses.add(500);
+        plannedStatuses.add(500);
+        plannedStatuses.add(500);
+
+        this.dispatcher.dispatch("/lockerUpdate", Map.of("lockerId", "locker-3", "isLocked", true));
+
+        List<UnityDeadLetterEntity> deadLetters = List.of();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (deadLetters.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            deadLetters = this.deadLetterCrud.findAll();
+        }
+
+        assertThat(deadLetters).hasSize(1);
+        assertThat(deadLetters.get(0).getAttempts()).isEqualTo(3);
+        assertThat(deadLetters.get(0).getLastError()).isEqualTo("HTTP 500");
+        assertThat(deadLetters.get(0).getPayload()).contains("\"lockerId\":\"locker-3\"");
+        assertThat(receivedBodies).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Test Locker Updates Are Coalesced Into One Batch")
+    public void testLockerUpdatesAreCoalesced() throws Exception {
+        double receivedBefore = this.meterRegistry.counter("unity.updates.received").count();
+        double sentBefore = this.meterRegistry.counter("unity.updates.sent").count();
+
+        // A double tap on locker-a, then two more lockers reach the flush size of 3
+        this.unityNotificationService.sendLockerStatus("locker-a", false, 1);
+        this.unityNotificationService.sendLockerStatus("locker-a", true, 2);
+        this.unityNotificationService.sendLockerStatus("locker-b", false, 1);
+        this.unityNotificationService.sendLockerStatus("locker-c", true, 1);
+
+        String received = receivedBodies.poll(5, TimeUnit.SECONDS);
+        assertThat(received).startsWith("/lockerUpdates ");
+        assertThat(received)
+                .contains("{\"lockerId\":\"locker-a\",\"isLocked\":true,\"version\":2}")
+                .doesNotContain("\"isLocked\":false,\"version\":1}")
+                .contains("\"locker-b\"")
+                .contains("\"locker-c\"");
+        assertThat(requestCount.get()).isEqualTo(1);
+
+        assertThat(this.meterRegistry.counter("unity.updates.received").count() - receivedBefore).isEqualTo(4);
+        assertThat(this.meterRegistry.counter("unity.updates.sent").count() - sentBefore).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Test Locker Update Older Than The Queued One Is Dropped")
+    public void testOlderLockerUpdateIsDropped() throws Exception {
+        // Version 6 is handed over before version 5, as when the second toggle's thread overtakes the first one
+        this.unityNotificationService.sendLockerStatus("locker-d", true, 6);
+        this.unityNotificationService.sendLockerStatus("locker-d", false, 5);
+        this.unityNotificationService.sendLockerStatus("locker-e", false, 1);
+        this.unityNotificationService.sendLockerStatus("locker-f", true, 1);
+
+        String received = receivedBodies.poll(5, TimeUnit.SECONDS);
+        assertThat(received)
+                .contains("{\"lockerId\":\"locker-d\",\"isLocked\":true,\"version\":6}")
+                .doesNotContain("\"version\":5");
+
+        // Once version 6 was sent, a late version 5 is not sent on its own either
+        this.unityNotificationService.sendLockerStatus("locker-d", false, 5);
+        this.unityNotificationService.sendLockerStatus("locker-g", false, 1);
+        this.unityNotificationService.sendLockerStatus("locker-h", true, 1);
+        this.unityNotificationService.sendLockerStatus("locker-i", true, 1);
+
+        String next = receivedBodies.poll(5, TimeUnit.SECONDS);
+        assertThat(next).contains("\"locker-g\"").doesNotContain("\"locker-d\"");
+    }
+
+    @Test
+    @DisplayName("Test Ordered Notifications Are Delivered In Order Despite A Retry")
+    public void testOrderedNotificationsKeepTheirOrder() throws Exception {
+        // The first delivery fails once, the second one must still arrive after its retry
+        plannedStatuses.add(503);
+
+        this.dispatcher.dispatchInOrder("locker-4", "/lockerUpdate", Map.of("lockerId", "locker-4", "isLocked", true, "version", 1));
+        this.dispatcher.dispatchInOrder("locker-4", "/lockerUpdate", Map.of("lockerId", "locker-4", "isLocked", false, "version", 2));
+
+        String first = receivedBodies.poll(5, TimeUnit.SECONDS);
+        String second = receivedBodies.poll(5, TimeUnit.SECONDS);
+        assertThat(first).contains("\"version\":1");
+        assertThat(second).contains("\"version\":2");
+        assertThat(requestCount.get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Test A Failing Locker Does Not Hold Back The Updates Of Other Lockers")
+    public void testFailingLockerDoesNotBlockOthers() throws Exception {
+        // GIVEN: a locker whose updates always fail, dispatched first
+        this.dispatcher.dispatchInOrder("failing", "/lockerUpdate", Map.of("lockerId", "failing", "isLocked", true, "version", 1));
+        this.dispatcher.dispatchInOrder("failing", "/lockerUpdate", Map.of("lockerId", "failing", "isLocked", false, "version", 2));
+
+        // WHEN: another locker's update follows
+        this.dispatcher.dispatchInOrder("locker-5", "/lockerUpdate", Map.of("lockerId", "locker-5", "isLocked", true, "version", 1));
+
+        // THEN: it is delivered while the failing locker is still being retried
+        String received = receivedBodies.poll(5, TimeUnit.SECONDS);
+        assertThat(received).contains("\"lockerId\":\"locker-5\"");
+
+        // AND: the failing locker's updates are dead-lettered in their order, each after its own attempts
+        List<UnityDeadLetterEntity> deadLetters = List.of();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (deadLetters.size() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            deadLetters = this.deadLetterCrud.findAll();
+        }
+        assertThat(deadLetters).hasSize(2);
+        assertThat(deadLetters).allSatisfy(deadLetter -> assertThat(deadLetter.getAttempts()).isEqualTo(3));
+        deadLetters = deadLetters.stream().sorted(Comparator.comparing(UnityDeadLetterEntity::getFailedTimestamp)).toList();
+        assertThat(deadLetters.get(0).getPayload()).contains("\"version\":1");
+        assertThat(deadLetters.get(1).getPayload()).contains("\"version\":2");
+    }
+}
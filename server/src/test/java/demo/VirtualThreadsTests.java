@@ -0,0 +1,134 @@
+package demo;
+
+import demo.BusinessLogicLayer.CommandHandlers.CommandContext;
+import demo.BusinessLogicLayer.CommandHandlers.CommandHandler;
+import demo.Enums.UserRole;
+import demo.PresentationLayer.Boundaries.CommandBoundary;
+import demo.PresentationLayer.Boundaries.NewUserBoundary;
+import demo.PresentationLayer.Boundaries.UserBoundary;
+import demo.PresentationLayer.Boundaries.UserNameBoundary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.threads.virtual.enabled=true")
+public class VirtualThreadsTests {
+
+    private static final String END_USER_EMAIL = "virtual.threads@example.com";
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${spring.application.name:defaultApp}")
+    private String appName;
+
+    private RestClient commandsClient;
+    private UserBoundary endUser;
+
+    // Test-only command reporting the thread the request was handled on
+    @TestConfiguration
+    static class ThreadReportingCommand {
+
+        @Bean
+        CommandHandler currentThreadCommandHandler() {
+            return new CommandHandler() {
+                @Override
+                public String commandType() {
+                    return "currentThread";
+                }
+
+                @Override
+                public Object handle(CommandContext context) {
+                    Thread thread = Thread.currentThread();
+                    return Map.of("virtual", thread.isVirtual(), "name", thread.toString());
+                }
+            };
+        }
+    }
+
+    @BeforeEach
+    public void setUp() {
+        this.commandsClient = RestClient.create("http://localhost:" + this.port + "/ambient-intelligence/commands");
+        RestClient usersClient = RestClient.create("http://localhost:" + this.port + "/ambient-intelligence/users");
+
+        NewUserBoundary newUser = new NewUserBoundary(END_USER_EMAIL, UserRole.END_USER,
+                new UserNameBoundary("Virtual", "Threads"), "avatar.png");
+        try {
+            usersClient.post().contentType(MediaType.APPLICATION_JSON).body(newUser).retrieve().toBodilessEntity();
+        } catch (HttpClientErrorException e) { /* already exists */ }
+        this.endUser = usersClient.get()
+                .uri("/login/{systemID}/{email}", this.appName, END_USER_EMAIL)
+                .retrieve()
+                .body(UserBoundary.class);
+    }
+
+    @Test
+    @DisplayName("Test A Command Is Handled On A Virtual Thread")
+    public void testCommandIsHandledOnVirtualThread() {
+        // GIVEN: a command reporting the thread it runs on
+        CommandBoundary command = command("currentThread", Map.of("message", "Hello Virtual Threads"));
+
+        // WHEN: it is invoked through the commands API
+        List<?> result = commandsClient.post()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(command)
+                .retrieve()
+                .body(List.class);
+
+        // THEN: the request was handled on a virtual thread
+        assertThat(result).hasSize(1);
+        assertThat((Map<?, ?>) result.get(0)).containsEntry("virtual", true);
+    }
+
+    // Success: more concurrent requests than Tomcat has platform threads are all served
+    @Test
+    @DisplayName("Test Concurrent Commands Are Served On Virtual Threads")
+    public void testConcurrentCommandsAreServed() throws Exception {
+        CommandBoundary command = command("currentThread", Map.of("message", "Hello Virtual Threads"));
+
+        int clients = 500;
+        List<Future<List<?>>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                results.add(executor.submit(() -> commandsClient.post()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(command)
+                        .retrieve()
+                        .body(List.class)));
+            }
+        }
+
+        for (Future<List<?>> result : results) {
+            assertThat(result.get()).hasSize(1);
+            assertThat((Map<?, ?>) result.get().get(0)).containsEntry("virtual", true);
+        }
+    }
+
+    private CommandBoundary command(String type, Map<String, Object> attributes) {
+        CommandBoundary command = new CommandBoundary();
+        command.setCommand(type);
+        command.setTargetObject(Map.of("id", Map.of("objectId", "*")));
+        command.setInvokedBy(Map.of("userId", this.endUser.getUserId()));
+        command.setCommandAttributes(attributes);
+        return command;
+    }
+}